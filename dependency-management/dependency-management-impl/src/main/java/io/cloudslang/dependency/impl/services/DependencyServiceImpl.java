@@ -72,6 +72,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -111,7 +113,14 @@ public class DependencyServiceImpl implements DependencyService {
     @Autowired
     private EventBus eventBus;
 
-    private final Lock lock = new ReentrantLock();
+    // the embedded maven reads its parameters from the system properties, so only one build can run at a time
+    private final Lock mavenLock = new ReentrantLock();
+
+    // resource --> lock guarding the creation of its path file
+    private final ConcurrentMap<String, Lock> resourceLocks = new ConcurrentHashMap<>();
+
+    // resource --> classpath read from its path file, read again when the path file changes
+    private final ConcurrentMap<String, ResolvedClasspath> resolvedClasspaths = new ConcurrentHashMap<>();
 
     @PostConstruct
     private void initMaven() throws ClassNotFoundException, NoSuchMethodException, MalformedURLException {
@@ -186,29 +195,57 @@ public class DependencyServiceImpl implements DependencyService {
     public Set<String> getDependencies(Set<String> resources) {
         Set<String> resolvedResources = new HashSet<>(resources.size());
         for (String resource : resources) {
-            String[] gav = extractGav(resource);
-            List<String> dependencyList;
             try {
-                String dependencyFilePath = getResourceFolderPath(gav) + SEPARATOR + getPathFileName(gav);
-                File file = new File(dependencyFilePath);
+                resolvedResources.addAll(getClasspath(resource));
+            } catch (IOException|InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return resolvedResources;
+    }
+
+    private List<String> getClasspath(String resource) throws IOException, InterruptedException {
+        ResolvedClasspath resolvedClasspath = resolvedClasspaths.get(resource);
+        if (resolvedClasspath != null && resolvedClasspath.isUpToDate()) {
+            return resolvedClasspath.getPaths();
+        }
+        String[] gav = extractGav(resource);
+        String dependencyFilePath = getResourceFolderPath(gav) + SEPARATOR + getPathFileName(gav);
+        File file = new File(dependencyFilePath);
+        if (!file.exists()) {
+            Lock resourceLock = getResourceLock(resource);
+            resourceLock.lock();
+            try {
+                //double check if file was just created
                 if (!file.exists()) {
-                    lock.lock();
+                    mavenLock.lock();
                     try {
-                        //double check if file was just created
-                        if (!file.exists()) {
-                            buildDependencyFile(gav);
-                        }
+                        buildDependencyFile(gav);
                     } finally {
-                        lock.unlock();
+                        mavenLock.unlock();
                     }
                 }
-                dependencyList = parse(file);
-                resolvedResources.addAll(dependencyList);
-            } catch (IOException|InterruptedException e) {
-                throw new IllegalStateException(e);
+            } finally {
+                resourceLock.unlock();
             }
         }
-        return resolvedResources;
+        // the timestamp is taken before reading, so a change made while reading is picked up by the next call
+        long lastModified = file.lastModified();
+        resolvedClasspath = new ResolvedClasspath(file, lastModified, parse(file));
+        resolvedClasspaths.put(resource, resolvedClasspath);
+        return resolvedClasspath.getPaths();
+    }
+
+    private Lock getResourceLock(String resource) {
+        Lock resourceLock = resourceLocks.get(resource);
+        if (resourceLock == null) {
+            Lock newLock = new ReentrantLock();
+            resourceLock = resourceLocks.putIfAbsent(resource, newLock);
+            if (resourceLock == null) {
+                resourceLock = newLock;
+            }
+        }
+        return resourceLock;
     }
 
     @SuppressWarnings("ConstantConditions")
@@ -433,4 +470,24 @@ public class DependencyServiceImpl implements DependencyService {
     private String getVersion(String[] gav) {
         return gav[2];
     }
+
+    private static class ResolvedClasspath {
+        private final File pathFile;
+        private final long lastModified;
+        private final List<String> paths;
+
+        ResolvedClasspath(File pathFile, long lastModified, List<String> paths) {
+            this.pathFile = pathFile;
+            this.lastModified = lastModified;
+            this.paths = paths;
+        }
+
+        boolean isUpToDate() {
+            return pathFile.lastModified() == lastModified;
+        }
+
+        List<String> getPaths() {
+            return paths;
+        }
+    }
 }
@@ -35,8 +35,10 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -115,6 +117,27 @@ public class DependencyServiceTest {
         Assert.assertTrue("Unexpected returned set", ret.containsAll(referenceList) && ret.size() == referenceList.size());
     }
 
+    @Test
+    public void testResolvedClasspathReloadedWhenPathFileChanges() throws IOException {
+        String basePath = new TestConfig().mavenConfig().getLocalMavenRepoPath();
+        File pathFile = new File(basePath + "/groupId1/test-artifact2/1.0/test-artifact2-1.0.path");
+        Assert.assertTrue(pathFile.getParentFile().mkdirs());
+        try {
+            Files.write(pathFile.toPath(), "C:/aaa/bbb.jar".getBytes());
+            Set<String> ret = dependencyService.getDependencies(Collections.singleton("groupId1:test-artifact2:1.0"));
+            Assert.assertEquals(Collections.singleton("C:/aaa/bbb.jar"), ret);
+
+            Files.write(pathFile.toPath(), "C:/aaa/ccc.jar;C:/aaa/ddd.jar".getBytes());
+            Assert.assertTrue(pathFile.setLastModified(pathFile.lastModified() + 2000));
+            ret = dependencyService.getDependencies(Collections.singleton("groupId1:test-artifact2:1.0"));
+            Assert.assertEquals(new HashSet<>(Arrays.asList("C:/aaa/ccc.jar", "C:/aaa/ddd.jar")), ret);
+        } finally {
+            Assert.assertTrue(pathFile.delete());
+            Assert.assertTrue(pathFile.getParentFile().delete());
+            Assert.assertTrue(pathFile.getParentFile().getParentFile().delete());
+        }
+    }
+
     @Test
     public void testEmptyResourceSet() {
         Set<String> ret1 = dependencyService.getDependencies(new HashSet<String>());
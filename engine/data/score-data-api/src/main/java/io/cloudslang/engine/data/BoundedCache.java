@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.data;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Spring {@link org.springframework.cache.Cache} that holds up to maxSize entries, each for up to timeToLiveMillis.
+ * Reads do not lock. When the cache is full the oldest inserted entries are evicted first.
+ * Null values are not cached.
+ */
+public class BoundedCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final int maxSize;
+    private final long timeToLiveMillis;
+
+    private final ConcurrentMap<Object, Entry> entries = new ConcurrentHashMap<>();
+    //every put appends its entry, an entry that was replaced or removed since then is skipped on eviction
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BoundedCache(String name, int maxSize, long timeToLiveMillis) {
+        super(false);
+        this.name = name;
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired()) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            //noinspection unchecked
+            return (T) value;
+        }
+        try {
+            T loaded = valueLoader.call();
+            put(key, loaded);
+            return loaded;
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        Entry entry = new Entry(key, value, System.currentTimeMillis() + timeToLiveMillis);
+        entries.put(key, entry);
+        insertionOrder.offer(entry);
+        insertionOrderSize.incrementAndGet();
+        evictOverflow();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Object existing = lookup(key);
+        if (existing != null) {
+            return toValueWrapper(existing);
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+        insertionOrderSize.set(0);
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxSize) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            insertionOrderSize.decrementAndGet();
+            if (entries.remove(oldest.key, oldest)) {
+                evictions.incrementAndGet();
+            }
+        }
+        //entries that were replaced, evicted or expired are left in the queue, so do not let it grow forever
+        if (insertionOrderSize.get() > 2 * maxSize) {
+            synchronized (insertionOrder) {
+                if (insertionOrderSize.get() > 2 * maxSize) {
+                    for (Iterator<Entry> iterator = insertionOrder.iterator(); iterator.hasNext(); ) {
+                        Entry entry = iterator.next();
+                        if (entries.get(entry.key) != entry) {
+                            iterator.remove();
+                        }
+                    }
+                    insertionOrderSize.set(insertionOrder.size());
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Cache " + name + ": size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions();
+    }
+
+    private static class Entry {
+        private final Object key;
+        private final Object value;
+        private final long expirationTime;
+
+        private Entry(Object key, Object value, long expirationTime) {
+            this.key = key;
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expirationTime;
+        }
+    }
+}
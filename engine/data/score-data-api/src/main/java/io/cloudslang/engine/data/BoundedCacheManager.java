@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.data;
+
+import org.apache.log4j.Logger;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link CacheManager} of score, creates a {@link BoundedCache} for every cache name.
+ *
+ * The size and time to live of every cache can be set with the system properties
+ * score.cache.[cache name].maxSize and score.cache.[cache name].timeToLiveMillis
+ */
+public class BoundedCacheManager implements CacheManager {
+
+    private final Logger logger = Logger.getLogger(getClass());
+
+    public static final String RUNNING_EXECUTION_PLANS_CACHE = "running_execution_plans";
+    public static final String RECOVERY_VERSION_CACHE = "recovery_version";
+
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private static final long DEFAULT_TIME_TO_LIVE_MILLIS = 10 * 60 * 1000L;
+
+    private final ConcurrentMap<String, BoundedCache> caches = new ConcurrentHashMap<>();
+
+    public BoundedCacheManager() {
+        //running execution plans never change, so they are kept as long as they are used
+        createCache(RUNNING_EXECUTION_PLANS_CACHE, 1000, 30 * 60 * 1000L);
+        //the version is evicted when it is incremented locally, the short time to live covers other engine nodes
+        createCache(RECOVERY_VERSION_CACHE, 16, 5000L);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        BoundedCache cache = caches.get(name);
+        return cache != null ? cache : createCache(name, DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    //exposes the size and hit/miss statistics of every cache
+    public Collection<BoundedCache> getCaches() {
+        return Collections.unmodifiableCollection(caches.values());
+    }
+
+    private BoundedCache createCache(String name, int defaultMaxSize, long defaultTimeToLiveMillis) {
+        int maxSize = Integer.getInteger("score.cache." + name + ".maxSize", defaultMaxSize);
+        long timeToLiveMillis = Long.getLong("score.cache." + name + ".timeToLiveMillis", defaultTimeToLiveMillis);
+        BoundedCache cache = new BoundedCache(name, maxSize, timeToLiveMillis);
+        BoundedCache existing = caches.putIfAbsent(name, cache);
+        if (existing != null) {
+            return existing;
+        }
+        logger.info("Cache " + name + " is set to maxSize: " + maxSize + ", timeToLiveMillis: " + timeToLiveMillis);
+        return cache;
+    }
+}
@@ -47,12 +47,21 @@ public class SimpleHiloIdentifierGenerator implements IdentifierGenerator, Ident
     static final String SQL_UPDATE = "UPDATE " + TABLE_NAME + " SET NEXT_HI = NEXT_HI+1";
     static final String SQL_LOCK = "UPDATE " + TABLE_NAME + " SET NEXT_HI = NEXT_HI";
     static final long CHUNK_SIZE = 100000L;
+    // every thread reserves a small range of the current chunk, so most of the ids are generated without locking
+    static final int THREAD_RANGE_SIZE = 100;
 
     private static DataSource dataSource;
     private int currentChunk;
     private long currentId;
     private Lock lock = new ReentrantLock();
 
+    private final ThreadLocal<IdRange> threadRange = new ThreadLocal<IdRange>() {
+        @Override
+        protected IdRange initialValue() {
+            return new IdRange(0, 0);
+        }
+    };
+
     // been initialized by Hibernate
     public SimpleHiloIdentifierGenerator() {
         updateCurrentChunk();
@@ -64,14 +73,33 @@ public class SimpleHiloIdentifierGenerator implements IdentifierGenerator, Ident
 
     @Override
     public Long next() {
-        return (Long) generate(null, null);
+        IdRange range = threadRange.get();
+        if (!range.hasNext()) {
+            lock.lock();
+            try {
+                range = reserveRange(THREAD_RANGE_SIZE);
+            } finally {
+                lock.unlock();
+            }
+            threadRange.set(range);
+        }
+        return range.next();
     }
 
     @Override
     public List<Long> bulk(int bulkSize) {
-        List<Long> idsList = new ArrayList<>();
-        for (int i = 0; i < bulkSize; i++) {
-            idsList.add(next());
+        List<Long> idsList = new ArrayList<>(bulkSize);
+        lock.lock();
+        try {
+            // the ids are contiguous unless the bulk crosses a chunk boundary
+            while (idsList.size() < bulkSize) {
+                IdRange range = reserveRange(bulkSize - idsList.size());
+                while (range.hasNext()) {
+                    idsList.add(range.next());
+                }
+            }
+        } finally {
+            lock.unlock();
         }
         return idsList;
     }
@@ -79,18 +107,18 @@ public class SimpleHiloIdentifierGenerator implements IdentifierGenerator, Ident
     @Override
     public Serializable generate(SessionImplementor session, Object object)
             throws HibernateException {
-        lock.lock();
-        try {
-            long id = ++currentId;
-            if (id > CHUNK_SIZE) {
-                if (logger.isDebugEnabled()) logger.debug("ID has reached chunk size");
-                updateCurrentChunk();
-                id = ++currentId;
-            }
-            return currentChunk * CHUNK_SIZE + id;
-        } finally {
-            lock.unlock();
+        return next();
+    }
+
+    // must be called while holding the lock, the returned range never crosses a chunk boundary
+    private IdRange reserveRange(long size) {
+        if (currentId >= CHUNK_SIZE) {
+            if (logger.isDebugEnabled()) logger.debug("ID has reached chunk size");
+            updateCurrentChunk();
         }
+        long first = currentChunk * CHUNK_SIZE + currentId + 1;
+        currentId += Math.min(size, CHUNK_SIZE - currentId);
+        return new IdRange(first, currentChunk * CHUNK_SIZE + currentId + 1);
     }
 
     private void updateCurrentChunk() {
@@ -119,4 +147,22 @@ public class SimpleHiloIdentifierGenerator implements IdentifierGenerator, Ident
             throw new IllegalStateException("Unable to update current chunk");
         }
     }
+
+    private static class IdRange {
+        private long nextId;
+        private final long endId; // exclusive
+
+        IdRange(long nextId, long endId) {
+            this.nextId = nextId;
+            this.endId = endId;
+        }
+
+        boolean hasNext() {
+            return nextId < endId;
+        }
+
+        long next() {
+            return nextId++;
+        }
+    }
 }
@@ -21,6 +21,7 @@ import io.cloudslang.engine.versioning.entities.VersionCounter;
 import io.cloudslang.engine.versioning.repositories.VersionRepository;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -57,6 +58,7 @@ public final class  VersionServiceImpl implements VersionService {
 
     @Override
     @Transactional
+    @CacheEvict(value = "recovery_version", allEntries = true)
     public void incrementVersion(String counterName) {
         int result = versionRepository.incrementCounterByName(counterName);
         if(result != 1){
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testHitAndMissStatistics() {
+        BoundedCache cache = new BoundedCache("test", 10, 60000);
+        Assert.assertNull(cache.get("key"));
+        cache.put("key", "value");
+        Assert.assertEquals("value", cache.get("key").get());
+
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testMaxSizeEvictsOldestEntries() {
+        BoundedCache cache = new BoundedCache("test", 2, 60000);
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+        cache.put("key3", "value3");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("key1"));
+        Assert.assertNotNull(cache.get("key3"));
+        Assert.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testPutOfExistingKeyRefreshesItsEvictionOrder() {
+        BoundedCache cache = new BoundedCache("test", 2, 60000);
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+        cache.put("key1", "newValue1");
+        cache.put("key3", "value3");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("key2"));
+        Assert.assertEquals("newValue1", cache.get("key1").get());
+        Assert.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testPutAfterEvictDoesNotEvictTheNewValueEarly() {
+        BoundedCache cache = new BoundedCache("test", 2, 60000);
+        cache.put("key1", "value1");
+        cache.evict("key1");
+        cache.put("key2", "value2");
+        cache.put("key1", "newValue1");
+        cache.put("key3", "value3");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNull(cache.get("key2"));
+        Assert.assertEquals("newValue1", cache.get("key1").get());
+    }
+
+    @Test
+    public void testRepeatedPutsDoNotGrowBeyondBound() {
+        BoundedCache cache = new BoundedCache("test", 2, 60000);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + (i % 3), "value" + i);
+        }
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("value999", cache.get("key0").get());
+        Assert.assertEquals("value998", cache.get("key2").get());
+        Assert.assertTrue(((Queue) ReflectionTestUtils.getField(cache, "insertionOrder")).size() <= 2 * 2);
+    }
+
+    @Test
+    public void testExpiredEntryIsNotReturned() throws Exception {
+        BoundedCache cache = new BoundedCache("test", 10, 1);
+        cache.put("key", "value");
+        Thread.sleep(10);
+        Assert.assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testNullIsNotCached() {
+        BoundedCache cache = new BoundedCache("test", 10, 60000);
+        cache.put("key", null);
+        Assert.assertNull(cache.get("key"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictAndClear() {
+        BoundedCache cache = new BoundedCache("test", 10, 60000);
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+        cache.evict("key1");
+        Assert.assertNull(cache.get("key1"));
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testValueLoader() {
+        BoundedCache cache = new BoundedCache("test", 10, 60000);
+        Callable<String> loader = new Callable<String>() {
+            @Override
+            public String call() {
+                return "loaded";
+            }
+        };
+        Assert.assertEquals("loaded", cache.get("key", loader));
+        Assert.assertEquals("loaded", cache.get("key").get());
+    }
+
+    @Test
+    public void testManagerCreatesCachesOnDemand() {
+        BoundedCacheManager cacheManager = new BoundedCacheManager();
+        Assert.assertTrue(cacheManager.getCacheNames().contains(BoundedCacheManager.RUNNING_EXECUTION_PLANS_CACHE));
+        Assert.assertTrue(cacheManager.getCacheNames().contains(BoundedCacheManager.RECOVERY_VERSION_CACHE));
+
+        Cache cache = cacheManager.getCache("other");
+        Assert.assertSame(cache, cacheManager.getCache("other"));
+        Assert.assertEquals(3, cacheManager.getCaches().size());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.data;
+
+import org.apache.commons.dbcp.BasicDataSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SimpleHiloIdentifierGeneratorTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private SimpleHiloIdentifierGenerator generator;
+
+    @BeforeClass
+    public static void initDataSource() {
+        BasicDataSource ds = new BasicDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl("jdbc:h2:mem:hilo");
+        ds.setUsername("sa");
+        ds.setPassword("sa");
+        jdbcTemplate = new JdbcTemplate(ds);
+        jdbcTemplate.execute("CREATE TABLE " + SimpleHiloIdentifierGenerator.TABLE_NAME + " (NEXT_HI INT)");
+        jdbcTemplate.execute("INSERT INTO " + SimpleHiloIdentifierGenerator.TABLE_NAME + " VALUES (1)");
+        SimpleHiloIdentifierGenerator.setDataSource(ds);
+    }
+
+    @Before
+    public void init() {
+        generator = new SimpleHiloIdentifierGenerator();
+    }
+
+    @Test
+    public void testBulkIsContiguous() {
+        List<Long> ids = generator.bulk(500);
+        Assert.assertEquals(500, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            Assert.assertEquals(ids.get(i - 1) + 1, ids.get(i).longValue());
+        }
+    }
+
+    @Test
+    public void testNextAndBulkDoNotOverlap() {
+        Set<Long> ids = new HashSet<>();
+        ids.add(generator.next());
+        ids.addAll(generator.bulk(1000));
+        ids.add(generator.next());
+        Assert.assertEquals(1002, ids.size());
+    }
+
+    @Test
+    public void testBulkCrossingChunkBoundary() {
+        long firstChunkId = generator.next();
+        long chunk = firstChunkId / SimpleHiloIdentifierGenerator.CHUNK_SIZE;
+        List<Long> ids = generator.bulk((int) SimpleHiloIdentifierGenerator.CHUNK_SIZE);
+
+        Assert.assertEquals((int) SimpleHiloIdentifierGenerator.CHUNK_SIZE, new HashSet<>(ids).size());
+        Assert.assertFalse(ids.contains(firstChunkId));
+        long lastChunk = Collections.max(ids) / SimpleHiloIdentifierGenerator.CHUNK_SIZE;
+        Assert.assertTrue(lastChunk > chunk);
+    }
+
+    @Test
+    public void testConcurrentNextIsUnique() throws Exception {
+        final int idsPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(new Callable<List<Long>>() {
+                @Override
+                public List<Long> call() {
+                    List<Long> ids = new ArrayList<>();
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(generator.next());
+                    }
+                    ids.addAll(generator.bulk(idsPerThread));
+                    return ids;
+                }
+            }));
+        }
+        Set<Long> allIds = new HashSet<>();
+        for (Future<List<Long>> future : futures) {
+            allIds.addAll(future.get());
+        }
+        executor.shutdown();
+        Assert.assertEquals(4 * idsPerThread * 2, allIds.size());
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.node.services;
+
+/**
+ * a listener that is called when the groups of a worker are changed
+ */
+public interface WorkerGroupsListener {
+
+    /**
+     * callback that is called after the groups of the worker were updated, inside the updating transaction
+     *
+     * @param workerUuid the uuid of the worker whose groups were changed
+     */
+    void onWorkerGroupsChanged(String workerUuid);
+}
@@ -253,6 +253,18 @@ public interface WorkerNodeService {
      */
     void updateBulkNumber(String workerUuid, String bulkNumber);
 
+    /**
+     *
+     * updates the worker recovery bulk number in a single statement, only if the given worker recovery version
+     * is the current one of the worker and the bulk number is not the last one that was recorded
+     *
+     * @param workerUuid the uuid of the worker to update
+     * @param wrv the worker recovery version the worker knows
+     * @param bulkNumber the new recovery bulk number
+     * @return true if the bulk number was updated, false if the bulk was already recorded or the wrv is not current
+     */
+    boolean updateBulkNumber(String workerUuid, String wrv, String bulkNumber);
+
     /**
      *
      * updates the worker recovery version of a given worker
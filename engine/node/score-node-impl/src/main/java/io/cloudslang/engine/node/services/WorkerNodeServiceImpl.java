@@ -53,6 +53,10 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 	private VersionService versionService;
 	@Autowired(required = false)
 	private List<LoginListener> loginListeners;
+	@Autowired(required = false)
+	private List<WorkerGroupsListener> workerGroupsListeners;
+	@Autowired(required = false)
+	private List<WorkerAvailabilityListener> workerAvailabilityListeners;
 
 	@Override
 	@Transactional
@@ -93,6 +97,7 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 			worker.setActive(false);
 			worker.setDeleted(true);
 			worker.setStatus(WorkerStatus.IN_RECOVERY);
+			notifyWorkerUnavailable(uuid);
 		}
 	}
 
@@ -227,6 +232,7 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 	public void deactivate(String uuid) {
 		WorkerNode worker = readByUUID(uuid);
 		worker.setActive(false);
+		notifyWorkerUnavailable(uuid);
 	}
 
 	@Override
@@ -246,6 +252,9 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 			throw new IllegalStateException("no worker was found by the specified UUID:" + uuid);
 		}
 		worker.setStatus(status);
+		if(status != WorkerStatus.RUNNING) {
+			notifyWorkerUnavailable(uuid);
+		}
 	}
 
 	@Override
@@ -256,6 +265,9 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 			throw new IllegalStateException("no worker was found by the specified UUID:" + uuid);
 		}
 		worker.setStatus(status);
+		if(status != WorkerStatus.RUNNING) {
+			notifyWorkerUnavailable(uuid);
+		}
 	}
 
 	@Override
@@ -284,6 +296,7 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 		groups.addAll(groupSet);
 
 		worker.setGroups(groups);
+		notifyWorkerGroupsChanged(uuid);
 	}
 
 	@Override
@@ -314,6 +327,7 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 			List<String> groups = new ArrayList<>(worker.getGroups());
 			groups.add(group);
 			worker.setGroups(groups);
+			notifyWorkerGroupsChanged(workerUuid);
 		}
 	}
 
@@ -325,6 +339,23 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 		groups.remove(group);
 		if(groups.size() == 0) throw new IllegalStateException("Can't leave worker without any group !");
 		worker.setGroups(groups);
+		notifyWorkerGroupsChanged(workerUuid);
+	}
+
+	private void notifyWorkerUnavailable(String workerUuid) {
+		if(workerAvailabilityListeners != null) {
+			for(WorkerAvailabilityListener listener : workerAvailabilityListeners) {
+				listener.onWorkerUnavailable(workerUuid);
+			}
+		}
+	}
+
+	private void notifyWorkerGroupsChanged(String workerUuid) {
+		if(workerGroupsListeners != null) {
+			for(WorkerGroupsListener listener : workerGroupsListeners) {
+				listener.onWorkerGroupsChanged(workerUuid);
+			}
+		}
 	}
 
 	@Override
@@ -340,6 +371,12 @@ public class WorkerNodeServiceImpl implements WorkerNodeService {
 		worker.setBulkNumber(bulkNumber);
 	}
 
+	@Override
+	@Transactional
+	public boolean updateBulkNumber(String workerUuid, String wrv, String bulkNumber) {
+		return workerNodeRepository.updateBulkNumberIfCurrent(workerUuid, wrv, bulkNumber) > 0;
+	}
+
 	@Override
 	@Transactional
 	public void updateWRV(String workerUuid, String wrv) {
@@ -86,6 +86,9 @@ public class WorkerNodeServiceTest {
     @Autowired
     private VersionService versionService;
 
+    @Autowired
+    private WorkerAvailabilityListener workerAvailabilityListener;
+
     @Before
     public void initNodes() {
         workerNodeService.create("H1", "H1", "amit.levin", "c:/dir");
@@ -95,7 +98,7 @@ public class WorkerNodeServiceTest {
 
     @After
     public void reset() {
-        Mockito.reset(versionService, workerLockService);
+        Mockito.reset(versionService, workerLockService, workerAvailabilityListener);
     }
 
     @Test
@@ -260,6 +263,18 @@ public class WorkerNodeServiceTest {
         Assert.assertEquals(WorkerStatus.RUNNING, worker.getStatus());
     }
 
+    @Test
+    public void notifyWhenWorkerBecomesUnavailable() {
+        workerNodeService.updateStatus("H1", WorkerStatus.RUNNING);
+        Mockito.verify(workerAvailabilityListener, Mockito.never()).onWorkerUnavailable("H1");
+
+        workerNodeService.deactivate("H1");
+        workerNodeService.updateStatus("H1", WorkerStatus.IN_RECOVERY);
+        workerNodeService.updateWorkerToDeleted("H2");
+        Mockito.verify(workerAvailabilityListener, Mockito.times(2)).onWorkerUnavailable("H1");
+        Mockito.verify(workerAvailabilityListener).onWorkerUnavailable("H2");
+    }
+
     @Test
     public void updateBulkNumber() {
         workerNodeService.create("H3", "H3", "dima.rassin", "c:/dir");
@@ -270,6 +285,24 @@ public class WorkerNodeServiceTest {
         Assert.assertEquals("123", worker.getBulkNumber());
     }
 
+    @Test
+    public void updateBulkNumberIfCurrent() {
+        workerNodeService.create("H3", "H3", "dima.rassin", "c:/dir");
+        workerNodeService.updateWRV("H3", "5");
+
+        Assert.assertTrue(workerNodeService.updateBulkNumber("H3", "5", "123"));
+        Assert.assertEquals("123", workerNodeService.readByUUID("H3").getBulkNumber());
+
+        //same bulk was already recorded
+        Assert.assertFalse(workerNodeService.updateBulkNumber("H3", "5", "123"));
+        //worker was recovered and does not know about it yet
+        Assert.assertFalse(workerNodeService.updateBulkNumber("H3", "4", "124"));
+        Assert.assertEquals("123", workerNodeService.readByUUID("H3").getBulkNumber());
+
+        Assert.assertTrue(workerNodeService.updateBulkNumber("H3", "5", "124"));
+        Assert.assertEquals("124", workerNodeService.readByUUID("H3").getBulkNumber());
+    }
+
     @Test
     public void readAllWorkerGroups() {
         List<String> groups = workerNodeService.readAllWorkerGroups();
@@ -431,5 +464,10 @@ public class WorkerNodeServiceTest {
         WorkerLockService workerLockService() {
             return mock(WorkerLockService.class);
         }
+
+        @Bean
+        WorkerAvailabilityListener workerAvailabilityListener() {
+            return mock(WorkerAvailabilityListener.class);
+        }
     }
 }
@@ -24,13 +24,25 @@ import java.util.Set;
 
 
 public class MergedConfigurationDataContainer implements Serializable{
+    public static final long NO_VERSION = 0L;
+
     private volatile List<Long> cancelledExecutions;
     private volatile Set<String> pausedExecutions;
     private volatile List<String> workerGroups;
+    // identifies the content, so a worker that already holds it does not get it again
+    private volatile long version = NO_VERSION;
+    private volatile boolean modified = true;
 
     public MergedConfigurationDataContainer() {
     }
 
+    public static MergedConfigurationDataContainer notModified(long version) {
+        MergedConfigurationDataContainer container = new MergedConfigurationDataContainer();
+        container.setVersion(version);
+        container.setModified(false);
+        return container;
+    }
+
 
 
     public List<Long> getCancelledExecutions() {
@@ -57,4 +69,20 @@ public class MergedConfigurationDataContainer implements Serializable{
         this.workerGroups = workerGroups;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    public void setModified(boolean modified) {
+        this.modified = modified;
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.orchestrator.entities;
+
+import io.cloudslang.engine.data.AbstractIdentifiable;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+/**
+ * Marks that a running execution plan is in use by an execution.
+ * Running execution plans are shared by all the executions of the same plan, and are deleted only when the last
+ * execution that uses them is cleaned.
+ */
+@Entity
+@Immutable
+@Table(name = "OO_RUNNING_EXECUTION_PLAN_REFS")
+public class RunningExecutionPlanReference extends AbstractIdentifiable {
+
+    @Column(name = "RUNNING_EXECUTION_PLAN_ID", nullable = false, updatable = false)
+    private Long runningExecutionPlanId;
+
+    @Column(name = "EXECUTION_ID", nullable = false, updatable = false)
+    private String executionId;
+
+    public RunningExecutionPlanReference() {}
+
+    public RunningExecutionPlanReference(Long runningExecutionPlanId, String executionId) {
+        this.runningExecutionPlanId = runningExecutionPlanId;
+        this.executionId = executionId;
+    }
+
+    public Long getRunningExecutionPlanId() {
+        return runningExecutionPlanId;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RunningExecutionPlanReference that = (RunningExecutionPlanReference) o;
+
+        return new EqualsBuilder()
+                .append(this.runningExecutionPlanId, that.runningExecutionPlanId)
+                .append(this.executionId, that.executionId)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(this.runningExecutionPlanId)
+                .append(this.executionId)
+                .toHashCode();
+    }
+}
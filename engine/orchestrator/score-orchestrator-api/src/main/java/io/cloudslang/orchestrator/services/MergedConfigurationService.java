@@ -22,4 +22,21 @@ import io.cloudslang.orchestrator.entities.MergedConfigurationDataContainer;
 public interface MergedConfigurationService {
     MergedConfigurationDataContainer fetchMergedConfiguration(String workerUuid);
 
+    /**
+     * Fetches the configuration only if it changed since the version the worker already has.
+     *
+     * @param workerUuid the worker uuid
+     * @param knownVersion the version of the configuration the worker holds,
+     *                     or {@link MergedConfigurationDataContainer#NO_VERSION} if it has none
+     * @return the configuration and its version, or a container that is not modified if the version did not change
+     */
+    MergedConfigurationDataContainer fetchMergedConfiguration(String workerUuid, long knownVersion);
+
+    /**
+     * Signals that the cancelled executions, the paused executions or the worker groups were changed,
+     * so the next fetch reads the configuration again instead of answering from the cached one.
+     * Inside a transaction the change is applied after the commit.
+     */
+    void configurationChanged();
+
 }
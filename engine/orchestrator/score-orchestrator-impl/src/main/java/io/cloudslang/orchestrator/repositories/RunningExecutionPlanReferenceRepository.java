@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.orchestrator.repositories;
+
+import io.cloudslang.orchestrator.entities.RunningExecutionPlanReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RunningExecutionPlanReferenceRepository extends JpaRepository<RunningExecutionPlanReference, Long> {
+
+    @Query("select distinct r.runningExecutionPlanId from RunningExecutionPlanReference r where r.executionId in :ids")
+    List<Long> findRunningExecutionPlanIds(@Param("ids") Collection<String> executionIds);
+
+    @Modifying
+    @Query("delete from RunningExecutionPlanReference r where r.executionId in :ids")
+    int deleteByExecutionIds(@Param("ids") Collection<String> ids);
+}
@@ -22,11 +22,13 @@ import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.lang.Long;
 import java.lang.String;
@@ -53,8 +55,23 @@ public interface RunningExecutionPlanRepository extends JpaRepository<RunningExe
     @Query("select executionPlanZipped from RunningExecutionPlan r where r.id = :exeId")
     byte[] getZippedExecutionPlan(@Param("exeId") Long exeId);
 
+    @Query("select r.id from RunningExecutionPlan r where r.planHash = :planHash and r.flowUUID = :flowUUID")
+    List<Long> findIdsByPlanHash(@Param("planHash") String planHash, @Param("flowUUID") String flowUUID);
+
+    //takes the row locks of the given plans, so that sharing a plan and deleting it are serialized.
+    //a select is used since a bulk update would clear the cached plans
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.id from RunningExecutionPlan r where r.id in :planIds")
+    List<Long> lockPlans(@Param("planIds") Collection<Long> planIds);
+
+    //plans that were created before they were shared have no hash and belong to a single execution
     @Modifying
-    @Query("delete from RunningExecutionPlan r where r.executionId in :ids")
+    @Query("delete from RunningExecutionPlan r where r.executionId in :ids and r.planHash is null")
     int deleteByExecutionIds(@Param("ids") Collection<String> ids);
 
+    @Modifying
+    @Query("delete from RunningExecutionPlan r where r.id in :planIds and not exists " +
+            "(select ref.id from RunningExecutionPlanReference ref where ref.runningExecutionPlanId = r.id)")
+    int deleteUnreferenced(@Param("planIds") Collection<Long> planIds);
+
 }
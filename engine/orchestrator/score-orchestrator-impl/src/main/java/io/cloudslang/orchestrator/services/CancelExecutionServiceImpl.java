@@ -54,6 +54,9 @@ public final class CancelExecutionServiceImpl implements CancelExecutionService
     @Autowired
     private ExecutionStateService executionStateService;
 
+    @Autowired
+    private MergedConfigurationService mergedConfigurationService;
+
     @Override
     @Transactional
     public ExecutionActionResult requestCancelExecution(Long executionId) {
@@ -91,6 +94,8 @@ public final class CancelExecutionServiceImpl implements CancelExecutionService
             return ExecutionActionResult.getExecutionActionResult(status);
         }
 
+        // the workers learn about the cancellation from the merged configuration
+        mergedConfigurationService.configurationChanged();
         return ExecutionActionResult.SUCCESS;
     }
 
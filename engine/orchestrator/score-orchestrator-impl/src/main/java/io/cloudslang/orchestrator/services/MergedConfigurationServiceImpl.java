@@ -16,16 +16,32 @@
 
 package io.cloudslang.orchestrator.services;
 
+import io.cloudslang.engine.node.services.WorkerGroupsListener;
 import io.cloudslang.engine.node.services.WorkerNodeService;
 import io.cloudslang.orchestrator.entities.MergedConfigurationDataContainer;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class MergedConfigurationServiceImpl implements MergedConfigurationService {
+
+public class MergedConfigurationServiceImpl implements MergedConfigurationService, WorkerGroupsListener {
 
     private final Logger log = Logger.getLogger(getClass());
 
+    // Changes that are made through other engine nodes, or directly through an external PauseResumeService,
+    // do not bump the local change counter, so the snapshot is reloaded at least this often anyway
+    static final long SNAPSHOT_MAX_AGE = Long.getLong("merged.configuration.max.age", 5000);
+
     @Autowired
     private CancelExecutionService cancelExecutionService;
     @Autowired
@@ -33,28 +49,165 @@ public class MergedConfigurationServiceImpl implements MergedConfigurationServic
     @Autowired
     private WorkerNodeService workerNodeService;
 
+    // bumped after the commit of every cancel, pause, resume and worker group change
+    private final AtomicLong changeCounter = new AtomicLong();
+
+    private volatile ConfigurationSnapshot snapshot;
+
     @Override
     public MergedConfigurationDataContainer fetchMergedConfiguration(String workerUuid) {
         MergedConfigurationDataContainer mergedConfigurationDataContainer = new MergedConfigurationDataContainer();
+        mergedConfigurationDataContainer.setCancelledExecutions(readCancelledExecutions());
+        mergedConfigurationDataContainer.setPausedExecutions(readPausedExecutions());
+        mergedConfigurationDataContainer.setWorkerGroups(readWorkerGroups(workerUuid));
+        return mergedConfigurationDataContainer;
+    }
+
+    @Override
+    public MergedConfigurationDataContainer fetchMergedConfiguration(String workerUuid, long knownVersion) {
+        ConfigurationSnapshot currentSnapshot = currentSnapshot();
+        List<String> workerGroups = currentSnapshot.getWorkerGroups(workerUuid);
+
+        long version = calculateVersion(currentSnapshot, workerGroups);
+        if (version != MergedConfigurationDataContainer.NO_VERSION && version == knownVersion) {
+            return MergedConfigurationDataContainer.notModified(version);
+        }
+        MergedConfigurationDataContainer mergedConfigurationDataContainer = new MergedConfigurationDataContainer();
+        mergedConfigurationDataContainer.setCancelledExecutions(currentSnapshot.cancelledExecutions == null ? null : new ArrayList<>(currentSnapshot.cancelledExecutions));
+        mergedConfigurationDataContainer.setPausedExecutions(currentSnapshot.pausedExecutions == null ? null : new HashSet<>(currentSnapshot.pausedExecutions));
+        mergedConfigurationDataContainer.setWorkerGroups(workerGroups == null ? null : new ArrayList<>(workerGroups));
+        mergedConfigurationDataContainer.setVersion(version);
+        return mergedConfigurationDataContainer;
+    }
+
+    @Override
+    public void configurationChanged() {
+        // bump only after the commit, otherwise a snapshot that is loaded meanwhile would not see the change
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    changeCounter.incrementAndGet();
+                }
+            });
+        } else {
+            changeCounter.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onWorkerGroupsChanged(String workerUuid) {
+        configurationChanged();
+    }
+
+    private ConfigurationSnapshot currentSnapshot() {
+        ConfigurationSnapshot currentSnapshot = snapshot;
+        if (currentSnapshot == null || !currentSnapshot.isValid(changeCounter.get())) {
+            synchronized (this) {
+                currentSnapshot = snapshot;
+                if (currentSnapshot == null || !currentSnapshot.isValid(changeCounter.get())) {
+                    // read the counter before the DB, so a change that is committed during the load invalidates it
+                    long changeCount = changeCounter.get();
+                    currentSnapshot = new ConfigurationSnapshot(changeCount, readCancelledExecutions(), readPausedExecutions());
+                    snapshot = currentSnapshot;
+                }
+            }
+        }
+        return currentSnapshot;
+    }
+
+    private List<Long> readCancelledExecutions() {
         try {
-            mergedConfigurationDataContainer.setCancelledExecutions(cancelExecutionService.readCanceledExecutionsIds());
+            return cancelExecutionService.readCanceledExecutionsIds();
         } catch(Exception ex) {
             log.error("Failed to fetch cancelled information: ", ex);
+            return null;
         }
+    }
 
+    private Set<String> readPausedExecutions() {
         try {
-            mergedConfigurationDataContainer.setPausedExecutions(pauseResumeService.readAllPausedExecutionBranchIds());
+            return pauseResumeService.readAllPausedExecutionBranchIds();
         } catch(Exception ex) {
             log.error("Failed to read paused flows information: ", ex);
+            return null;
         }
+    }
 
+    private List<String> readWorkerGroups(String workerUuid) {
         try {
-            mergedConfigurationDataContainer.setWorkerGroups(workerNodeService.readWorkerGroups(workerUuid));
+            return workerNodeService.readWorkerGroups(workerUuid);
         } catch(Exception ex) {
             log.error("Failed to fetch worker group information: ", ex);
+            return null;
         }
+    }
 
-        return mergedConfigurationDataContainer;
+    // The version is a hash of the content, so every engine node calculates the same version for the same data.
+    // A part that failed to be fetched leaves the configuration without a version, so it is fully sent again next time.
+    private long calculateVersion(ConfigurationSnapshot currentSnapshot, List<String> workerGroups) {
+        if (currentSnapshot.contentHash == MergedConfigurationDataContainer.NO_VERSION || workerGroups == null) {
+            return MergedConfigurationDataContainer.NO_VERSION;
+        }
+        long version = 31 * currentSnapshot.contentHash + hashOf(workerGroups);
+        return version == MergedConfigurationDataContainer.NO_VERSION ? 1 : version;
+    }
+
+    private class ConfigurationSnapshot {
+        private final long changeCount;
+        private final long loadTime = System.currentTimeMillis();
+        private final List<Long> cancelledExecutions;
+        private final Set<String> pausedExecutions;
+        private final long contentHash;
+        // worker uuid --> its groups, read once per snapshot
+        private final ConcurrentMap<String, List<String>> workerGroups = new ConcurrentHashMap<>();
+
+        private ConfigurationSnapshot(long changeCount, List<Long> cancelledExecutions, Set<String> pausedExecutions) {
+            this.cancelledExecutions = cancelledExecutions;
+            this.pausedExecutions = pausedExecutions;
+            boolean complete = cancelledExecutions != null && pausedExecutions != null;
+            // an incomplete snapshot is reloaded by the next fetch
+            this.changeCount = complete ? changeCount : -1;
+            this.contentHash = complete ? contentHash(cancelledExecutions, pausedExecutions) : MergedConfigurationDataContainer.NO_VERSION;
+        }
+
+        private long contentHash(List<Long> cancelledExecutions, Set<String> pausedExecutions) {
+            long hash = 31 * (17 * 31 + hashOf(cancelledExecutions)) + hashOf(pausedExecutions);
+            return hash == MergedConfigurationDataContainer.NO_VERSION ? 1 : hash;
+        }
+
+        private boolean isValid(long currentChangeCount) {
+            return changeCount == currentChangeCount && System.currentTimeMillis() - loadTime < SNAPSHOT_MAX_AGE;
+        }
+
+        private List<String> getWorkerGroups(String workerUuid) {
+            List<String> groups = workerGroups.get(workerUuid);
+            if (groups == null) {
+                groups = readWorkerGroups(workerUuid);
+                if (groups != null) {
+                    workerGroups.put(workerUuid, groups);
+                }
+            }
+            return groups;
+        }
+    }
+
+    // Independent of the order of the elements, the database does not guarantee any order
+    private long hashOf(Collection<?> elements) {
+        long sum = 0;
+        long xor = 0;
+        for (Object element : elements) {
+            long hash = mix(element == null ? 0 : element.hashCode());
+            sum += hash;
+            xor ^= hash;
+        }
+        return (sum * 31 + xor) * 31 + elements.size();
+    }
+
+    private long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
     }
 }
 
@@ -16,6 +16,7 @@
 
 package io.cloudslang.orchestrator.services;
 
+import io.cloudslang.engine.node.entities.WorkerNode;
 import io.cloudslang.engine.node.services.WorkerLockService;
 import io.cloudslang.engine.node.services.WorkerNodeService;
 import io.cloudslang.engine.queue.entities.ExecutionMessage;
@@ -23,15 +24,12 @@ import io.cloudslang.engine.queue.services.QueueDispatcherService;
 import io.cloudslang.orchestrator.entities.SplitMessage;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Logger;
-import org.hamcrest.Matchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-
-import static ch.lambdaj.Lambda.filter;
 
 /**
  * Date: 12/1/13
@@ -59,21 +57,27 @@ public final class OrchestratorDispatcherServiceImpl implements OrchestratorDisp
         workerLockService.lock(workerUuid);
         Validate.notNull(messages, "Messages list is null");
 
-        String currentBulkNumber = workerNodeService.readByUUID(workerUuid).getBulkNumber();
-        //can not be null at this point
-        String currentWRV = workerNodeService.readByUUID(workerUuid).getWorkerRecoveryVersion();
+        //The WRV and the bulk number are checked and the new bulk number is recorded in a single statement
+        if (workerNodeService.updateBulkNumber(workerUuid, wrv, bulkNumber)) {
+            dispatch(messages);
+        } else {
+            logDiscardedBulk(bulkNumber, wrv, workerUuid);
+        }
+    }
+
+    // the worker is read only to explain why a bulk was discarded, which is rare
+    private void logDiscardedBulk(String bulkNumber, String wrv, String workerUuid) {
+        WorkerNode worker = workerNodeService.readByUUID(workerUuid);
+        String currentBulkNumber = worker.getBulkNumber();
+        String currentWRV = worker.getWorkerRecoveryVersion();
 
         //This is done in order to make sure that if we do retries in worker we won't insert same bulk twice
         if(currentBulkNumber!=null && currentBulkNumber.equals(bulkNumber)){
             logger.warn("Orchestrator got messages bulk with same bulk number: " + bulkNumber + " This bulk was inserted to DB before. Discarding...");
         }
         //This is done in order to make sure that we are not getting messages from worker that was already recovered and does not know about it yet
-        else if(!currentWRV.equals(wrv)){
-            logger.warn("Orchestrator got messages from worker: " + workerUuid + " with wrong WRV:" + wrv + " Current WRV is: " + currentWRV +  ". Discarding...");
-        }
         else {
-            dispatch(messages);
-            workerNodeService.updateBulkNumber(workerUuid, bulkNumber);
+            logger.warn("Orchestrator got messages from worker: " + workerUuid + " with wrong WRV:" + wrv + " Current WRV is: " + currentWRV +  ". Discarding...");
         }
     }
 
@@ -82,40 +86,30 @@ public final class OrchestratorDispatcherServiceImpl implements OrchestratorDisp
 
         if (logger.isDebugEnabled()) logger.debug("Dispatching " + messages.size() + " messages");
         long t = System.currentTimeMillis();
-        final AtomicInteger messagesCounter = new AtomicInteger(0);
 
-        dispatch(messages, ExecutionMessage.class, new Handler<ExecutionMessage>() {
-            @Override
-            public void handle(List<ExecutionMessage> messages) {
-                messagesCounter.addAndGet(messages.size());
-                queueDispatcher.dispatch(messages);
+        //split the messages by their type in a single pass
+        List<ExecutionMessage> executionMessages = new ArrayList<>(messages.size());
+        List<SplitMessage> splitMessages = new ArrayList<>();
+        for (Serializable message : messages) {
+            if (message instanceof ExecutionMessage) {
+                executionMessages.add((ExecutionMessage) message);
+            } else if (message instanceof SplitMessage) {
+                splitMessages.add((SplitMessage) message);
             }
-        });
+        }
 
-        dispatch(messages, SplitMessage.class, new Handler<SplitMessage>() {
-            @Override
-            public void handle(List<SplitMessage> messages) {
-                messagesCounter.addAndGet(messages.size());
-                splitJoinService.split(messages);
-            }
-        });
+        if (!executionMessages.isEmpty()) {
+            queueDispatcher.dispatch(executionMessages);
+        }
+        if (!splitMessages.isEmpty()) {
+            splitJoinService.split(splitMessages);
+        }
 
+        int messagesCounter = executionMessages.size() + splitMessages.size();
         t = System.currentTimeMillis()-t;
-        if (logger.isDebugEnabled()) logger.debug("Dispatching " + messagesCounter.get() + " messages is done in " + t + " ms");
-        if (messages.size() > messagesCounter.get()){
-            logger.warn((messages.size() - messagesCounter.get()) + " messages were not being dispatched, since unknown type");
+        if (logger.isDebugEnabled()) logger.debug("Dispatching " + messagesCounter + " messages is done in " + t + " ms");
+        if (messages.size() > messagesCounter){
+            logger.warn((messages.size() - messagesCounter) + " messages were not being dispatched, since unknown type");
         }
     }
-
-	private <T extends Serializable> void dispatch(List<? extends Serializable> messages, Class<T> messageClass, Handler<T> handler){
-		@SuppressWarnings("unchecked")
-		List<T> filteredMessages = (List<T>) filter(Matchers.instanceOf(messageClass), messages);
-		if (!messages.isEmpty()){
-			handler.handle(filteredMessages);
-		}
-	}
-
-	private interface Handler<T>{
-		public void handle(List<T> messages);
-	}
 }
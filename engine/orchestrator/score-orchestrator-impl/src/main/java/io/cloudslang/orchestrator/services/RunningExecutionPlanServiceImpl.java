@@ -16,6 +16,8 @@
 
 package io.cloudslang.orchestrator.services;
 
+import io.cloudslang.orchestrator.entities.RunningExecutionPlanReference;
+import io.cloudslang.orchestrator.repositories.RunningExecutionPlanReferenceRepository;
 import io.cloudslang.orchestrator.repositories.RunningExecutionPlanRepository;
 import io.cloudslang.score.api.ExecutionPlan;
 import io.cloudslang.score.facade.entities.RunningExecutionPlan;
@@ -25,6 +27,7 @@ import com.google.common.collect.Lists;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
@@ -46,12 +49,20 @@ public final class RunningExecutionPlanServiceImpl implements RunningExecutionPl
     @Autowired
     private RunningExecutionPlanRepository runningExecutionPlanRepository;
 
+    @Autowired
+    private RunningExecutionPlanReferenceRepository runningExecutionPlanReferenceRepository;
+
     @Override
     @Transactional
     public RunningExecutionPlan createRunningExecutionPlan(RunningExecutionPlan runningExecutionPlan) {
         if (runningExecutionPlan == null)
             throw new IllegalArgumentException("Running execution plan is null");
-        return runningExecutionPlanRepository.save(runningExecutionPlan);
+        runningExecutionPlan = runningExecutionPlanRepository.save(runningExecutionPlan);
+        if (runningExecutionPlan.getPlanHash() != null && runningExecutionPlan.getExecutionId() != null) {
+            //plans with a hash can be shared, so they are kept as long as they are referenced
+            addReference(runningExecutionPlan.getId(), runningExecutionPlan.getExecutionId());
+        }
+        return runningExecutionPlan;
     }
 
     @Override
@@ -83,7 +94,15 @@ public final class RunningExecutionPlanServiceImpl implements RunningExecutionPl
         int count = 0;
         List<List<String>> executionIdsPartitioned = Lists.partition(new ArrayList<>(executionIds), IN_CLAUSE_LIMIT);
         for (List<String> list : executionIdsPartitioned) {
+            List<Long> planIds = runningExecutionPlanReferenceRepository.findRunningExecutionPlanIds(list);
+            runningExecutionPlanReferenceRepository.deleteByExecutionIds(list);
             count += runningExecutionPlanRepository.deleteByExecutionIds(list);
+            //shared plans are deleted only when no other execution references them anymore
+            for (List<Long> planIdsPartition : Lists.partition(planIds, IN_CLAUSE_LIMIT)) {
+                //wait for executions that are sharing these plans right now, so their references are seen
+                runningExecutionPlanRepository.lockPlans(planIdsPartition);
+                count += runningExecutionPlanRepository.deleteUnreferenced(planIdsPartition);
+            }
             runningExecutionPlanRepository.flush();
         }
         return count;
@@ -96,14 +115,28 @@ public final class RunningExecutionPlanServiceImpl implements RunningExecutionPl
     }
 
     private Long createNewRunningExecutionPlan(ExecutionPlan executionPlan, String executionId) {
-        //Create new and save in DB
         RunningExecutionPlan runningExecutionPlan = new RunningExecutionPlan();
         runningExecutionPlan.setFlowUUID(executionPlan.getFlowUuid());
         runningExecutionPlan.setExecutionPlan(executionPlan);
         runningExecutionPlan.setExecutionId(executionId);
 
+        //reuse the stored copy of the same plan if there is one.
+        //the plan row is locked first, since it could be deleted meanwhile by deleteRunningExecutionPlans
+        List<Long> existingIds = runningExecutionPlanRepository.findIdsByPlanHash(runningExecutionPlan.getPlanHash(), runningExecutionPlan.getFlowUUID());
+        for (Long existingId : existingIds) {
+            if (!runningExecutionPlanRepository.lockPlans(Collections.singletonList(existingId)).isEmpty()) {
+                addReference(existingId, executionId);
+                return existingId;
+            }
+        }
+
+        //Create new and save in DB
         runningExecutionPlan = createRunningExecutionPlan(runningExecutionPlan);
 
         return runningExecutionPlan.getId();
     }
+
+    private void addReference(Long runningExecutionPlanId, String executionId) {
+        runningExecutionPlanReferenceRepository.save(new RunningExecutionPlanReference(runningExecutionPlanId, executionId));
+    }
 }
@@ -36,11 +36,15 @@ public class ScorePauseResumeImpl implements ScorePauseResume {
     @Autowired
     private PauseResumeService pauseResumeService;
 
+    @Autowired
+    private MergedConfigurationService mergedConfigurationService;
+
     @Override
     public boolean pauseExecution(Long executionId) {
         ExecutionState executionState = executionStateService.readByExecutionIdAndBranchId(executionId, ExecutionState.EMPTY_BRANCH);
         if (canBePaused(executionState)) {
             pauseResumeService.pauseExecution(executionId, null, PauseReason.USER_PAUSED);
+            mergedConfigurationService.configurationChanged();
             return true;
         } else {
             return false;
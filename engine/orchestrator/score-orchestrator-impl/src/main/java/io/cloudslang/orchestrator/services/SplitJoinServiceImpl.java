@@ -161,12 +161,12 @@ public final class SplitJoinServiceImpl implements SplitJoinService {
             SuspendedExecution suspendedExecution = suspendedMap.get(finishedBranch.getSplitId());
             if (suspendedExecution != null) {
                 finishedBranch.connectToSuspendedExecution(suspendedExecution);
+                // saved also when it is joined right away, a transient branch in the collection fails the delete of its parent
+                finishedBranchRepository.save(finishedBranch);
 
                 //this is an optimization for subflow (also works for MI with one branch :) )
                 if (suspendedExecution.getNumberOfBranches() == 1) {
                     suspendedExecutionsWithOneBranch.add(suspendedExecution);
-                } else {
-                    finishedBranchRepository.save(finishedBranch);
                 }
             }
         }
@@ -33,7 +33,7 @@ public class WorkerDbSupportServiceImpl implements WorkerDbSupportService {
     private RunningExecutionPlanService runningExecutionPlanService;
 
     @Override
-    @Cacheable("running_execution_plans")
+    @Cacheable(value = "running_execution_plans", unless = "#result == null")
     public RunningExecutionPlan readExecutionPlanById(Long runningExecutionPlanId) {
         return runningExecutionPlanService.readExecutionPlanById(runningExecutionPlanId);
     }
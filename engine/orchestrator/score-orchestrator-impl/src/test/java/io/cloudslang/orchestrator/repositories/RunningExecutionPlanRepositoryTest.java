@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.orchestrator.repositories;
+
+import io.cloudslang.engine.data.DataBaseDetector;
+import io.cloudslang.engine.data.SqlUtils;
+import io.cloudslang.score.api.ExecutionPlan;
+import io.cloudslang.score.facade.entities.RunningExecutionPlan;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class RunningExecutionPlanRepositoryTest {
+
+    @Autowired
+    RunningExecutionPlanRepository repository;
+
+    @Test
+    public void lockPlansReturnsExistingPlansTest() {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        executionPlan.setFlowUuid("flow1");
+        RunningExecutionPlan runningExecutionPlan = new RunningExecutionPlan();
+        runningExecutionPlan.setFlowUUID("flow1");
+        runningExecutionPlan.setExecutionPlan(executionPlan);
+        Long id = repository.saveAndFlush(runningExecutionPlan).getId();
+
+        Assert.assertEquals(Collections.singletonList(id), repository.lockPlans(Arrays.asList(id, id + 1)));
+        Assert.assertTrue(repository.lockPlans(Collections.singletonList(id + 1)).isEmpty());
+    }
+
+    @Configuration
+    @EnableJpaRepositories("io.cloudslang.orchestrator")
+    @EnableTransactionManagement
+    @ImportResource("META-INF/spring/orchestratorEmfContext.xml")
+    static class Configurator {
+        @Bean
+        SqlUtils sqlUtils() {
+            return new SqlUtils();
+        }
+
+        @Bean
+        DataBaseDetector dataBaseDetector() {
+            return new DataBaseDetector();
+        }
+    }
+}
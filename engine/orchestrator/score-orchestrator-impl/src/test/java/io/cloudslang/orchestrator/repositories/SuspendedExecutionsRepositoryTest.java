@@ -38,6 +38,8 @@ import org.springframework.test.context.transaction.TransactionConfiguration;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -65,6 +67,9 @@ public class SuspendedExecutionsRepositoryTest {
     @Autowired
     ExecutionSerializationUtil executionSerializationUtil;
 
+    @PersistenceContext
+    EntityManager entityManager;
+
     @Test
     public void simpleCreateAndReadTest(){
 
@@ -173,6 +178,32 @@ public class SuspendedExecutionsRepositoryTest {
     }
 
 
+    @Test
+    public void deleteJoinedSuspendedExecutionTest(){
+
+        Map<String, String> contexts = new HashMap<>();
+        contexts.put("flowContext", "");
+        Execution exec = new Execution(2L, 0L, contexts);
+        repository.saveAndFlush(new SuspendedExecution("111", "888", 1, exec));
+        entityManager.clear();
+
+        List<String> splitIds = new ArrayList<>();
+        splitIds.add("888");
+        SuspendedExecution read = repository.findBySplitIdIn(splitIds).get(0);
+
+        Map<String, Serializable> context = new HashMap<>();
+        FinishedBranch finishedBranch = new FinishedBranch("111", "333", "888", null, new BranchContexts(false, context, new HashMap<String, Serializable>()));
+        finishedBranch.connectToSuspendedExecution(read);
+        //a branch that is joined right away must be saved too, the flush of the delete fails on a transient branch otherwise
+        finishedBranchRepository.save(finishedBranch);
+
+        repository.delete(read);
+        repository.flush();
+
+        Assert.assertTrue(repository.findAll().isEmpty());
+        Assert.assertTrue(finishedBranchRepository.findAll().isEmpty());
+    }
+
     @Configuration
     @EnableJpaRepositories("io.cloudslang.orchestrator")
     @EnableTransactionManagement
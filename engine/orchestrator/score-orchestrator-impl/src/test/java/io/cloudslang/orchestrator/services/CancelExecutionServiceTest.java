@@ -262,5 +262,10 @@ public class CancelExecutionServiceTest {
         QueueDispatcherService queueDispatcherService() {
             return mock(QueueDispatcherService.class);
         }
+
+        @Bean
+        MergedConfigurationService mergedConfigurationService() {
+            return mock(MergedConfigurationService.class);
+        }
     }
 }
\ No newline at end of file
@@ -16,9 +16,12 @@
 
 package io.cloudslang.orchestrator.services;
 
+import io.cloudslang.engine.node.services.WorkerGroupsListener;
 import io.cloudslang.engine.node.services.WorkerNodeService;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.services.QueueDispatcherService;
+import io.cloudslang.orchestrator.entities.MergedConfigurationDataContainer;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,11 +31,19 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SuppressWarnings({"SpringContextConfigurationInspection"})
@@ -50,6 +61,11 @@ public class MergedConfigurationServiceTest {
     @Autowired
     private WorkerNodeService workerNodeService;
 
+    @Before
+    public void setUp() {
+        reset(cancelExecutionService, pauseResumeService, workerNodeService);
+        mergedConfigurationService.configurationChanged();
+    }
 
 
 @Test
@@ -92,6 +108,83 @@ public void testCancelledFlows(){
 
 
 
+    @Test
+    public void testSameVersionIsNotModified(){
+        when(cancelExecutionService.readCanceledExecutionsIds()).thenReturn(Arrays.asList(1L, 2L));
+        when(pauseResumeService.readAllPausedExecutionBranchIds()).thenReturn(new HashSet<>(Arrays.asList("3:null")));
+        when(workerNodeService.readWorkerGroups(getWorkerUuid())).thenReturn(Arrays.asList("group1"));
+
+        MergedConfigurationDataContainer first = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), MergedConfigurationDataContainer.NO_VERSION);
+        assertTrue(first.isModified());
+        assertNotEquals(MergedConfigurationDataContainer.NO_VERSION, first.getVersion());
+
+        //the same content in a different order has the same version
+        when(cancelExecutionService.readCanceledExecutionsIds()).thenReturn(Arrays.asList(2L, 1L));
+        MergedConfigurationDataContainer second = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), first.getVersion());
+        assertFalse(second.isModified());
+        assertEquals(first.getVersion(), second.getVersion());
+        assertNull(second.getCancelledExecutions());
+    }
+
+    @Test
+    public void testChangedContentIsModified(){
+        when(cancelExecutionService.readCanceledExecutionsIds()).thenReturn(Arrays.asList(1L));
+        when(pauseResumeService.readAllPausedExecutionBranchIds()).thenReturn(new HashSet<String>());
+        when(workerNodeService.readWorkerGroups(getWorkerUuid())).thenReturn(Arrays.asList("group1"));
+        MergedConfigurationDataContainer first = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), MergedConfigurationDataContainer.NO_VERSION);
+
+        when(cancelExecutionService.readCanceledExecutionsIds()).thenReturn(Arrays.asList(1L, 5L));
+        mergedConfigurationService.configurationChanged();
+        MergedConfigurationDataContainer second = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), first.getVersion());
+        assertTrue(second.isModified());
+        assertNotEquals(first.getVersion(), second.getVersion());
+        assertTrue(second.getCancelledExecutions().contains(5L));
+    }
+
+    @Test
+    public void testFailedReadIsSentWithoutVersion(){
+        when(cancelExecutionService.readCanceledExecutionsIds()).thenThrow(new RuntimeException("DB is down"));
+        when(pauseResumeService.readAllPausedExecutionBranchIds()).thenReturn(new HashSet<>(Arrays.asList("1:1")));
+        when(workerNodeService.readWorkerGroups(getWorkerUuid())).thenReturn(Arrays.asList("group1"));
+        MergedConfigurationDataContainer first = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), MergedConfigurationDataContainer.NO_VERSION);
+        assertTrue(first.isModified());
+        assertNull(first.getCancelledExecutions());
+        assertEquals(1, first.getPausedExecutions().size());
+        assertEquals(MergedConfigurationDataContainer.NO_VERSION, first.getVersion());
+
+        // the incomplete configuration is read again by the next fetch
+        mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), first.getVersion());
+        verify(cancelExecutionService, times(2)).readCanceledExecutionsIds();
+    }
+
+    @Test
+    public void testUnchangedConfigurationIsNotReadAgain(){
+        when(cancelExecutionService.readCanceledExecutionsIds()).thenReturn(Arrays.asList(1L));
+        when(pauseResumeService.readAllPausedExecutionBranchIds()).thenReturn(new HashSet<String>());
+        when(workerNodeService.readWorkerGroups(getWorkerUuid())).thenReturn(Arrays.asList("group1"));
+        MergedConfigurationDataContainer first = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), MergedConfigurationDataContainer.NO_VERSION);
+
+        MergedConfigurationDataContainer second = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), first.getVersion());
+        assertFalse(second.isModified());
+        verify(cancelExecutionService, times(1)).readCanceledExecutionsIds();
+        verify(pauseResumeService, times(1)).readAllPausedExecutionBranchIds();
+        verify(workerNodeService, times(1)).readWorkerGroups(getWorkerUuid());
+    }
+
+    @Test
+    public void testWorkerGroupsChangeIsModified(){
+        when(cancelExecutionService.readCanceledExecutionsIds()).thenReturn(Arrays.asList(1L));
+        when(pauseResumeService.readAllPausedExecutionBranchIds()).thenReturn(new HashSet<String>());
+        when(workerNodeService.readWorkerGroups(getWorkerUuid())).thenReturn(Arrays.asList("group1"));
+        MergedConfigurationDataContainer first = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), MergedConfigurationDataContainer.NO_VERSION);
+
+        when(workerNodeService.readWorkerGroups(getWorkerUuid())).thenReturn(Arrays.asList("group1", "group2"));
+        ((WorkerGroupsListener) mergedConfigurationService).onWorkerGroupsChanged(getWorkerUuid());
+        MergedConfigurationDataContainer second = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), first.getVersion());
+        assertTrue(second.isModified());
+        assertTrue(second.getWorkerGroups().contains("group2"));
+    }
+
     @Configuration
     static class Configurator {
 
@@ -138,7 +231,7 @@ public void testCancelledFlows(){
     }
 
     protected static String getWorkerUuid() {
-        return System.getProperty("worker.uuid");
+        return System.getProperty("worker.uuid", "worker1");
     }
 
 }
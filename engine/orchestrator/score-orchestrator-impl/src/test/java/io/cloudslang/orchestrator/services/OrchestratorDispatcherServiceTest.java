@@ -86,11 +86,13 @@ public class OrchestratorDispatcherServiceTest {
         node.setWorkerRecoveryVersion("1");
 
         when(workerNodeService.readByUUID(anyString())).thenReturn(node);
+        when(workerNodeService.updateBulkNumber(uuid, "1", newBulkNumber)).thenReturn(true);
 
         orchestratorDispatcherService.dispatch(messages, newBulkNumber, "1", uuid);
         Mockito.verify(workerLockService, times(1)).lock(uuid);
         Mockito.verify(queueDispatcher, times(1)).dispatch(anyList());
-        Mockito.verify(workerNodeService, times(1)).updateBulkNumber(uuid, newBulkNumber);
+        Mockito.verify(workerNodeService, times(1)).updateBulkNumber(uuid, "1", newBulkNumber);
+        Mockito.verify(workerNodeService, times(0)).readByUUID(anyString());
     }
 
     @Test
@@ -105,11 +107,13 @@ public class OrchestratorDispatcherServiceTest {
         node.setWorkerRecoveryVersion("1");
 
         when(workerNodeService.readByUUID(anyString())).thenReturn(node);
+        when(workerNodeService.updateBulkNumber(uuid, "1", newBulkNumber)).thenReturn(true);
 
         orchestratorDispatcherService.dispatch(messages, newBulkNumber, "1", uuid);
         Mockito.verify(workerLockService, times(1)).lock(uuid);
         Mockito.verify(queueDispatcher, times(1)).dispatch(anyList());
-        Mockito.verify(workerNodeService, times(1)).updateBulkNumber(uuid, newBulkNumber);
+        Mockito.verify(workerNodeService, times(1)).updateBulkNumber(uuid, "1", newBulkNumber);
+        Mockito.verify(workerNodeService, times(0)).readByUUID(anyString());
     }
 
     @Test
@@ -126,10 +130,12 @@ public class OrchestratorDispatcherServiceTest {
 
         when(workerNodeService.readByUUID(anyString())).thenReturn(node);
 
+        when(workerNodeService.updateBulkNumber(uuid, "1", newBulkNumber)).thenReturn(false);
+
         orchestratorDispatcherService.dispatch(messages, newBulkNumber, "1", uuid);
         Mockito.verify(workerLockService, times(1)).lock(uuid);
         Mockito.verify(queueDispatcher, times(0)).dispatch(anyList());
-        Mockito.verify(workerNodeService, times(0)).updateBulkNumber(uuid, newBulkNumber);
+        Mockito.verify(workerNodeService, times(1)).updateBulkNumber(uuid, "1", newBulkNumber);
     }
     
     @Test
@@ -147,10 +153,11 @@ public class OrchestratorDispatcherServiceTest {
             when(workerNodeService.readByUUID(anyString())).thenReturn(node);
     
             //worker dispatches with wrong WRV
+            when(workerNodeService.updateBulkNumber(uuid, "0", newBulkNumber)).thenReturn(false);
             orchestratorDispatcherService.dispatch(messages, newBulkNumber, "0", uuid);
     
             Mockito.verify(queueDispatcher, times(0)).dispatch(anyList());
-            Mockito.verify(workerNodeService, times(0)).updateBulkNumber(uuid, newBulkNumber);
+            Mockito.verify(workerNodeService, times(1)).updateBulkNumber(uuid, "0", newBulkNumber);
         }
 
     @Configuration
@@ -19,6 +19,8 @@ package io.cloudslang.orchestrator.services;
 import io.cloudslang.score.facade.entities.RunningExecutionPlan;
 import io.cloudslang.score.facade.services.RunningExecutionPlanService;
 import io.cloudslang.score.api.ExecutionPlan;
+import io.cloudslang.orchestrator.entities.RunningExecutionPlanReference;
+import io.cloudslang.orchestrator.repositories.RunningExecutionPlanReferenceRepository;
 import io.cloudslang.orchestrator.repositories.RunningExecutionPlanRepository;
 import junit.framework.Assert;
 import org.junit.Before;
@@ -32,9 +34,12 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -52,6 +57,9 @@ public class RunningExecutionPlanServiceTest {
     @Mock
     private RunningExecutionPlanRepository runningExecutionPlanRepository;
 
+    @Mock
+    private RunningExecutionPlanReferenceRepository runningExecutionPlanReferenceRepository;
+
     @Configuration
     static class EmptyConfig {
     }
@@ -82,4 +90,72 @@ public class RunningExecutionPlanServiceTest {
         Long id = runningExecutionPlanService.createRunningExecutionPlan(executionPlan, "11");
         Assert.assertEquals((Long) 5L, id);
     }
+
+    @Test
+    public void testCreateRunningExecutionPlanReusesSamePlan() {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        executionPlan.setFlowUuid("uuid");
+
+        when(runningExecutionPlanRepository.findIdsByPlanHash(anyString(), anyString())).thenReturn(Arrays.asList(3L));
+        when(runningExecutionPlanRepository.lockPlans(Collections.singletonList(3L))).thenReturn(Arrays.asList(3L));
+
+        Long id = runningExecutionPlanService.createRunningExecutionPlan(executionPlan, "11");
+        Assert.assertEquals((Long) 3L, id);
+        verify(runningExecutionPlanRepository, never()).save(any(RunningExecutionPlan.class));
+        verify(runningExecutionPlanReferenceRepository).save(new RunningExecutionPlanReference(3L, "11"));
+    }
+
+    @Test
+    public void testCreateRunningExecutionPlanWhenSamePlanWasDeleted() {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        executionPlan.setFlowUuid("uuid");
+        RunningExecutionPlan runningExecutionPlan = new RunningExecutionPlan();
+        runningExecutionPlan.setId(5L);
+
+        when(runningExecutionPlanRepository.findIdsByPlanHash(anyString(), anyString())).thenReturn(Arrays.asList(3L));
+        when(runningExecutionPlanRepository.lockPlans(Collections.singletonList(3L))).thenReturn(Collections.<Long>emptyList());
+        when(runningExecutionPlanRepository.save(any(RunningExecutionPlan.class))).thenReturn(runningExecutionPlan);
+
+        Long id = runningExecutionPlanService.createRunningExecutionPlan(executionPlan, "11");
+        Assert.assertEquals((Long) 5L, id);
+        verify(runningExecutionPlanReferenceRepository, never()).save(new RunningExecutionPlanReference(3L, "11"));
+    }
+
+    @Test
+    public void testSamePlanHasSameHash() {
+        ExecutionPlan executionPlan = new ExecutionPlan();
+        executionPlan.setFlowUuid("uuid");
+        ExecutionPlan diffExecutionPlan = new ExecutionPlan();
+        diffExecutionPlan.setFlowUuid("diff uuid");
+
+        RunningExecutionPlan first = new RunningExecutionPlan();
+        first.setExecutionPlan(executionPlan);
+        RunningExecutionPlan second = new RunningExecutionPlan();
+        second.setExecutionPlan(executionPlan);
+        RunningExecutionPlan diff = new RunningExecutionPlan();
+        diff.setExecutionPlan(diffExecutionPlan);
+
+        Assert.assertEquals(first.getPlanHash(), second.getPlanHash());
+        Assert.assertFalse(first.getPlanHash().equals(diff.getPlanHash()));
+        Assert.assertEquals("uuid", first.getExecutionPlan().getFlowUuid());
+    }
+
+    @Test
+    public void testDeleteRunningExecutionPlansDeletesUnreferencedPlans() {
+        when(runningExecutionPlanReferenceRepository.findRunningExecutionPlanIds(Arrays.asList("1", "2"))).thenReturn(Arrays.asList(3L, 4L));
+        when(runningExecutionPlanRepository.deleteByExecutionIds(Arrays.asList("1", "2"))).thenReturn(1);
+        when(runningExecutionPlanRepository.deleteUnreferenced(Arrays.asList(3L, 4L))).thenReturn(1);
+
+        Assert.assertEquals(2, runningExecutionPlanService.deleteRunningExecutionPlans(Arrays.asList("1", "2")));
+        verify(runningExecutionPlanReferenceRepository).deleteByExecutionIds(Arrays.asList("1", "2"));
+        verify(runningExecutionPlanRepository).lockPlans(Arrays.asList(3L, 4L));
+    }
+
+    @Test
+    public void testDeleteRunningExecutionPlansWithoutReferences() {
+        when(runningExecutionPlanReferenceRepository.findRunningExecutionPlanIds(Arrays.asList("1"))).thenReturn(Collections.<Long>emptyList());
+
+        runningExecutionPlanService.deleteRunningExecutionPlans(Arrays.asList("1"));
+        verify(runningExecutionPlanRepository, never()).deleteUnreferenced(Arrays.<Long>asList());
+    }
 }
@@ -92,6 +92,11 @@ public class ScorePauseResumeTest {
             return mock(PauseResumeService.class);
         }
 
+        @Bean
+        public MergedConfigurationService mergedConfigurationService() {
+            return mock(MergedConfigurationService.class);
+        }
+
     }
 
 }
@@ -154,6 +154,22 @@ public class SplitJoinServiceTest {
         splitJoinService.endBranch(Arrays.asList(branch1, branch2));
     }
 
+    @Test
+    public void saveBranchJoinedRightAwayEndBranchTest() {
+        String splitId = UUID.randomUUID().toString();
+        Execution branch = createExecution(2L);
+        branch.getSystemContext().setSplitId(splitId);
+        SuspendedExecution suspendedExecution = createSuspendedExecution(splitId, 1);
+        Mockito.when(suspendedExecutionsRepository.findBySplitIdIn(Arrays.asList(splitId))).thenReturn(Arrays.asList(suspendedExecution));
+
+        splitJoinService.endBranch(Arrays.asList(branch));
+
+        // the branch of a split with one branch is joined at once, it must still be saved before its parent is deleted
+        FinishedBranch finishedBranch = suspendedExecution.getFinishedBranches().get(0);
+        Mockito.verify(finishedBranchRepository).save(finishedBranch);
+        Mockito.verify(suspendedExecutionsRepository).delete(Arrays.asList(suspendedExecution));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void nullParamEndBranchTest() {
         splitJoinService.endBranch(null);
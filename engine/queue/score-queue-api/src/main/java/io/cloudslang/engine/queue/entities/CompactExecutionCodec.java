@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.entities;
+
+import io.cloudslang.score.facade.entities.Execution;
+import io.cloudslang.score.lang.SystemContext;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary codec for {@link Execution} that writes the fields, the contexts and the system context directly instead of
+ * going through Java serialization.
+ *
+ * Immutable values (strings, numbers and booleans) are written inline. All other values are Java serialized together
+ * in a single stream, so objects that are shared between the contexts stay shared after decoding.
+ */
+public class CompactExecutionCodec implements PayloadCodec {
+
+    public static final byte ID = 1;
+
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte SERIALIZED = 6;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Object obj) {
+        // subclasses may have state of their own, so they are left to Java serialization
+        if (obj == null || obj.getClass() != Execution.class) {
+            return false;
+        }
+        Execution execution = (Execution) obj;
+        return isPlainMap(execution.getContexts()) && execution.getSystemContext().getClass() == SystemContext.class;
+    }
+
+    private boolean isPlainMap(Map<String, Serializable> map) {
+        return map == null || map.getClass() == HashMap.class;
+    }
+
+    @Override
+    public void encode(Object obj, OutputStream out) throws IOException {
+        Execution execution = (Execution) obj;
+        List<Serializable> serializedValues = new ArrayList<>();
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(ExecutionMessageConverter.SIZE);
+        DataOutputStream bodyOut = new DataOutputStream(body);
+        writeValue(bodyOut, execution.getExecutionId(), serializedValues);
+        writeValue(bodyOut, execution.getRunningExecutionPlanId(), serializedValues);
+        writeValue(bodyOut, execution.getPosition(), serializedValues);
+        writeValue(bodyOut, execution.getGroupName(), serializedValues);
+        writeMap(bodyOut, execution.getContexts(), serializedValues);
+        writeMap(bodyOut, execution.getSystemContext(), serializedValues);
+        bodyOut.flush();
+
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeByte(VERSION);
+        dataOut.writeInt(serializedValues.size());
+        if (!serializedValues.isEmpty()) {
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream(ExecutionMessageConverter.SIZE);
+            ObjectOutputStream oos = new ObjectOutputStream(serialized);
+            oos.writeObject(serializedValues);
+            oos.close();
+            dataOut.writeInt(serialized.size());
+            serialized.writeTo(dataOut);
+        }
+        body.writeTo(dataOut);
+        dataOut.flush();
+    }
+
+    @Override
+    public Object decode(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        byte version = dataIn.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compact execution version: " + version);
+        }
+
+        List<Serializable> serializedValues = null;
+        if (dataIn.readInt() > 0) {
+            byte[] serialized = new byte[dataIn.readInt()];
+            dataIn.readFully(serialized);
+            serializedValues = readSerializedValues(serialized);
+        }
+
+        Execution execution = new Execution();
+        execution.setExecutionId((Long) readValue(dataIn, serializedValues));
+        execution.setRunningExecutionPlanId((Long) readValue(dataIn, serializedValues));
+        execution.setPosition((Long) readValue(dataIn, serializedValues));
+        execution.setGroupName((String) readValue(dataIn, serializedValues));
+        execution.setContexts(readMap(dataIn, serializedValues));
+        Map<String, Serializable> systemContext = readMap(dataIn, serializedValues);
+        if (systemContext != null) {
+            execution.getSystemContext().putAll(systemContext);
+        }
+        return execution;
+    }
+
+    private List<Serializable> readSerializedValues(byte[] serialized) throws IOException {
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new ByteArrayInputStream(serialized));
+            //noinspection unchecked
+            return (List<Serializable>) ois.readObject();
+        } catch (ClassNotFoundException ex) {
+            throw new IOException("Failed to read serialized context values", ex);
+        } finally {
+            IOUtils.closeQuietly(ois);
+        }
+    }
+
+    private void writeMap(DataOutputStream out, Map<String, Serializable> map, List<Serializable> serializedValues) throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, Serializable> entry : map.entrySet()) {
+            writeValue(out, entry.getKey(), serializedValues);
+            writeValue(out, entry.getValue(), serializedValues);
+        }
+    }
+
+    private Map<String, Serializable> readMap(DataInputStream in, List<Serializable> serializedValues) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Serializable> map = new HashMap<>(Math.max(16, (int) (size / .75f) + 1));
+        for (int i = 0; i < size; i++) {
+            String key = (String) readValue(in, serializedValues);
+            map.put(key, readValue(in, serializedValues));
+        }
+        return map;
+    }
+
+    private void writeValue(DataOutputStream out, Serializable value, List<Serializable> serializedValues) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value.getClass() == String.class) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value.getClass() == Integer.class) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value.getClass() == Long.class) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value.getClass() == Boolean.class) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value.getClass() == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else {
+            out.writeByte(SERIALIZED);
+            out.writeInt(serializedValues.size());
+            serializedValues.add(value);
+        }
+    }
+
+    private Serializable readValue(DataInputStream in, List<Serializable> serializedValues) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case BOOLEAN:
+                return in.readBoolean();
+            case DOUBLE:
+                return in.readDouble();
+            case SERIALIZED:
+                int index = in.readInt();
+                if (serializedValues == null || index >= serializedValues.size()) {
+                    throw new IOException("Missing serialized context value " + index);
+                }
+                return serializedValues.get(index);
+            default:
+                throw new IOException("Unknown value type: " + type);
+        }
+    }
+}
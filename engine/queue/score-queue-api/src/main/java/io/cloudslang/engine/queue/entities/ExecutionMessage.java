@@ -51,6 +51,10 @@ public class ExecutionMessage implements Message, Cloneable {
 	private boolean stepPersist;
 	private String stepPersistId;
 
+	// an IN_PROGRESS message that moves its exec state to the next step: the state gets the payload of the message
+	// instead of finishing this exec state and opening a new one
+	private boolean advance;
+
 	private transient String workerKey;
 
     private transient Execution executionObject;
@@ -144,6 +148,14 @@ public class ExecutionMessage implements Message, Cloneable {
 		this.stepPersistId = stepPersistId;
 	}
 
+	public boolean isAdvance() {
+		return advance;
+	}
+
+	public void setAdvance(boolean advance) {
+		this.advance = advance;
+	}
+
 	public Execution getExecutionObject() {
         return executionObject;
     }
@@ -265,7 +277,7 @@ public class ExecutionMessage implements Message, Cloneable {
 				resultAfterShrink.add(firstMessage);
 
 				//If second needs to be persisted - we must add it also
-				if(secondMessage.isStepPersist()&& secondMessage.getStatus().equals(ExecStatus.FINISHED) ){
+				if(isToPersistMessage(secondMessage)){
 					resultAfterShrink.add(secondMessage);
 				}
 
@@ -280,15 +292,19 @@ public class ExecutionMessage implements Message, Cloneable {
 
 	protected List<Message> filerToPersistMessages(List<Message> messages){
 		List<Message> result = new ArrayList<>();
-		//We need to get from the list the FINISHED persisted messages
+		//We need to get from the list the FINISHED or advance persisted messages
 		for(Message msg : messages){
-			if(((ExecutionMessage)msg).isStepPersist() && ((ExecutionMessage)msg).getStatus().equals(ExecStatus.FINISHED)){
+			if(isToPersistMessage((ExecutionMessage) msg)){
 				result.add(msg);
 			}
 		}
 		return result;
 	}
 
+	private static boolean isToPersistMessage(ExecutionMessage msg) {
+		return msg.isStepPersist() && (msg.getStatus().equals(ExecStatus.FINISHED) || msg.isAdvance());
+	}
+
     private String messagesToString(List<Message> messages){
         StringBuilder str = new StringBuilder();
 
@@ -27,6 +27,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created with IntelliJ IDEA.
@@ -37,9 +40,21 @@ import java.io.ObjectOutputStream;
 public class ExecutionMessageConverter {
 
 	public static final int SIZE = 1024;
+
+	// allows to keep writing Java serialized payloads while there are still nodes that can not read the compact ones
+	private static final boolean COMPACT_CODEC_DISABLED = Boolean.getBoolean("score.payload.disableCompactCodec");
+
+	//Java serialized payloads are recognized by the first byte of the stream magic instead of a codec id
+	private static final byte JAVA_SERIALIZATION_MARKER = (byte) (ObjectStreamConstants.STREAM_MAGIC >> 8);
+
 	@Autowired(required = false)
 	private SensitiveDataHandler sensitiveDataHandler;
 
+	@Autowired(required = false)
+	private List<PayloadCodec> payloadCodecs = new ArrayList<>();
+
+	private final PayloadCodec compactExecutionCodec = new CompactExecutionCodec();
+
 	public <T> T extractExecution(Payload payload) {
 		return objFromBytes(payload.getData());
 	}
@@ -74,6 +89,13 @@ public class ExecutionMessageConverter {
 			skipPayloadMetaData(is);
 
 			BufferedInputStream bis = new BufferedInputStream(is);
+			bis.mark(1);
+			byte codecId = (byte) bis.read();
+			if (codecId != JAVA_SERIALIZATION_MARKER) {
+				//noinspection unchecked
+				return (T) findCodec(codecId).decode(bis);
+			}
+			bis.reset();
 			ois = new ObjectInputStream(bis);
 
 			//noinspection unchecked
@@ -96,6 +118,13 @@ public class ExecutionMessageConverter {
 			initPayloadMetaData(bout);
 
 			BufferedOutputStream bos = new BufferedOutputStream(bout);
+			PayloadCodec codec = findCodec(obj);
+			if (codec != null) {
+				bos.write(codec.getId());
+				codec.encode(obj, bos);
+				bos.flush();
+				return bout.toByteArray();
+			}
 			oos = new ObjectOutputStream(bos);
 
 			oos.writeObject(obj);
@@ -110,6 +139,30 @@ public class ExecutionMessageConverter {
 		}
 	}
 
+	private PayloadCodec findCodec(Object obj) {
+		for (PayloadCodec codec : payloadCodecs) {
+			if (codec.canEncode(obj)) {
+				return codec;
+			}
+		}
+		if (!COMPACT_CODEC_DISABLED && compactExecutionCodec.canEncode(obj)) {
+			return compactExecutionCodec;
+		}
+		return null;
+	}
+
+	private PayloadCodec findCodec(byte codecId) throws IOException {
+		for (PayloadCodec codec : payloadCodecs) {
+			if (codec.getId() == codecId) {
+				return codec;
+			}
+		}
+		if (compactExecutionCodec.getId() == codecId) {
+			return compactExecutionCodec;
+		}
+		throw new IOException("No payload codec found for id " + codecId);
+	}
+
 	/***************************************************************************************/
 	//we padding payload with clean bytes which then will be used for metadata writing
 	private static final byte[] PAYLOAD_META_DATA_INIT_BYTES = {0};
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.entities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Encodes the object that is carried by a {@link Payload}.
+ *
+ * The codec id is written right after the payload metadata, so payloads can always be decoded by the codec that
+ * created them. Objects that no codec can encode are written with plain Java serialization.
+ */
+public interface PayloadCodec {
+
+    /**
+     * @return the unique id of this codec, must not be the first byte of the Java serialization stream magic (0xAC)
+     */
+    byte getId();
+
+    /**
+     * @param obj the object to encode
+     * @return true if this codec can encode the given object
+     */
+    boolean canEncode(Object obj);
+
+    /**
+     * writes the given object to the stream
+     *
+     * @param obj the object to encode
+     * @param out the stream to write to
+     * @throws IOException on failure to write to the stream
+     */
+    void encode(Object obj, OutputStream out) throws IOException;
+
+    /**
+     * reads an object that was written by {@link #encode(Object, java.io.OutputStream)}
+     *
+     * @param in the stream to read from, positioned right after the codec id
+     * @return the decoded object
+     * @throws IOException on failure to read the stream
+     */
+    Object decode(InputStream in) throws IOException;
+}
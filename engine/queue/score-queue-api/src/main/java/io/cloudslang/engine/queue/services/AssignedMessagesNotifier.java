@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.services;
+
+import java.util.Collection;
+
+/**
+ * Wakes up workers that are parked in a long poll when new messages are assigned to them.
+ */
+public interface AssignedMessagesNotifier {
+
+    /**
+     * Signals the given workers that new messages were assigned to them
+     *
+     * @param workerIds the uuids of the workers
+     */
+    void notifyWorkers(Collection<String> workerIds);
+
+    /**
+     * Clears a pending signal of the worker, should be called right before polling its messages
+     *
+     * @param workerId the worker uuid
+     */
+    void reset(String workerId);
+
+    /**
+     * Parks the caller until the worker is signaled or the timeout expires
+     *
+     * @param workerId the worker uuid
+     * @param timeoutMillis the max time to wait in milliseconds
+     * @return true if the worker was signaled, false if the timeout expired
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    boolean await(String workerId, long timeoutMillis) throws InterruptedException;
+}
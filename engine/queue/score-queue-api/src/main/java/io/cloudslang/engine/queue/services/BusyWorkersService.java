@@ -16,8 +16,29 @@
 
 package io.cloudslang.engine.queue.services;
 
+/**
+ * Tracks in memory which workers may have assigned messages, so polls of idle workers do not reach the DB.
+ * A worker is marked busy when messages are assigned to it and idle when a poll finds none,
+ * {@link #findBusyWorkers()} repairs the drift, e.g. messages that were assigned by another engine node.
+ * Acks move SENT messages to IN_PROGRESS and leave the ASSIGNED messages as they are, so they do not change the busy state.
+ */
 public interface BusyWorkersService {
     boolean isWorkerBusy(String workerId);
+
+    /**
+     * @return the mark of the last time the worker was marked busy, or 0 if the worker is idle
+     */
+    long getBusyMark(String workerId);
+
+    void markWorkerBusy(String workerId);
+
+    /**
+     * Marks the worker idle, unless it was marked busy again since the given mark was read.
+     *
+     * @param busyMark the mark that was read before the worker was found idle
+     */
+    void markWorkerIdle(String workerId, long busyMark);
+
     void findBusyWorkers();
     void clearBusyWorkers();
 }
@@ -48,6 +48,18 @@ public interface QueueDispatcherService {
      */
 	List<ExecutionMessage> poll(String uuid, int maxSize);
 
+    /**
+     *
+     * Long poll - same as {@link #poll(String, int)}, but when there are no messages for the worker
+     * the call is parked until new messages are assigned to it or the timeout expires
+     *
+     * @param uuid the worker id
+     * @param maxSize max size of the poll bulk
+     * @param timeoutMillis max time in milliseconds to wait for messages
+     * @return a list of {@link io.cloudslang.engine.queue.entities.ExecutionMessage}, empty if the timeout expired
+     */
+	List<ExecutionMessage> poll(String uuid, int maxSize, long timeoutMillis);
+
     /**
      *
      * Dispatch one message to the queue
@@ -38,4 +38,11 @@ public interface ExecutionAssignerService {
      * @return List of assigned {@link io.cloudslang.engine.queue.entities.ExecutionMessage}
      */
     List<ExecutionMessage> assignWorkers(List<ExecutionMessage> messages);
+
+    /**
+     *
+     * reloads the groups of the active workers and how many messages each worker already has,
+     * so assigning messages does not have to read them for every batch
+     */
+    void refreshWorkersTopology();
 }
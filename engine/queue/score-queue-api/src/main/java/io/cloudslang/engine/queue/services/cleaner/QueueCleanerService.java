@@ -42,4 +42,15 @@ public interface QueueCleanerService {
      * @param ids the ids to clean data for
      */
     void cleanFinishedSteps(Set<Long> ids);
+
+    /**
+     *
+     * clean queues data for the next bulk of finished executions, in exec state id order,
+     * so the whole queue can be cleaned page by page without loading all the finished ids
+     *
+     * @param afterExecStateId the exec state id the previous bulk ended at, 0 to start from the beginning
+     * @param bulkSize the maximal number of executions to clean
+     * @return the exec state id the bulk ended at, or -1 if there was nothing left to clean
+     */
+    long cleanFinishedSteps(long afterExecStateId, int bulkSize);
 }
@@ -21,4 +21,29 @@ package io.cloudslang.engine.queue.services.recovery;
  */
 public interface ExecutionRecoveryService {
 	public void doRecovery();
+
+	/**
+	 * @return the duration in ms of the last recovery run, including the reassignment of the recovered messages
+	 */
+	long getLastRecoveryDuration();
+
+	/**
+	 * @return the duration in ms of the workers recovery in the last recovery run
+	 */
+	long getLastWorkersRecoveryDuration();
+
+	/**
+	 * @return the number of workers whose recovery failed in the last recovery run
+	 */
+	int getLastFailedWorkersCount();
+
+	/**
+	 * @return the number of recovered messages that were reassigned in the last recovery run
+	 */
+	int getLastRecoveredMessagesCount();
+
+	/**
+	 * @return the number of recovered messages that were reassigned since start up
+	 */
+	long getTotalRecoveredMessagesCount();
 }
@@ -16,6 +16,8 @@
 
 package io.cloudslang.engine.queue.services.recovery;
 
+import java.util.List;
+
 /**
  * Created with IntelliJ IDEA.
  * User: kravtsov
@@ -37,4 +39,12 @@ public interface WorkerRecoveryService {
      * @param workerUuid - the uuid of worker
      */
     void doWorkerAndMessageRecovery(String workerUuid);
+
+    /**
+     * Same as {@link #doWorkerAndMessageRecovery(String)}, for a recovery job that checks many workers
+     * and reads the non responsive workers once for all of them
+     * @param workerUuid - the uuid of worker
+     * @param nonRespondingWorkers - the uuids of the non responsive workers
+     */
+    void doWorkerAndMessageRecovery(String workerUuid, List<String> nonRespondingWorkers);
 }
@@ -26,8 +26,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import io.cloudslang.score.facade.entities.Execution;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -120,6 +126,61 @@ public class ExecutionMessageConverterTest {
         assertTrue(executionMessageConverter.containsSensitiveData(p));
     }
 
+    @Test
+    public void testCompactConverter() {
+        ArrayList<String> shared = new ArrayList<>();
+        shared.add("shared");
+        HashMap<String, Serializable> contexts = new HashMap<>();
+        contexts.put("string", "value");
+        contexts.put("int", 5);
+        contexts.put("null", null);
+        contexts.put("list1", shared);
+        contexts.put("list2", shared);
+        HashMap<String, Serializable> systemContext = new HashMap<>();
+        systemContext.put("long", 7L);
+        systemContext.put("bool", true);
+        Execution execution = new Execution(111L, 999L, 3L, contexts, systemContext);
+        execution.setGroupName("group");
+
+        Payload payload = executionMessageConverter.createPayload(execution);
+        assertEquals(CompactExecutionCodec.ID, payload.getData()[1]);
+
+        Execution afterConvert = executionMessageConverter.extractExecution(payload);
+        assertEquals(execution, afterConvert);
+        assertEquals("group", afterConvert.getGroupName());
+        assertEquals(execution.getContexts(), afterConvert.getContexts());
+        assertEquals(execution.getSystemContext(), afterConvert.getSystemContext());
+        assertSame(afterConvert.getContexts().get("list1"), afterConvert.getContexts().get("list2"));
+        assertTrue(afterConvert.getContexts().containsKey("null"));
+    }
+
+    @Test
+    public void testCompactConverterIsSmaller() throws IOException {
+        HashMap<String, Serializable> systemContext = new HashMap<>();
+        systemContext.put("EXECUTION_ID", "123456");
+        systemContext.put("RUNNING_ID", 123456L);
+        Execution execution = new Execution(111L, 999L, 3L, new HashMap<String, Serializable>(), systemContext);
+
+        assertTrue(executionMessageConverter.createPayload(execution).getData().length < javaSerializedPayload(execution).length);
+    }
+
+    @Test
+    public void testExtractJavaSerializedPayload() throws IOException {
+        Execution execution = new Execution(111L, 999L, 3L, new HashMap<String, Serializable>(), null);
+
+        Execution afterConvert = executionMessageConverter.extractExecution(new Payload(javaSerializedPayload(execution)));
+        assertEquals(execution, afterConvert);
+    }
+
+    private byte[] javaSerializedPayload(Object obj) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        bout.write(0);
+        ObjectOutputStream oos = new ObjectOutputStream(bout);
+        oos.writeObject(obj);
+        oos.close();
+        return bout.toByteArray();
+    }
+
 //    @Test
 //    public void testConverterWithSession() throws IOException {
 //        List<String> names = new ArrayList<>();
@@ -186,4 +186,48 @@ public class ExecutionMessageTests {
 		Assert.assertEquals(1, result.size());
 		Assert.assertEquals("888", result.get(0).getId());
 	}
+
+	@Test
+	public void shrinkKeepsPersistedAdvanceMessages(){
+		List<Message> listToShrink = new ArrayList<>();
+
+		ExecutionMessage em_1 = new ExecutionMessage("123", null);
+		em_1.setStatus(ExecStatus.IN_PROGRESS);
+		em_1.setWorkerKey("1");
+
+		ExecutionMessage em_2 = new ExecutionMessage("123", null);
+		em_2.setStatus(ExecStatus.IN_PROGRESS);
+		em_2.setAdvance(true);
+		em_2.setWorkerKey("2");
+
+		ExecutionMessage em_3 = new ExecutionMessage("123", null);
+		em_3.setStatus(ExecStatus.IN_PROGRESS);
+		em_3.setAdvance(true);
+		em_3.setStepPersist(true);
+		em_3.setWorkerKey("3");
+
+		ExecutionMessage em_4 = new ExecutionMessage("123", null);
+		em_4.setStatus(ExecStatus.IN_PROGRESS);
+		em_4.setAdvance(true);
+		em_4.setWorkerKey("4");
+
+		ExecutionMessage em_5 = new ExecutionMessage("123", null);
+		em_5.setStatus(ExecStatus.IN_PROGRESS);
+		em_5.setAdvance(true);
+		em_5.setWorkerKey("5");
+
+		listToShrink.add(em_1);
+		listToShrink.add(em_2);
+		listToShrink.add(em_3);
+		listToShrink.add(em_4);
+		listToShrink.add(em_5);
+
+		List<Message> result = em_1.shrink(listToShrink);
+
+		//the not persisted advance in the middle is replaced by the last one
+		Assert.assertEquals(3, result.size());
+		Assert.assertEquals("2", result.get(0).getId());
+		Assert.assertEquals("3", result.get(1).getId());
+		Assert.assertEquals("5", result.get(2).getId());
+	}
 }
@@ -43,14 +43,36 @@ public interface ExecutionQueueRepository {
 
 	void insertExecutionStates(final List<ExecutionMessage> stateMessages);
 
+	void updateExecutionStates(final List<ExecutionMessage> advanceMessages);
+
+	/**
+	 * Deletes the queue messages of the advanced exec states that are older than the advance messages,
+	 * an advanced exec state does not finish so the cleaner would never delete them.
+	 */
+	void deleteSupersededMessages(final List<ExecutionMessage> advanceMessages);
+
 	void insertExecutionQueue(final List<ExecutionMessage> messages,long version);
 
 	Map<Long,Payload> findPayloadByExecutionIds(Long ... ids);
 
     void deleteFinishedSteps(Set<Long> ids);
 
+	/**
+	 * Deletes the next bulk of finished exec states, in exec state id order.
+	 *
+	 * @param afterExecStateId only exec states with a greater id are deleted
+	 * @param bulkSize the maximal number of exec states to delete
+	 * @return the greatest deleted exec state id, or -1 if there were no finished exec states after the given one
+	 */
+	long deleteFinishedSteps(long afterExecStateId, int bulkSize);
+
     Set<Long> getFinishedExecStateIds();
 
 	List<ExecutionMessage> findByStatuses(int maxSize, ExecStatus... statuses);
 	List<String> getBusyWorkers(ExecStatus... statuses);
+
+	/**
+	 * @return the number of latest messages in the given statuses, for every worker that has such messages
+	 */
+	Map<String, Integer> getWorkersLoad(ExecStatus... statuses);
 }
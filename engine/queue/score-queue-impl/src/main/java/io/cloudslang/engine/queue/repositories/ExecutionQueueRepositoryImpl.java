@@ -39,6 +39,7 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,6 +67,15 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 	final private String QUERY_DELETE_FINISHED_STEPS_FROM_STATES = "DELETE FROM OO_EXECUTION_STATES " +
 			" WHERE ID in (:ids)";
 
+	final private String QUERY_DELETE_FINISHED_STEPS_FROM_LATEST = "DELETE FROM OO_EXECUTION_QUEUES_LATEST " +
+			" WHERE EXEC_STATE_ID in (:ids)";
+
+	// Keyset page over the primary key of OO_EXECUTION_QUEUES_LATEST - every page starts where the previous one ended,
+	// so the cleaner never holds more than one bulk of ids and never rescans what it already deleted
+	final private String SELECT_FINISHED_STEPS_IDS_PAGE = "SELECT EXEC_STATE_ID FROM OO_EXECUTION_QUEUES_LATEST " +
+			" WHERE EXEC_STATE_ID > ? AND STATUS IN (" + ExecStatus.TERMINATED.getNumber() + "," + ExecStatus.FAILED.getNumber() + "," + ExecStatus.FINISHED.getNumber() + ")" +
+			" ORDER BY EXEC_STATE_ID";
+
 	final private String QUERY_MESSAGES_WITHOUT_ACK_SQL =
 			"SELECT EXEC_STATE_ID,      " +
 					"       ASSIGNED_WORKER,      " +
@@ -73,30 +83,18 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 					"       STATUS,       " +
 					"       MSG_SEQ_ID,   " +
 					"      CREATE_TIME " +
-					"  FROM  OO_EXECUTION_QUEUES q  " +
+					"  FROM  OO_EXECUTION_QUEUES_LATEST q  " +
 					"  WHERE " +
 					"      (q.STATUS  = ? ) AND " +
-					"     (NOT EXISTS (SELECT qq.MSG_SEQ_ID " +
-					"                  FROM OO_EXECUTION_QUEUES qq " +
-					"                  WHERE (qq.EXEC_STATE_ID = q.EXEC_STATE_ID) AND " +
-					"                        qq.MSG_SEQ_ID > q.MSG_SEQ_ID" +
-					"                 )" +
-					"      ) AND " +
 					"      (q.MSG_VERSION < ?) ";
 
 
 	final private String QUERY_COUNT_MESSAGES_WITHOUT_ACK_FOR_WORKER_SQL =
 			"SELECT COUNT(*)  " +
-					"  FROM  OO_EXECUTION_QUEUES  q  " +
+					"  FROM  OO_EXECUTION_QUEUES_LATEST  q  " +
 					"  WHERE " +
 					"      (q.ASSIGNED_WORKER  = ? ) AND " +
 					"      (q.STATUS  = ? ) AND " +
-					"     (NOT EXISTS (SELECT qq.MSG_SEQ_ID " +
-					"                  FROM OO_EXECUTION_QUEUES qq " +
-					"                  WHERE (qq.EXEC_STATE_ID = q.EXEC_STATE_ID) AND " +
-					"                        qq.MSG_SEQ_ID > q.MSG_SEQ_ID " +
-					"                 )" +
-					"      ) AND " +
 					"      (q.MSG_VERSION < ?)  ";
 
 
@@ -109,15 +107,12 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 					"       MSG_SEQ_ID ,      " +
 					"       MSG_ID," +
 					"       q.CREATE_TIME " +
-					" FROM  OO_EXECUTION_QUEUES q,  " +
+					" FROM  OO_EXECUTION_QUEUES_LATEST q,  " +
 					"      OO_EXECUTION_STATES s   " +
 					" WHERE  " +
 					"      (q.ASSIGNED_WORKER =  ?)  AND " +
 					"      (q.STATUS IN (:status)) AND " +
-					" (q.EXEC_STATE_ID = s.ID) AND " +
-					" (NOT EXISTS (SELECT qq.MSG_SEQ_ID " +
-					"              FROM OO_EXECUTION_QUEUES qq " +
-					"              WHERE (qq.EXEC_STATE_ID = q.EXEC_STATE_ID) AND qq.MSG_SEQ_ID > q.MSG_SEQ_ID)) " +
+					" (q.EXEC_STATE_ID = s.ID) " +
 					" ORDER BY q.CREATE_TIME  ";
 
 	final private String QUERY_WORKER_RECOVERY_SQL =
@@ -129,15 +124,12 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 					"       MSG_SEQ_ID,      " +
 					"       MSG_ID," +
 					"       q.CREATE_TIME " +
-					" FROM  OO_EXECUTION_QUEUES q,  " +
+					" FROM  OO_EXECUTION_QUEUES_LATEST q,  " +
 					"       OO_EXECUTION_STATES s1   " +
 					" WHERE  " +
 					"      (q.ASSIGNED_WORKER =  ?)  AND " +
 					"      (q.STATUS IN (:status)) AND " +
-					" q.EXEC_STATE_ID = s1.ID AND" +
-					" (NOT EXISTS (SELECT qq.MSG_SEQ_ID " +
-					"              FROM OO_EXECUTION_QUEUES qq " +
-					"              WHERE (qq.EXEC_STATE_ID = q.EXEC_STATE_ID) AND qq.MSG_SEQ_ID > q.MSG_SEQ_ID)) ";
+					" q.EXEC_STATE_ID = s1.ID ";
 
 	final private String QUERY_MESSAGES_BY_STATUSES =
 			"SELECT EXEC_STATE_ID, " +
@@ -146,30 +138,43 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 					"  STATUS, " +
 					"  MSG_SEQ_ID, " +
 					"  CREATE_TIME " +
-					"FROM  OO_EXECUTION_QUEUES q  " +
-					"WHERE STATUS IN (:status) AND " +
-					"  NOT EXISTS (" +
-					"     SELECT qq.MSG_SEQ_ID " +
-					"     FROM OO_EXECUTION_QUEUES qq " +
-					"     WHERE" +
-					"         qq.EXEC_STATE_ID = q.EXEC_STATE_ID" +
-					"         AND qq.MSG_SEQ_ID > q.MSG_SEQ_ID" +
-					"  )";
+					"FROM  OO_EXECUTION_QUEUES_LATEST q  " +
+					"WHERE STATUS IN (:status) ";
 	final private String BUSY_WORKERS_SQL =
 			"SELECT ASSIGNED_WORKER      " +
-					" FROM  OO_EXECUTION_QUEUES q  " +
+					" FROM  OO_EXECUTION_QUEUES_LATEST q  " +
 					" WHERE  " +
-					"      (q.STATUS IN (:status)) AND " +
-					" (NOT EXISTS (SELECT qq.MSG_SEQ_ID " +
-					"              FROM OO_EXECUTION_QUEUES qq " +
-					"              WHERE (qq.EXEC_STATE_ID = q.EXEC_STATE_ID) AND qq.MSG_SEQ_ID > q.MSG_SEQ_ID)) " +
+					"      (q.STATUS IN (:status)) " +
+					" GROUP BY ASSIGNED_WORKER";
+
+	final private String WORKERS_LOAD_SQL =
+			"SELECT ASSIGNED_WORKER, COUNT(*) AS LOAD_COUNT " +
+					" FROM  OO_EXECUTION_QUEUES_LATEST q  " +
+					" WHERE  " +
+					"      (q.STATUS IN (:status)) " +
 					" GROUP BY ASSIGNED_WORKER";
 
 
 	final private String INSERT_EXEC_STATE = "INSERT INTO OO_EXECUTION_STATES  (ID, MSG_ID,  PAYLOAD, CREATE_TIME) VALUES (?, ?, ?, CURRENT_TIMESTAMP)";
 
+	final private String UPDATE_EXEC_STATE = "UPDATE OO_EXECUTION_STATES SET PAYLOAD = ? WHERE ID = ?";
+
+	final private String DELETE_SUPERSEDED_QUEUES = "DELETE FROM OO_EXECUTION_QUEUES WHERE EXEC_STATE_ID = ? AND MSG_SEQ_ID < ?";
+
 	final private String INSERT_QUEUE = "INSERT INTO OO_EXECUTION_QUEUES (ID, EXEC_STATE_ID, ASSIGNED_WORKER, EXEC_GROUP, STATUS,MSG_SEQ_ID, CREATE_TIME,MSG_VERSION) VALUES (?, ?, ?, ?, ?, ?,?,?)";
 
+	// OO_EXECUTION_QUEUES_LATEST holds only the newest message (highest MSG_SEQ_ID) of every exec state,
+	// so the poll/recovery queries do not have to scan the whole history of OO_EXECUTION_QUEUES
+	final private String UPDATE_LATEST_QUEUE = "UPDATE OO_EXECUTION_QUEUES_LATEST SET ASSIGNED_WORKER = ?, EXEC_GROUP = ?, STATUS = ?, MSG_SEQ_ID = ?, CREATE_TIME = ?, MSG_VERSION = ? " +
+			" WHERE EXEC_STATE_ID = ? AND MSG_SEQ_ID < ?";
+
+	final private String INSERT_LATEST_QUEUE = "INSERT INTO OO_EXECUTION_QUEUES_LATEST (EXEC_STATE_ID, ASSIGNED_WORKER, EXEC_GROUP, STATUS, MSG_SEQ_ID, CREATE_TIME, MSG_VERSION) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	final private String SELECT_LATEST_EXEC_STATE_IDS = "SELECT EXEC_STATE_ID FROM OO_EXECUTION_QUEUES_LATEST WHERE EXEC_STATE_ID IN (:ids)";
+
+	//Databases limit the number of items in an IN clause (1000 in Oracle)
+	private static final int IN_CLAUSE_LIMIT = 500;
+
 	private static final String QUERY_PAYLOAD_BY_EXECUTION_IDS = "SELECT ID, PAYLOAD FROM OO_EXECUTION_STATES WHERE ID IN (:IDS)";
 
 
@@ -178,12 +183,14 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 	private JdbcTemplate pollJDBCTemplate;
 	private JdbcTemplate pollForRecoveryJDBCTemplate;
 	private JdbcTemplate getFinishedExecStateIdsJDBCTemplate;
+	private JdbcTemplate getFinishedExecStateIdsPageJDBCTemplate;
 	private JdbcTemplate deleteFinishedStepsJDBCTemplate;
 	private JdbcTemplate pollMessagesWithoutAckJDBCTemplate;
 	private JdbcTemplate countMessagesWithoutAckForWorkerJDBCTemplate;
 	private JdbcTemplate findPayloadByExecutionIdsJDBCTemplate;
 	private JdbcTemplate findByStatusesJDBCTemplate;
 	private JdbcTemplate getBusyWorkersTemplate;
+	private JdbcTemplate getWorkersLoadTemplate;
 
 
 	@Autowired
@@ -199,12 +206,14 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 		this.pollJDBCTemplate = new JdbcTemplate(dataSource);
 		this.pollForRecoveryJDBCTemplate = new JdbcTemplate(dataSource);
 		this.getFinishedExecStateIdsJDBCTemplate = new JdbcTemplate(dataSource);
+		this.getFinishedExecStateIdsPageJDBCTemplate = new JdbcTemplate(dataSource);
 		this.deleteFinishedStepsJDBCTemplate = new JdbcTemplate(dataSource);
 		this.pollMessagesWithoutAckJDBCTemplate = new JdbcTemplate(dataSource);
 		this.countMessagesWithoutAckForWorkerJDBCTemplate = new JdbcTemplate(dataSource);
 		this.findPayloadByExecutionIdsJDBCTemplate = new JdbcTemplate(dataSource);
 		this.findByStatusesJDBCTemplate = new JdbcTemplate(dataSource);
 		this.getBusyWorkersTemplate = new JdbcTemplate(dataSource);
+		this.getWorkersLoadTemplate = new JdbcTemplate(dataSource);
 	}
 
 	@Override
@@ -232,6 +241,42 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 		});
 	}
 
+	@Override
+	public void updateExecutionStates(final List<ExecutionMessage> advanceMessages) {
+		insertExecutionJDBCTemplate.batchUpdate(UPDATE_EXEC_STATE, new BatchPreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ExecutionMessage msg = advanceMessages.get(i);
+				ps.setBytes(1, msg.getPayload().getData());
+				ps.setLong(2, msg.getExecStateId());
+			}
+
+			@Override
+			public int getBatchSize() {
+				return advanceMessages.size();
+			}
+		});
+	}
+
+	@Override
+	public void deleteSupersededMessages(final List<ExecutionMessage> advanceMessages) {
+		insertExecutionJDBCTemplate.batchUpdate(DELETE_SUPERSEDED_QUEUES, new BatchPreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ExecutionMessage msg = advanceMessages.get(i);
+				ps.setLong(1, msg.getExecStateId());
+				ps.setInt(2, msg.getMsgSeqId());
+			}
+
+			@Override
+			public int getBatchSize() {
+				return advanceMessages.size();
+			}
+		});
+	}
+
 	@Override
 	public void insertExecutionQueue(final List<ExecutionMessage> messages, final long version) {
 		// insert execution queue table
@@ -239,11 +284,13 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 		String insertQueueSQL = INSERT_QUEUE;
 
 		long t = System.currentTimeMillis();
+		// reserve the ids of the whole batch at once instead of going to the generator per row
+		final List<Long> ids = idGen.bulk(messages.size());
 		insertExecutionJDBCTemplate.batchUpdate(insertQueueSQL, new BatchPreparedStatementSetter() {
 			@Override
 			public void setValues(PreparedStatement ps, int i) throws SQLException {
 				ExecutionMessage msg = messages.get(i);
-				ps.setLong(1, idGen.next());
+				ps.setLong(1, ids.get(i));
 				ps.setLong(2, msg.getExecStateId());
 				ps.setString(3, msg.getWorkerId());
 				ps.setString(4, msg.getWorkerGroup());
@@ -258,10 +305,96 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 				return messages.size();
 			}
 		});
+		updateLatestQueue(messages, version);
 		t = System.currentTimeMillis() - t;
 		if (logger.isDebugEnabled()) logger.debug("Insert to queue: " + messages.size() + "/" + t + " messages/ms");
 	}
 
+	// Moves the latest message of every exec state forward: rows that already exist are updated only if the new
+	// message has a higher MSG_SEQ_ID, and exec states that are not there yet are inserted
+	private void updateLatestQueue(List<ExecutionMessage> messages, final long version) {
+		Map<Long, ExecutionMessage> latestByExecStateId = new LinkedHashMap<>(messages.size());
+		for (ExecutionMessage msg : messages) {
+			ExecutionMessage current = latestByExecStateId.get(msg.getExecStateId());
+			if (current == null || current.getMsgSeqId() <= msg.getMsgSeqId()) {
+				latestByExecStateId.put(msg.getExecStateId(), msg);
+			}
+		}
+		final List<ExecutionMessage> latestMessages = new ArrayList<>(latestByExecStateId.values());
+		final long createTime = Calendar.getInstance().getTimeInMillis();
+
+		int[] updatedRows = insertExecutionJDBCTemplate.batchUpdate(UPDATE_LATEST_QUEUE, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ExecutionMessage msg = latestMessages.get(i);
+				ps.setString(1, msg.getWorkerId());
+				ps.setString(2, msg.getWorkerGroup());
+				ps.setInt(3, msg.getStatus().getNumber());
+				ps.setInt(4, msg.getMsgSeqId());
+				ps.setLong(5, createTime);
+				ps.setLong(6, version);
+				ps.setLong(7, msg.getExecStateId());
+				ps.setInt(8, msg.getMsgSeqId());
+			}
+
+			@Override
+			public int getBatchSize() {
+				return latestMessages.size();
+			}
+		});
+
+		// some drivers do not report the affected rows of a batch, so anything that was not surely updated is checked
+		List<Long> notUpdatedIds = new ArrayList<>();
+		for (int i = 0; i < latestMessages.size(); i++) {
+			if (updatedRows[i] != 1) {
+				notUpdatedIds.add(latestMessages.get(i).getExecStateId());
+			}
+		}
+		if (notUpdatedIds.isEmpty()) {
+			return;
+		}
+
+		Set<Long> existingIds = findLatestExecStateIds(notUpdatedIds);
+		final List<ExecutionMessage> newMessages = new ArrayList<>();
+		for (Long execStateId : notUpdatedIds) {
+			if (!existingIds.contains(execStateId)) {
+				newMessages.add(latestByExecStateId.get(execStateId));
+			}
+		}
+		if (newMessages.isEmpty()) {
+			return;
+		}
+
+		insertExecutionJDBCTemplate.batchUpdate(INSERT_LATEST_QUEUE, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ExecutionMessage msg = newMessages.get(i);
+				ps.setLong(1, msg.getExecStateId());
+				ps.setString(2, msg.getWorkerId());
+				ps.setString(3, msg.getWorkerGroup());
+				ps.setInt(4, msg.getStatus().getNumber());
+				ps.setInt(5, msg.getMsgSeqId());
+				ps.setLong(6, createTime);
+				ps.setLong(7, version);
+			}
+
+			@Override
+			public int getBatchSize() {
+				return newMessages.size();
+			}
+		});
+	}
+
+	private Set<Long> findLatestExecStateIds(List<Long> execStateIds) {
+		Set<Long> result = new HashSet<>();
+		for (int from = 0; from < execStateIds.size(); from += IN_CLAUSE_LIMIT) {
+			List<Long> ids = execStateIds.subList(from, Math.min(from + IN_CLAUSE_LIMIT, execStateIds.size()));
+			String sqlStat = SELECT_LATEST_EXEC_STATE_IDS.replace(":ids", StringUtils.repeat("?", ",", ids.size()));
+			result.addAll(doSelectWithTemplate(insertExecutionJDBCTemplate, sqlStat, new SingleColumnRowMapper<>(Long.class), ids.toArray()));
+		}
+		return result;
+	}
+
 	@Override
 	public List<ExecutionMessage> pollRecovery(String workerId, int maxSize, ExecStatus... statuses) {
 
@@ -334,6 +467,32 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 		if(logger.isDebugEnabled()){
 			logger.debug("Deleted " + deletedRows + " rows of finished steps from OO_EXECUTION_QUEUES table.");
 		}
+
+		query = QUERY_DELETE_FINISHED_STEPS_FROM_LATEST.replaceAll(":ids", StringUtils.repeat("?", ",", ids.size()));
+		logSQL(query,args);
+
+		deletedRows = deleteFinishedStepsJDBCTemplate.update(query, args); //MUST NOT set here maxRows!!!! It must delete all without limit!!!
+
+		if(logger.isDebugEnabled()){
+			logger.debug("Deleted " + deletedRows + " rows of finished steps from OO_EXECUTION_QUEUES_LATEST table.");
+		}
+	}
+
+	@Override
+	public long deleteFinishedSteps(long afterExecStateId, int bulkSize) {
+		getFinishedExecStateIdsPageJDBCTemplate.setMaxRows(bulkSize);
+		getFinishedExecStateIdsPageJDBCTemplate.setFetchSize(bulkSize);
+
+		List<Long> page = doSelectWithTemplate(getFinishedExecStateIdsPageJDBCTemplate, SELECT_FINISHED_STEPS_IDS_PAGE,
+				new SingleColumnRowMapper<>(Long.class), afterExecStateId);
+		if (page.isEmpty()) {
+			return -1;
+		}
+		// The page is selected once and deleted by its ids - a live state in the same id range that finishes meanwhile
+		// is left whole for the next run, and is not deleted from some of the tables only
+		deleteFinishedSteps(new HashSet<>(page));
+
+		return page.get(page.size() - 1);
 	}
 
 	@Override
@@ -453,11 +612,33 @@ public class ExecutionQueueRepositoryImpl implements ExecutionQueueRepository {
 		Object[] values = new Object[statuses.length];
 		int i=0;
 		for (ExecStatus status : statuses) {
-			values[i] = status.getNumber();
+			values[i++] = status.getNumber();
 		}
 		return doSelectWithTemplate(getBusyWorkersTemplate, sqlStat, new BusyWorkerRowMapper(), values);
 	}
 
+	@Override
+	public Map<String, Integer> getWorkersLoad(ExecStatus... statuses) {
+		// prepare the sql statement
+		String sqlStat = WORKERS_LOAD_SQL
+				.replaceAll(":status", StringUtils.repeat("?", ",", statuses.length));
+		// prepare the argument
+		Object[] values = new Object[statuses.length];
+		for (int i = 0; i < statuses.length; i++) {
+			values[i] = statuses[i].getNumber();
+		}
+		logSQL(sqlStat, values);
+
+		final Map<String, Integer> result = new HashMap<>();
+		getWorkersLoadTemplate.query(sqlStat, values, new RowCallbackHandler() {
+			@Override
+			public void processRow(ResultSet rs) throws SQLException {
+				result.put(rs.getString("ASSIGNED_WORKER"), rs.getInt("LOAD_COUNT"));
+			}
+		});
+		return result;
+	}
+
 	private class BusyWorkerRowMapper implements RowMapper<String> {
 		@Override
 		public String mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.repositories;
+
+import io.cloudslang.engine.data.IdentityGenerator;
+import io.cloudslang.engine.queue.entities.ExecStatus;
+import io.cloudslang.engine.queue.entities.ExecutionMessage;
+import io.cloudslang.engine.queue.entities.Payload;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiFunction;
+
+/**
+ * An {@link ExecutionQueueRepository} that keeps the queue in memory instead of the OO_EXECUTION_QUEUES and
+ * OO_EXECUTION_STATES tables.
+ *
+ * It is meant for a single node where the engine and the workers share the same JVM (embedded usage and tests).
+ * Only the latest message of every exec state is kept, same as OO_EXECUTION_QUEUES_LATEST.
+ * Note that the content is not part of the database transaction, so it is not rolled back and it does not survive a restart.
+ */
+public class InMemoryExecutionQueueRepository implements ExecutionQueueRepository {
+
+	private final Logger logger = Logger.getLogger(getClass());
+
+	private static final Set<ExecStatus> FINISHED_STATUSES = EnumSet.of(ExecStatus.FINISHED, ExecStatus.TERMINATED, ExecStatus.FAILED);
+
+	// exec state ids are also generated by the workers, so they must come from the same generator
+	@Autowired
+	private IdentityGenerator idGen;
+
+	// exec state id --> latest message of the exec state
+	private final ConcurrentMap<Long, QueueEntry> latestMessages = new ConcurrentHashMap<>();
+
+	// exec state id --> msg id and payload
+	private final ConcurrentMap<Long, StateEntry> executionStates = new ConcurrentHashMap<>();
+
+	// worker uuid --> exec state ids whose latest message is assigned to the worker
+	private final ConcurrentMap<String, Set<Long>> execStateIdsByWorker = new ConcurrentHashMap<>();
+
+	// exec state ids that got a FINISHED, TERMINATED or FAILED message and wait for the cleaner
+	private final NavigableSet<Long> finishedExecStateIds = new ConcurrentSkipListSet<>();
+
+	@Override
+	public long generateExecStateId() {
+		return idGen.next();
+	}
+
+	@Override
+	public void insertExecutionStates(List<ExecutionMessage> stateMessages) {
+		for (ExecutionMessage msg : stateMessages) {
+			executionStates.put(msg.getExecStateId(), new StateEntry(msg.getMsgId(), msg.getPayload().getData()));
+		}
+	}
+
+	@Override
+	public void updateExecutionStates(List<ExecutionMessage> advanceMessages) {
+		insertExecutionStates(advanceMessages);
+	}
+
+	@Override
+	public void deleteSupersededMessages(List<ExecutionMessage> advanceMessages) {
+		// only the latest message of every exec state is kept, so there is nothing superseded to delete
+	}
+
+	@Override
+	public void insertExecutionQueue(List<ExecutionMessage> messages, long version) {
+		validateUniqueness(messages);
+
+		long createTime = Calendar.getInstance().getTimeInMillis();
+		for (ExecutionMessage msg : messages) {
+			QueueEntry entry = new QueueEntry(msg.getExecStateId(), msg.getWorkerId(), msg.getWorkerGroup(),
+					msg.getStatus(), msg.getMsgSeqId(), createTime, version);
+			if (FINISHED_STATUSES.contains(entry.status)) {
+				finishedExecStateIds.add(entry.execStateId);
+			}
+			updateLatest(entry);
+		}
+		if (logger.isDebugEnabled()) logger.debug("Insert to in-memory queue: " + messages.size() + " messages");
+	}
+
+	// Same as the unique constraint on (EXEC_STATE_ID, MSG_SEQ_ID) - the whole bulk is rejected before anything is applied
+	private void validateUniqueness(List<ExecutionMessage> messages) {
+		Set<String> keys = new HashSet<>(messages.size());
+		for (ExecutionMessage msg : messages) {
+			QueueEntry current = latestMessages.get(msg.getExecStateId());
+			boolean duplicateInBulk = !keys.add(msg.getExecStateId() + "_" + msg.getMsgSeqId());
+			if (duplicateInBulk || (current != null && current.msgSeqId == msg.getMsgSeqId())) {
+				throw new DuplicateKeyException("Message with exec state id " + msg.getExecStateId() +
+						" and msg seq id " + msg.getMsgSeqId() + " already exists in the queue");
+			}
+		}
+	}
+
+	// The latest message and the worker index are changed together inside compute(), which is atomic per exec state.
+	// Otherwise two updates of the same exec state could leave the latest message out of its worker's index.
+	private void updateLatest(final QueueEntry entry) {
+		latestMessages.compute(entry.execStateId, new BiFunction<Long, QueueEntry, QueueEntry>() {
+			@Override
+			public QueueEntry apply(Long execStateId, QueueEntry current) {
+				if (current != null && current.msgSeqId > entry.msgSeqId) {
+					// an older message arrived after a newer one - keep the newer one
+					return current;
+				}
+				if (current != null && !current.workerId.equals(entry.workerId)) {
+					removeFromWorkerIndex(current.workerId, execStateId);
+				}
+				indexByWorker(entry);
+				return entry;
+			}
+		});
+	}
+
+	private void indexByWorker(QueueEntry entry) {
+		Set<Long> ids = execStateIdsByWorker.get(entry.workerId);
+		if (ids == null) {
+			Set<Long> newIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+			ids = execStateIdsByWorker.putIfAbsent(entry.workerId, newIds);
+			if (ids == null) {
+				ids = newIds;
+			}
+		}
+		ids.add(entry.execStateId);
+	}
+
+	private void removeFromWorkerIndex(String workerId, Long execStateId) {
+		Set<Long> ids = execStateIdsByWorker.get(workerId);
+		if (ids != null) {
+			ids.remove(execStateId);
+		}
+	}
+
+	@Override
+	public List<ExecutionMessage> poll(String workerId, int maxSize, ExecStatus... statuses) {
+		List<QueueEntry> entries = findWorkerEntries(workerId, statuses);
+		Collections.sort(entries, CREATE_TIME_COMPARATOR);
+		return toMessagesWithPayload(entries, maxSize);
+	}
+
+	@Override
+	public List<ExecutionMessage> pollRecovery(String workerId, int maxSize, ExecStatus... statuses) {
+		return toMessagesWithPayload(findWorkerEntries(workerId, statuses), maxSize);
+	}
+
+	private List<QueueEntry> findWorkerEntries(String workerId, ExecStatus... statuses) {
+		Set<ExecStatus> statusSet = toSet(statuses);
+		Set<Long> ids = execStateIdsByWorker.get(workerId);
+		if (ids == null) {
+			return new ArrayList<>();
+		}
+		List<QueueEntry> result = new ArrayList<>();
+		for (Long execStateId : ids) {
+			QueueEntry entry = latestMessages.get(execStateId);
+			// the message may have moved to another worker meanwhile
+			if (entry != null && entry.workerId.equals(workerId) && statusSet.contains(entry.status)) {
+				result.add(entry);
+			}
+		}
+		return result;
+	}
+
+	private List<ExecutionMessage> toMessagesWithPayload(List<QueueEntry> entries, int maxSize) {
+		List<ExecutionMessage> result = new ArrayList<>(Math.min(entries.size(), maxSize));
+		for (QueueEntry entry : entries) {
+			if (result.size() >= maxSize) {
+				break;
+			}
+			StateEntry state = executionStates.get(entry.execStateId);
+			// same as the inner join with OO_EXECUTION_STATES
+			if (state != null) {
+				result.add(new ExecutionMessage(entry.execStateId, entry.workerId, entry.workerGroup, state.msgId,
+						entry.status, new Payload(state.payload), entry.msgSeqId, entry.createTime));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public List<ExecutionMessage> pollMessagesWithoutAck(int maxSize, long minVersionAllowed) {
+		List<ExecutionMessage> result = new ArrayList<>();
+		for (QueueEntry entry : latestMessages.values()) {
+			if (result.size() >= maxSize) {
+				break;
+			}
+			if (entry.status == ExecStatus.SENT && entry.version < minVersionAllowed) {
+				result.add(toMessageWithoutPayload(entry));
+			}
+		}
+		if (result.size() > 0) {
+			logger.warn("Pool " + result.size() + " messages without ack, version = " + minVersionAllowed);
+		}
+		return result;
+	}
+
+	@Override
+	public Integer countMessagesWithoutAckForWorker(int maxSize, long minVersionAllowed, String workerUuid) {
+		int count = 0;
+		for (QueueEntry entry : findWorkerEntries(workerUuid, ExecStatus.SENT)) {
+			if (entry.version < minVersionAllowed) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public Map<Long, Payload> findPayloadByExecutionIds(Long... ids) {
+		Map<Long, Payload> result = new HashMap<>();
+		for (Long id : ids) {
+			StateEntry state = executionStates.get(id);
+			if (state != null) {
+				result.put(id, new Payload(state.payload));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void deleteFinishedSteps(Set<Long> ids) {
+		if (ids == null || ids.size() == 0)
+			return;
+
+		for (Long id : ids) {
+			executionStates.remove(id);
+			latestMessages.computeIfPresent(id, removeLatest);
+			finishedExecStateIds.remove(id);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Deleted " + ids.size() + " finished steps from the in-memory queue");
+		}
+	}
+
+	@Override
+	public long deleteFinishedSteps(long afterExecStateId, int bulkSize) {
+		Set<Long> ids = new HashSet<>();
+		long lastExecStateId = -1;
+		for (Long id : finishedExecStateIds.tailSet(afterExecStateId, false)) {
+			if (ids.size() >= bulkSize) {
+				break;
+			}
+			ids.add(id);
+			lastExecStateId = id;
+		}
+		deleteFinishedSteps(ids);
+		return lastExecStateId;
+	}
+
+	@Override
+	public Set<Long> getFinishedExecStateIds() {
+		return new HashSet<>(finishedExecStateIds);
+	}
+
+	@Override
+	public List<ExecutionMessage> findByStatuses(int maxSize, ExecStatus... statuses) {
+		Set<ExecStatus> statusSet = toSet(statuses);
+		List<ExecutionMessage> result = new ArrayList<>();
+		for (QueueEntry entry : latestMessages.values()) {
+			if (result.size() >= maxSize) {
+				break;
+			}
+			if (statusSet.contains(entry.status)) {
+				result.add(toMessageWithoutPayload(entry));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public List<String> getBusyWorkers(ExecStatus... statuses) {
+		Set<ExecStatus> statusSet = toSet(statuses);
+		Set<String> result = new LinkedHashSet<>();
+		for (QueueEntry entry : latestMessages.values()) {
+			if (statusSet.contains(entry.status)) {
+				result.add(entry.workerId);
+			}
+		}
+		return new ArrayList<>(result);
+	}
+
+	@Override
+	public Map<String, Integer> getWorkersLoad(ExecStatus... statuses) {
+		Set<ExecStatus> statusSet = toSet(statuses);
+		Map<String, Integer> result = new HashMap<>();
+		for (QueueEntry entry : latestMessages.values()) {
+			if (statusSet.contains(entry.status)) {
+				Integer load = result.get(entry.workerId);
+				result.put(entry.workerId, load == null ? 1 : load + 1);
+			}
+		}
+		return result;
+	}
+
+	private ExecutionMessage toMessageWithoutPayload(QueueEntry entry) {
+		return new ExecutionMessage(entry.execStateId, entry.workerId, entry.workerGroup, "-1",
+				entry.status, null, entry.msgSeqId, entry.createTime);
+	}
+
+	private Set<ExecStatus> toSet(ExecStatus... statuses) {
+		return statuses.length == 0 ? EnumSet.noneOf(ExecStatus.class) : EnumSet.copyOf(Arrays.asList(statuses));
+	}
+
+	// removes the latest message of an exec state together with its worker index entry
+	private final BiFunction<Long, QueueEntry, QueueEntry> removeLatest = new BiFunction<Long, QueueEntry, QueueEntry>() {
+		@Override
+		public QueueEntry apply(Long execStateId, QueueEntry current) {
+			removeFromWorkerIndex(current.workerId, execStateId);
+			return null;
+		}
+	};
+
+	private static final Comparator<QueueEntry> CREATE_TIME_COMPARATOR = new Comparator<QueueEntry>() {
+		@Override
+		public int compare(QueueEntry o1, QueueEntry o2) {
+			return Long.compare(o1.createTime, o2.createTime);
+		}
+	};
+
+	private static class QueueEntry {
+		private final long execStateId;
+		private final String workerId;
+		private final String workerGroup;
+		private final ExecStatus status;
+		private final int msgSeqId;
+		private final long createTime;
+		private final long version;
+
+		private QueueEntry(long execStateId, String workerId, String workerGroup, ExecStatus status,
+		                   int msgSeqId, long createTime, long version) {
+			this.execStateId = execStateId;
+			this.workerId = workerId;
+			this.workerGroup = workerGroup;
+			this.status = status;
+			this.msgSeqId = msgSeqId;
+			this.createTime = createTime;
+			this.version = version;
+		}
+	}
+
+	private static class StateEntry {
+		private final String msgId;
+		private final byte[] payload;
+
+		private StateEntry(String msgId, byte[] payload) {
+			this.msgId = msgId;
+			this.payload = payload;
+		}
+	}
+}
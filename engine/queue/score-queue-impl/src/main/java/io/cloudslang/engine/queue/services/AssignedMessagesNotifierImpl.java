@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.services;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps one signal per worker.
+ * A signal that arrives while nobody waits is kept until the next reset(), so it is not lost between a poll and the await.
+ */
+public class AssignedMessagesNotifierImpl implements AssignedMessagesNotifier {
+
+    private final ConcurrentMap<String, WorkerSignal> signals = new ConcurrentHashMap<>();
+
+    @Override
+    public void notifyWorkers(Collection<String> workerIds) {
+        for (String workerId : workerIds) {
+            getSignal(workerId).signal();
+        }
+    }
+
+    @Override
+    public void reset(String workerId) {
+        getSignal(workerId).reset();
+    }
+
+    @Override
+    public boolean await(String workerId, long timeoutMillis) throws InterruptedException {
+        return getSignal(workerId).await(timeoutMillis);
+    }
+
+    private WorkerSignal getSignal(String workerId) {
+        WorkerSignal signal = signals.get(workerId);
+        if (signal == null) {
+            WorkerSignal newSignal = new WorkerSignal();
+            signal = signals.putIfAbsent(workerId, newSignal);
+            if (signal == null) {
+                signal = newSignal;
+            }
+        }
+        return signal;
+    }
+
+    private static class WorkerSignal {
+        private boolean signaled;
+
+        synchronized void signal() {
+            signaled = true;
+            notifyAll();
+        }
+
+        synchronized void reset() {
+            signaled = false;
+        }
+
+        synchronized boolean await(long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining = timeoutMillis;
+            while (!signaled && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            boolean result = signaled;
+            signaled = false;
+            return result;
+        }
+    }
+}
@@ -23,22 +23,42 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BusyWorkersServiceImpl implements BusyWorkersService {
 
     private final Logger logger = Logger.getLogger(BusyWorkersServiceImpl.class);
-    private Map<String, String> busyWorkersMap = new ConcurrentHashMap<>();
+
+    // worker uuid --> mark of the last time the worker was marked busy, a poll may only remove the mark it has read
+    private final ConcurrentMap<String, Long> busyWorkersMap = new ConcurrentHashMap<>();
+    private final AtomicLong busyMarks = new AtomicLong();
 
     @Autowired
     private ExecutionQueueRepository executionQueueRepository;
 
     @Override
-    @Transactional(readOnly = true)
     public boolean isWorkerBusy(String workerId) {
-        boolean busyWorkerContained = busyWorkersMap.containsKey(workerId);
-        return busyWorkerContained;
+        return busyWorkersMap.containsKey(workerId);
+    }
+
+    @Override
+    public long getBusyMark(String workerId) {
+        Long busyMark = busyWorkersMap.get(workerId);
+        return busyMark == null ? 0 : busyMark;
+    }
+
+    @Override
+    public void markWorkerBusy(String workerId) {
+        busyWorkersMap.put(workerId, busyMarks.incrementAndGet());
+    }
+
+    @Override
+    public void markWorkerIdle(String workerId, long busyMark) {
+        if (busyWorkersMap.remove(workerId, busyMark) && logger.isDebugEnabled()) {
+            logger.debug("Worker [" + workerId + "] has no more assigned messages");
+        }
     }
 
     @Override
@@ -49,18 +69,21 @@ public class BusyWorkersServiceImpl implements BusyWorkersService {
             startTime = System.currentTimeMillis();
         }
 
+        // only adds the workers that were missed, the workers that became idle are removed by their next poll.
+        // messages that were assigned by another engine node are found only here, so this runs as often as before
         List<String> busyWorkers = executionQueueRepository.getBusyWorkers(ExecStatus.ASSIGNED);
         for (String bw : busyWorkers) {
-            this.busyWorkersMap.put(bw, bw);
+            if (!busyWorkersMap.containsKey(bw)) {
+                markWorkerBusy(bw);
+            }
         }
         if (logger.isDebugEnabled()) {
             long endTime = System.currentTimeMillis();
-            logger.debug("Queried for busy workers, the following workers are busy: " + this.busyWorkersMap + ". Query took: " + (endTime - startTime) + " ms to complete");
+            logger.debug("Queried for busy workers, the following workers are busy: " + this.busyWorkersMap.keySet() + ". Query took: " + (endTime - startTime) + " ms to complete");
         }
     }
 
     @Override
-    @Transactional(readOnly = true)
     public void clearBusyWorkers() {
         busyWorkersMap.clear();
     }
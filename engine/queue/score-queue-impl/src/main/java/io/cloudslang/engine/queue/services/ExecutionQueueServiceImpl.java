@@ -28,11 +28,15 @@ import org.apache.commons.lang.time.StopWatch;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * User:
@@ -58,6 +62,9 @@ final public class ExecutionQueueServiceImpl implements ExecutionQueueService {
 	@Autowired
 	private VersionService versionService;
 
+	@Autowired
+	private AssignedMessagesNotifier assignedMessagesNotifier;
+
 	@Override
 	@Transactional
 	public void enqueue(List<ExecutionMessage> messages) {
@@ -72,6 +79,7 @@ final public class ExecutionQueueServiceImpl implements ExecutionQueueService {
 		if (logger.isDebugEnabled()) logger.debug("Messages were assigned successfully");
 
 		final List<ExecutionMessage> stateMessages = new ArrayList<>(messages.size());
+		final List<ExecutionMessage> advanceMessages = new ArrayList<>();
 
 		// first fill the execution state id for new insert
 		for (ExecutionMessage msg : messages) {
@@ -79,6 +87,9 @@ final public class ExecutionQueueServiceImpl implements ExecutionQueueService {
 				long execStateId = executionQueueRepository.generateExecStateId();
 				msg.setExecStateId(execStateId);
 				stateMessages.add(msg);
+			} else if (msg.isAdvance()) {
+				// the exec state moves to the next step in place, so only its payload is updated
+				advanceMessages.add(msg);
 			} else if (msg.getPayload() != null && msg.getStatus() == ExecStatus.IN_PROGRESS) {
 				stateMessages.add(msg);
 			}
@@ -95,11 +106,17 @@ final public class ExecutionQueueServiceImpl implements ExecutionQueueService {
 		stopWatch.split();
 		if (stateMessages.size() > 0)
 			executionQueueRepository.insertExecutionStates(stateMessages);
+		if (advanceMessages.size() > 0) {
+			executionQueueRepository.updateExecutionStates(advanceMessages);
+			executionQueueRepository.deleteSupersededMessages(advanceMessages);
+		}
 
 		long msgVersion = versionService.getCurrentVersion(VersionService.MSG_RECOVERY_VERSION_COUNTER_NAME);
 		executionQueueRepository.insertExecutionQueue(messages, msgVersion);
 		if (logger.isDebugEnabled()) logger.debug("Persistency done in " + (stopWatch.getSplitTime()) + " ms");
 
+		notifyAssignedWorkers(messages);
+
 		if (CollectionUtils.isNotEmpty(listeners)) {
 			stopWatch.split();
 			List<ExecutionMessage> failedMessages = filter(messages, ExecStatus.FAILED);
@@ -122,6 +139,37 @@ final public class ExecutionQueueServiceImpl implements ExecutionQueueService {
 		if (logger.isDebugEnabled()) logger.debug("Enqueue done in " + (stopWatch.getTime()) + " ms");
 	}
 
+	// wakes up the workers that wait in a long poll, only after the commit so they can see the new messages
+	private void notifyAssignedWorkers(List<ExecutionMessage> messages) {
+		final Set<String> workerIds = new HashSet<>();
+		for (ExecutionMessage msg : messages) {
+			if (msg.getStatus() == ExecStatus.ASSIGNED) {
+				workerIds.add(msg.getWorkerId());
+			}
+		}
+		if (workerIds.isEmpty()) {
+			return;
+		}
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					signalWorkers(workerIds);
+				}
+			});
+		} else {
+			signalWorkers(workerIds);
+		}
+	}
+
+	private void signalWorkers(Set<String> workerIds) {
+		for (String workerId : workerIds) {
+			busyWorkersService.markWorkerBusy(workerId);
+		}
+		assignedMessagesNotifier.notifyWorkers(workerIds);
+	}
+
 	private List<ExecutionMessage> filter(List<ExecutionMessage> messages, ExecStatus status) {
 		List<ExecutionMessage> result = new ArrayList<>();
 		for (ExecutionMessage msg : messages) {
@@ -147,8 +195,14 @@ final public class ExecutionQueueServiceImpl implements ExecutionQueueService {
 	public List<ExecutionMessage> poll(String workerId, int maxSize, ExecStatus... statuses) {
 		List<ExecutionMessage> result = new ArrayList<>();
 		//check if the worker has work before actually polling for work
-		if(busyWorkersService.isWorkerBusy(workerId))
+		long busyMark = busyWorkersService.getBusyMark(workerId);
+		if (busyMark != 0) {
 			result = executionQueueRepository.poll(workerId, maxSize, statuses);
+			// a partial result means nothing more is assigned, unless messages were assigned since the mark was read
+			if (result.size() < maxSize && ArrayUtils.contains(statuses, ExecStatus.ASSIGNED)) {
+				busyWorkersService.markWorkerIdle(workerId, busyMark);
+			}
+		}
 
 		for (QueueListener listener : listeners) {
 			listener.onPoll(result, result.size());
@@ -38,9 +38,14 @@ import java.util.List;
 public final class QueueDispatcherServiceImpl implements QueueDispatcherService {
 	private final Logger logger = Logger.getLogger(getClass());
 
+	private static final long RECHECK_INTERVAL_MILLIS = 200;
+
 	@Autowired
 	private ExecutionQueueService execQueue;
 
+	@Autowired
+	private AssignedMessagesNotifier assignedMessagesNotifier;
+
 	@Transactional
 	@Override
 	public void dispatch(List<ExecutionMessage> messages) {
@@ -57,6 +62,34 @@ public final class QueueDispatcherServiceImpl implements QueueDispatcherService
 	@Transactional
 	@Override
 	public List<ExecutionMessage> poll(String workerId, int maxSize) {
+		return pollAssignedMessages(workerId, maxSize);
+	}
+
+	// Not transactional on purpose - the worker is parked between the polls and must not hold a DB connection meanwhile.
+	// Each poll is still transactional through the ExecutionQueueService, and the unique constraint prevents duplications.
+	@Override
+	public List<ExecutionMessage> poll(String workerId, int maxSize, long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (true) {
+			// reset before polling, so messages that are assigned during the poll will wake us up right away
+			assignedMessagesNotifier.reset(workerId);
+			List<ExecutionMessage> result = pollAssignedMessages(workerId, maxSize);
+
+			long remaining = deadline - System.currentTimeMillis();
+			if (!result.isEmpty() || remaining <= 0) {
+				return result;
+			}
+			try {
+				// messages that were assigned by another engine node are not signaled here, so wake up once in a while
+				assignedMessagesNotifier.await(workerId, Math.min(remaining, RECHECK_INTERVAL_MILLIS));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return result;
+			}
+		}
+	}
+
+	private List<ExecutionMessage> pollAssignedMessages(String workerId, int maxSize) {
 		try {
 			if (logger.isDebugEnabled()) logger.debug("Polling messages for worker [" + workerId + "], max size " + maxSize);
 			// poll assigned messages to workerID
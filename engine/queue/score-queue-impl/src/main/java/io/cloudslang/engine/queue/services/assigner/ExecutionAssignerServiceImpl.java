@@ -17,11 +17,13 @@
 package io.cloudslang.engine.queue.services.assigner;
 
 import com.google.common.collect.Multimap;
+import io.cloudslang.engine.node.services.WorkerAvailabilityListener;
 import io.cloudslang.engine.node.services.WorkerNodeService;
 import io.cloudslang.engine.queue.entities.ExecStatus;
 import io.cloudslang.engine.queue.entities.ExecutionMessage;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.entities.Payload;
+import io.cloudslang.engine.queue.repositories.ExecutionQueueRepository;
 import io.cloudslang.engine.queue.services.ExecutionQueueService;
 import io.cloudslang.orchestrator.services.EngineVersionService;
 import io.cloudslang.score.facade.entities.Execution;
@@ -31,19 +33,30 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by IntelliJ IDEA.
  * User:
  * Date: 19/11/12
  */
-final public class ExecutionAssignerServiceImpl implements ExecutionAssignerService {
+final public class ExecutionAssignerServiceImpl implements ExecutionAssignerService, WorkerAvailabilityListener {
 
 	private Logger logger = Logger.getLogger(getClass());
 
+	// messages in these statuses are waiting for their worker or running on it
+	private static final ExecStatus[] WORKER_LOAD_STATUSES = {ExecStatus.ASSIGNED, ExecStatus.SENT, ExecStatus.IN_PROGRESS};
+
+	// same as the scheduled refresh, an assignment does not refresh a topology that is newer than this
+	private static final long TOPOLOGY_REFRESH_INTERVAL = Long.getLong("queue.assigner.topology.refresh.interval", 1000L);
+
 	@Autowired
 	private ExecutionQueueService executionQueueService;
 
+	@Autowired
+	private ExecutionQueueRepository executionQueueRepository;
+
 	@Autowired
 	private WorkerNodeService workerNodeService;
 
@@ -53,6 +66,9 @@ final public class ExecutionAssignerServiceImpl implements ExecutionAssignerServ
     @Autowired
     private EngineVersionService engineVersionService;
 
+	// refreshed by a scheduled job, or when a group has no known workers
+	private volatile WorkersTopology workersTopology;
+
 
 	private void addErrorMessage(ExecutionMessage message) {
         String group = message.getWorkerGroup();
@@ -64,18 +80,28 @@ final public class ExecutionAssignerServiceImpl implements ExecutionAssignerServ
 	}
 
 
-	private void fillPayload(ExecutionMessage msg) {
-		if (msg.getPayload() == null){
-			Map<Long, Payload> payloadMap = executionQueueService.readPayloadByExecutionIds(msg.getExecStateId());
-			Payload payload = payloadMap.get(msg.getExecStateId());
-			msg.setPayload(payload);
+	private void fillPayloads(List<ExecutionMessage> messages) {
+		List<Long> execStateIds = new ArrayList<>(messages.size());
+		for (ExecutionMessage msg : messages) {
+			if (msg.getPayload() == null) {
+				execStateIds.add(msg.getExecStateId());
+			}
+		}
+		if (execStateIds.isEmpty()) {
+			return;
+		}
+		Map<Long, Payload> payloadMap = executionQueueService.readPayloadByExecutionIds(execStateIds.toArray(new Long[execStateIds.size()]));
+		for (ExecutionMessage msg : messages) {
+			if (msg.getPayload() == null) {
+				msg.setPayload(payloadMap.get(msg.getExecStateId()));
+			}
 		}
 	}
 
-    private String chooseWorker(String groupName, Multimap<String, String> groupWorkersMap,Random randIntGenerator) {
-		Collection<String> workerNames = groupWorkersMap.get(groupName);
+    private String chooseWorker(String groupName, WorkersTopology topology) {
+		String[] workers = topology.getWorkers(groupName);
 
-		if (workerNames == null || workerNames.size() == 0) {
+		if (workers == null) {
 			// this returns a worker UUID in case of the group defined on specific worker (private group)
 			if (groupName.startsWith("Worker_")) {
 				return groupName.substring("Worker_".length());
@@ -84,15 +110,34 @@ final public class ExecutionAssignerServiceImpl implements ExecutionAssignerServ
 			}
 		}
 
-		Object[] workerArr = workerNames.toArray();
+		return topology.chooseLeastLoaded(workers);
+	}
 
-		// we assign the worker using random algorithm
-		int groupIndex = randIntGenerator.nextInt(workerArr.length);
-		groupIndex = groupIndex % workerArr.length;
+    @Override
+    @Transactional(readOnly = true)
+    public void refreshWorkersTopology() {
+        loadWorkersTopology();
+    }
 
-		return (String) workerArr[groupIndex];
-	}
+    @Override
+    public void onWorkerUnavailable(String workerUuid) {
+        // do not assign to the worker until the next refresh, which will not find it anymore
+        WorkersTopology topology = workersTopology;
+        if (topology != null && topology.contains(workerUuid)) {
+            workersTopology = topology.withoutWorker(workerUuid);
+        }
+    }
 
+    // called also inside the transaction of assignWorkers, so it is not transactional by itself
+    private void loadWorkersTopology() {
+        long t = System.currentTimeMillis();
+        String engineVersionId = engineVersionService.getEngineVersionId();
+        //We allow to assign to workers who's version is equal to the engine version
+        Multimap<String, String> groupWorkersMap = workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionId);
+        Map<String, Integer> workersLoad = executionQueueRepository.getWorkersLoad(WORKER_LOAD_STATUSES);
+        workersTopology = new WorkersTopology(groupWorkersMap, workersLoad);
+        if (logger.isDebugEnabled()) logger.debug("Workers topology refreshed in " + (System.currentTimeMillis() - t) + " ms, workers load: " + workersLoad);
+    }
 
     @Override
     @Transactional
@@ -103,54 +148,151 @@ final public class ExecutionAssignerServiceImpl implements ExecutionAssignerServ
             return messages;
 
         }
-        List<ExecutionMessage> assignMessages = new ArrayList<>(messages.size());
-        Multimap<String, String> groupWorkersMap  = null;
-        Random randIntGenerator = new Random(System.currentTimeMillis());
+        WorkersTopology topology = null;
+        boolean topologyRefreshed = false;
+        List<ExecutionMessage> noWorkerMessages = new ArrayList<>();
 
         for (ExecutionMessage msg : messages) {
 
             if ( msg.getWorkerId().equals(ExecutionMessage.EMPTY_WORKER) && msg.getStatus() == ExecStatus.PENDING) {
-                if (groupWorkersMap == null) {
-                    String engineVersionId = engineVersionService.getEngineVersionId();
-                    //We allow to assign to workers who's version is equal to the engine version
-                    groupWorkersMap = workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionId);
+                if (topology == null) {
+                    topology = workersTopology;
+                    if (topology == null) {
+                        loadWorkersTopology();
+                        topology = workersTopology;
+                        topologyRefreshed = true;
+                    }
+                }
+                String workerId = chooseWorker(msg.getWorkerGroup(), topology);
+                if (workerId == null && !topologyRefreshed && topology.isOlderThan(TOPOLOGY_REFRESH_INTERVAL)) {
+                    // the workers of the group may have joined after the last refresh, so check once more before failing.
+                    // a group without workers would refresh on every enqueue otherwise
+                    loadWorkersTopology();
+                    topology = workersTopology;
+                    topologyRefreshed = true;
+                    workerId = chooseWorker(msg.getWorkerGroup(), topology);
                 }
-                String workerId = chooseWorker(msg.getWorkerGroup(), groupWorkersMap,randIntGenerator);
                 if (workerId == null) {
                     // error on assigning worker, no available worker
                     logger.warn("Can't assign worker for group name: " + msg.getWorkerGroup() + " , because there are no available workers for that group.");
-
-                    //We need to extract the payload in case of FAILED
-                    fillPayload(msg);
-
-                    // send step finish event
-                    ExecutionMessage stepFinishMessage = (ExecutionMessage) msg.clone();
-                    stepFinishMessage.setStatus(ExecStatus.FINISHED);
-                    stepFinishMessage.incMsgSeqId();
-                    assignMessages.add(stepFinishMessage);
-
-                    // send step finish event
-                    ExecutionMessage flowFailedMessage = (ExecutionMessage) stepFinishMessage.clone();
-                    flowFailedMessage.setStatus(ExecStatus.FAILED);
-                    addErrorMessage(flowFailedMessage);
-                    flowFailedMessage.incMsgSeqId();
-                    assignMessages.add(flowFailedMessage);
+                    noWorkerMessages.add(msg);
                 } else {
                     // assign worker
-                    assignMessages.add(msg);
                     msg.setStatus(ExecStatus.ASSIGNED);
                     msg.incMsgSeqId();
                     msg.setWorkerId(workerId);
                 }
             }
-            else {
-                // msg that was already assigned or non pending status
+        } // end for
+
+        if (noWorkerMessages.isEmpty()) {
+            if (logger.isDebugEnabled()) logger.debug("Assigner iteration finished");
+            return messages;
+        }
+
+        //We need to extract the payloads in case of FAILED, all of them are read in one query
+        fillPayloads(noWorkerMessages);
+        Set<ExecutionMessage> failedMessages = Collections.newSetFromMap(new IdentityHashMap<ExecutionMessage, Boolean>());
+        failedMessages.addAll(noWorkerMessages);
+
+        List<ExecutionMessage> assignMessages = new ArrayList<>(messages.size() + noWorkerMessages.size());
+        for (ExecutionMessage msg : messages) {
+            if (failedMessages.contains(msg)) {
+                // send step finish event
+                ExecutionMessage stepFinishMessage = (ExecutionMessage) msg.clone();
+                stepFinishMessage.setStatus(ExecStatus.FINISHED);
+                stepFinishMessage.incMsgSeqId();
+                assignMessages.add(stepFinishMessage);
+
+                // send step finish event
+                ExecutionMessage flowFailedMessage = (ExecutionMessage) stepFinishMessage.clone();
+                flowFailedMessage.setStatus(ExecStatus.FAILED);
+                addErrorMessage(flowFailedMessage);
+                flowFailedMessage.incMsgSeqId();
+                assignMessages.add(flowFailedMessage);
+            } else {
+                // assigned msg, msg that was already assigned or non pending status
                 assignMessages.add(msg);
             }
-        } // end for
+        }
 
         if (logger.isDebugEnabled()) logger.debug("Assigner iteration finished");
         return assignMessages;
     }
 
+	/**
+	 * Snapshot of the active workers of every group and of the number of messages every worker has.
+	 * The loads start from what was in the queue when the snapshot was taken and grow with every message
+	 * that is assigned until the next refresh.
+	 */
+	private static class WorkersTopology {
+
+		private final Map<String, String[]> groupWorkers = new HashMap<>();
+
+		private final Map<String, AtomicInteger> workersLoad = new HashMap<>();
+
+		private final long loadTime;
+
+		WorkersTopology(Multimap<String, String> groupWorkersMap, Map<String, Integer> reportedLoad) {
+			loadTime = System.currentTimeMillis();
+			for (String group : groupWorkersMap.keySet()) {
+				Collection<String> workers = groupWorkersMap.get(group);
+				groupWorkers.put(group, workers.toArray(new String[workers.size()]));
+				for (String worker : workers) {
+					if (!workersLoad.containsKey(worker)) {
+						Integer load = reportedLoad.get(worker);
+						workersLoad.put(worker, new AtomicInteger(load == null ? 0 : load));
+					}
+				}
+			}
+		}
+
+		// a copy without the worker, the loads of the other workers are shared with this snapshot
+		private WorkersTopology(WorkersTopology topology, String removedWorker) {
+			loadTime = topology.loadTime;
+			workersLoad.putAll(topology.workersLoad);
+			workersLoad.remove(removedWorker);
+			for (Map.Entry<String, String[]> entry : topology.groupWorkers.entrySet()) {
+				List<String> workers = new ArrayList<>(Arrays.asList(entry.getValue()));
+				workers.remove(removedWorker);
+				if (!workers.isEmpty()) {
+					groupWorkers.put(entry.getKey(), workers.toArray(new String[workers.size()]));
+				}
+			}
+		}
+
+		WorkersTopology withoutWorker(String worker) {
+			return new WorkersTopology(this, worker);
+		}
+
+		boolean contains(String worker) {
+			return workersLoad.containsKey(worker);
+		}
+
+		boolean isOlderThan(long millis) {
+			return System.currentTimeMillis() - loadTime >= millis;
+		}
+
+		String[] getWorkers(String group) {
+			return groupWorkers.get(group);
+		}
+
+		// power of two choices - the less loaded of two random workers, which spreads the load
+		// almost as well as the least loaded worker without scanning the whole group
+		String chooseLeastLoaded(String[] workers) {
+			String worker = workers[0];
+			if (workers.length > 1) {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				int first = random.nextInt(workers.length);
+				int second = random.nextInt(workers.length - 1);
+				if (second >= first) {
+					second++;
+				}
+				worker = workersLoad.get(workers[second]).get() < workersLoad.get(workers[first]).get() ? workers[second] : workers[first];
+			}
+			workersLoad.get(worker).incrementAndGet();
+			return worker;
+		}
+	}
+
 }
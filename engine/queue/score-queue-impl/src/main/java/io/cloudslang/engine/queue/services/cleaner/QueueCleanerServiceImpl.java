@@ -29,8 +29,6 @@ import java.util.Set;
  */
 final public class QueueCleanerServiceImpl  implements QueueCleanerService {
 
-    final private int BULK_SIZE = 500;
-
     @Autowired
    	private ExecutionQueueRepository executionQueueRepository;
 
@@ -46,4 +44,10 @@ final public class QueueCleanerServiceImpl  implements QueueCleanerService {
         executionQueueRepository.deleteFinishedSteps(ids);
     }
 
+    @Override
+    @Transactional
+    public long cleanFinishedSteps(long afterExecStateId, int bulkSize) {
+        return executionQueueRepository.deleteFinishedSteps(afterExecStateId, bulkSize);
+    }
+
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.services.recovery;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+@ManagedResource(description = "Execution Recovery Statistics")
+public class ExecutionRecoveryMBean {
+
+    @Autowired
+    private ExecutionRecoveryService executionRecoveryService;
+
+    @ManagedAttribute(description = "Duration in ms of the last recovery run")
+    public long getLastRecoveryDuration() {
+        return executionRecoveryService.getLastRecoveryDuration();
+    }
+
+    @ManagedAttribute(description = "Duration in ms of the workers recovery in the last recovery run")
+    public long getLastWorkersRecoveryDuration() {
+        return executionRecoveryService.getLastWorkersRecoveryDuration();
+    }
+
+    @ManagedAttribute(description = "Number of workers whose recovery failed in the last recovery run")
+    public int getLastFailedWorkersCount() {
+        return executionRecoveryService.getLastFailedWorkersCount();
+    }
+
+    @ManagedAttribute(description = "Number of recovered messages reassigned in the last recovery run")
+    public int getLastRecoveredMessagesCount() {
+        return executionRecoveryService.getLastRecoveredMessagesCount();
+    }
+
+    @ManagedAttribute(description = "Number of recovered messages reassigned since start up")
+    public long getTotalRecoveredMessagesCount() {
+        return executionRecoveryService.getTotalRecoveredMessagesCount();
+    }
+}
@@ -25,8 +25,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * User:
@@ -38,6 +47,10 @@ final public class ExecutionRecoveryServiceImpl implements ExecutionRecoveryServ
 
     static final int DEFAULT_POLL_SIZE = 1000;
 
+    // Workers are recovered in parallel, each one in its own transaction under its own worker lock,
+    // so the number of threads is also the number of connections (twice that, with the message bulks) recovery may hold
+    static final int RECOVERY_THREADS = Integer.getInteger("execution.recovery.threads", 4);
+
     @Autowired
     private WorkerNodeService workerNodeService;
 
@@ -50,14 +63,43 @@ final public class ExecutionRecoveryServiceImpl implements ExecutionRecoveryServ
     @Autowired
     private MessageRecoveryService messageRecoveryService;
 
+    private ExecutorService recoveryExecutor;
+
+    private volatile long lastRecoveryDuration;
+    private volatile long lastWorkersRecoveryDuration;
+    private volatile int lastFailedWorkersCount;
+    private volatile int lastRecoveredMessagesCount;
+    private final AtomicLong totalRecoveredMessagesCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        recoveryExecutor = Executors.newFixedThreadPool(Math.max(RECOVERY_THREADS, 1), new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "execution-recovery-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        recoveryExecutor.shutdownNow();
+    }
+
     @Override
     @Transactional(propagation = Propagation.NEVER)
     public void doRecovery() {
         if (logger.isDebugEnabled()) {
             logger.debug("Begin recovery");
         }
+        long time = System.currentTimeMillis();
         recoverWorkers();
         assignRecoveredMessages();
+        lastRecoveryDuration = System.currentTimeMillis() - time;
 
         if (logger.isDebugEnabled()) {
             logger.debug("End recovery");
@@ -71,26 +113,79 @@ final public class ExecutionRecoveryServiceImpl implements ExecutionRecoveryServ
         long time = System.currentTimeMillis();
         // Recovery for all workers
         List<String> workersUuids = workerNodeService.readAllWorkersUuids();
+        // read once for all the workers, and not again by each recovery under its worker lock
+        final List<String> nonRespondingWorkers = workerNodeService.readNonRespondingWorkers();
 
-        for (String workerUuid : workersUuids) {
-            try {
-                workerRecoveryService.doWorkerAndMessageRecovery(workerUuid);
-            } catch (Exception ex) {
-                logger.error("Failed to recover worker [" + workerUuid + "]", ex);
-            }
+        final AtomicInteger failedWorkers = new AtomicInteger();
+        List<Callable<Void>> recoveries = new ArrayList<>(workersUuids.size());
+        for (final String workerUuid : workersUuids) {
+            recoveries.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    try {
+                        workerRecoveryService.doWorkerAndMessageRecovery(workerUuid, nonRespondingWorkers);
+                    } catch (Exception ex) {
+                        failedWorkers.incrementAndGet();
+                        logger.error("Failed to recover worker [" + workerUuid + "]", ex);
+                    }
+                    return null;
+                }
+            });
         }
-        if (logger.isDebugEnabled()) logger.debug("Workers recovery is done in " + (System.currentTimeMillis() - time) + " ms");
+        try {
+            recoveryExecutor.invokeAll(recoveries);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            logger.warn("Workers recovery was interrupted");
+        }
+        lastFailedWorkersCount = failedWorkers.get();
+        lastWorkersRecoveryDuration = System.currentTimeMillis() - time;
+        if (logger.isDebugEnabled()) logger.debug("Workers recovery is done in " + lastWorkersRecoveryDuration + " ms");
     }
 
     protected void assignRecoveredMessages() {
         if (logger.isDebugEnabled()) logger.debug("Reassigning recovered messages is being started");
         long time = System.currentTimeMillis();
+        int recoveredMessages = 0;
         final AtomicBoolean shouldContinue = new AtomicBoolean(true);
         while (shouldContinue.get()) {
                     List<ExecutionMessage> messages = executionQueueService.readMessagesByStatus(DEFAULT_POLL_SIZE, ExecStatus.RECOVERED);
                     messageRecoveryService.enqueueMessages(messages, ExecStatus.PENDING);
+                    if (messages != null) {
+                        recoveredMessages += messages.size();
+                    }
                     shouldContinue.set(messages != null && messages.size() == DEFAULT_POLL_SIZE);
         }
+        lastRecoveredMessagesCount = recoveredMessages;
+        totalRecoveredMessagesCount.addAndGet(recoveredMessages);
+        if (recoveredMessages > 0) {
+            logger.warn(recoveredMessages + " recovered messages were reassigned");
+        }
         if (logger.isDebugEnabled()) logger.debug("Reassigning recovered messages is done in " + (System.currentTimeMillis() - time) + " ms");
     }
+
+    @Override
+    public long getLastRecoveryDuration() {
+        return lastRecoveryDuration;
+    }
+
+    @Override
+    public long getLastWorkersRecoveryDuration() {
+        return lastWorkersRecoveryDuration;
+    }
+
+    @Override
+    public int getLastFailedWorkersCount() {
+        return lastFailedWorkersCount;
+    }
+
+    @Override
+    public int getLastRecoveredMessagesCount() {
+        return lastRecoveredMessagesCount;
+    }
+
+    @Override
+    public long getTotalRecoveredMessagesCount() {
+        return totalRecoveredMessagesCount.get();
+    }
 }
@@ -64,11 +64,16 @@ public class WorkerRecoveryServiceImpl implements WorkerRecoveryService, LoginLi
     @Override
     @Transactional
     public void doWorkerAndMessageRecovery(final String workerUuid) {
+        doWorkerAndMessageRecovery(workerUuid, workerNodeService.readNonRespondingWorkers());
+    }
+
+    @Override
+    @Transactional
+    public void doWorkerAndMessageRecovery(final String workerUuid, List<String> workerUuids) {
 
         //lock this worker to synchronize with drain action
         workerLockService.lock(workerUuid);
 
-        List<String> workerUuids = workerNodeService.readNonRespondingWorkers();
         int messagesCount = getMessagesWithoutAck(DEFAULT_POLL_SIZE, workerUuid);
         WorkerNode worker = workerNodeService.findByUuid(workerUuid);
         if (worker.getStatus().equals(WorkerStatus.IN_RECOVERY) || workerUuids.contains(workerUuid) || messagesCount > 0) {
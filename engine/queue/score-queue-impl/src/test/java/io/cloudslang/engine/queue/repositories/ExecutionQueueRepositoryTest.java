@@ -31,6 +31,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
 import org.springframework.test.context.ContextConfiguration;
@@ -42,6 +43,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.sql.DataSource;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -59,6 +61,9 @@ public class ExecutionQueueRepositoryTest {
     @Autowired
     private ExecutionQueueRepository executionQueueRepository;
 
+    @Autowired
+    private DataSource dataSource;
+
 
     @Test
     public void testInsert(){
@@ -221,6 +226,45 @@ public class ExecutionQueueRepositoryTest {
         Assert.assertFalse(result.isEmpty());
     }
 
+    @Test
+    public void testPollReturnsOnlyLatestMessage(){
+        List<ExecutionMessage> msg = new ArrayList<>();
+        ExecutionMessage execMsg = generateMessage(1, "group1", "msg1", 1);
+        execMsg.setWorkerId("worker1");
+        execMsg.setStatus(ExecStatus.ASSIGNED);
+        msg.add(execMsg);
+        executionQueueRepository.insertExecutionStates(msg);
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+        Assert.assertEquals(1, executionQueueRepository.poll("worker1", 10, ExecStatus.ASSIGNED).size());
+
+        ExecutionMessage sentMsg = generateMessage(1, "group1", "msg1", 2);
+        sentMsg.setWorkerId("worker1");
+        msg.clear();
+        msg.add(sentMsg);
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+
+        Assert.assertTrue(executionQueueRepository.poll("worker1", 10, ExecStatus.ASSIGNED).isEmpty());
+        Assert.assertEquals(1, executionQueueRepository.poll("worker1", 10, ExecStatus.SENT).size());
+    }
+
+    @Test
+    public void testOlderMessageDoesNotOverrideLatest(){
+        List<ExecutionMessage> msg = new ArrayList<>();
+        msg.add(generateMessageForWorker(1, "group1", "msg1", "worker1", 2));
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+
+        msg.clear();
+        ExecutionMessage olderMsg = generateMessageForWorker(1, "group1", "msg1", "worker1", 1);
+        olderMsg.setStatus(ExecStatus.ASSIGNED);
+        msg.add(olderMsg);
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+
+        List<ExecutionMessage> result = executionQueueRepository.findByStatuses(10, ExecStatus.SENT, ExecStatus.ASSIGNED);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(ExecStatus.SENT, result.get(0).getStatus());
+        Assert.assertEquals(2, result.get(0).getMsgSeqId());
+    }
+
     @Test
     public void testGetBusyWorkersBusyWorker(){
         List<ExecutionMessage> msg = new ArrayList<>();
@@ -235,6 +279,58 @@ public class ExecutionQueueRepositoryTest {
         Assert.assertNotNull(busyWorkers);
     }
 
+    @Test
+    public void testUpdateExecutionStatesReplacesPayload(){
+        List<ExecutionMessage> msg = new ArrayList<>();
+        ExecutionMessage execMsg = generateMessage(1, "group1", "msg1", 1);
+        execMsg.setWorkerId("worker1");
+        execMsg.setStatus(ExecStatus.IN_PROGRESS);
+        msg.add(execMsg);
+        executionQueueRepository.insertExecutionStates(msg);
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+
+        ExecutionMessage advanceMsg = generateMessage(1, "group1", "msg1", 2);
+        advanceMsg.setWorkerId("worker1");
+        advanceMsg.setStatus(ExecStatus.IN_PROGRESS);
+        advanceMsg.setAdvance(true);
+        advanceMsg.setPayload(new Payload("next step".getBytes()));
+        msg.clear();
+        msg.add(advanceMsg);
+        executionQueueRepository.updateExecutionStates(msg);
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+
+        List<ExecutionMessage> result = executionQueueRepository.poll("worker1", 10, ExecStatus.IN_PROGRESS);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(2, result.get(0).getMsgSeqId());
+        Assert.assertEquals("next step", new String(result.get(0).getPayload().getData()));
+    }
+
+    @Test
+    public void testDeleteSupersededMessages(){
+        List<ExecutionMessage> msg = new ArrayList<>();
+        ExecutionMessage execMsg = generateMessage(1, "group1", "msg1", 1);
+        execMsg.setWorkerId("worker1");
+        execMsg.setStatus(ExecStatus.IN_PROGRESS);
+        msg.add(execMsg);
+        msg.add(generateMessage(2, "group1", "msg2", 1));
+        executionQueueRepository.insertExecutionStates(msg);
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+
+        ExecutionMessage advanceMsg = generateMessage(1, "group1", "msg1", 2);
+        advanceMsg.setWorkerId("worker1");
+        advanceMsg.setStatus(ExecStatus.IN_PROGRESS);
+        advanceMsg.setAdvance(true);
+        msg.clear();
+        msg.add(advanceMsg);
+        executionQueueRepository.updateExecutionStates(msg);
+        executionQueueRepository.deleteSupersededMessages(msg);
+        executionQueueRepository.insertExecutionQueue(msg, 1L);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Assert.assertEquals(Collections.singletonList(2), jdbcTemplate.queryForList("SELECT MSG_SEQ_ID FROM OO_EXECUTION_QUEUES WHERE EXEC_STATE_ID = 1", Integer.class));
+        Assert.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM OO_EXECUTION_QUEUES WHERE EXEC_STATE_ID = 2", Integer.class).intValue());
+    }
+
     private ExecutionMessage generateMessage(String groupName,String msgId, int msg_seq_id) {
         byte[] payloadData;
         payloadData = "This is just a test".getBytes();
@@ -305,8 +401,12 @@ public class ExecutionQueueRepositoryTest {
                 }
 
                 @Override
-                public List<Long> bulk(int bulkSize) {
-                    return null;
+                public synchronized List<Long> bulk(int bulkSize) {
+                    List<Long> ids = new ArrayList<>(bulkSize);
+                    for (int i = 0; i < bulkSize; i++) {
+                        ids.add(id++);
+                    }
+                    return ids;
                 }
             };
         }
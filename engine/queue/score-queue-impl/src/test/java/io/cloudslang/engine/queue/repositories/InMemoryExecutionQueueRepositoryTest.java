@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.repositories;
+
+import io.cloudslang.engine.data.IdentityGenerator;
+import io.cloudslang.engine.queue.entities.ExecStatus;
+import io.cloudslang.engine.queue.entities.ExecutionMessage;
+import io.cloudslang.engine.queue.entities.Payload;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+public class InMemoryExecutionQueueRepositoryTest {
+
+    @InjectMocks
+    private InMemoryExecutionQueueRepository executionQueueRepository = new InMemoryExecutionQueueRepository();
+
+    @Mock
+    private IdentityGenerator idGen;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testGenerateExecStateIdUsesIdentityGenerator() {
+        when(idGen.next()).thenReturn(123L);
+        Assert.assertEquals(123L, executionQueueRepository.generateExecStateId());
+    }
+
+    @Test
+    public void testPollReturnsLatestMessageWithPayload() {
+        ExecutionMessage msg = generateMessage(1L, "worker1", ExecStatus.ASSIGNED, 1);
+        executionQueueRepository.insertExecutionStates(Collections.singletonList(msg));
+        executionQueueRepository.insertExecutionQueue(Collections.singletonList(msg), 1L);
+
+        List<ExecutionMessage> result = executionQueueRepository.poll("worker1", 10, ExecStatus.ASSIGNED);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals("msg1", result.get(0).getMsgId());
+        Assert.assertArrayEquals(msg.getPayload().getData(), result.get(0).getPayload().getData());
+
+        executionQueueRepository.insertExecutionQueue(Collections.singletonList(generateMessage(1L, "worker1", ExecStatus.SENT, 2)), 1L);
+        Assert.assertTrue(executionQueueRepository.poll("worker1", 10, ExecStatus.ASSIGNED).isEmpty());
+        Assert.assertEquals(1, executionQueueRepository.poll("worker1", 10, ExecStatus.SENT).size());
+        Assert.assertTrue(executionQueueRepository.poll("worker2", 10, ExecStatus.SENT).isEmpty());
+    }
+
+    @Test
+    public void testPollRespectsMaxSize() {
+        List<ExecutionMessage> messages = Arrays.asList(
+                generateMessage(1L, "worker1", ExecStatus.ASSIGNED, 1),
+                generateMessage(2L, "worker1", ExecStatus.ASSIGNED, 1),
+                generateMessage(3L, "worker1", ExecStatus.ASSIGNED, 1));
+        executionQueueRepository.insertExecutionStates(messages);
+        executionQueueRepository.insertExecutionQueue(messages, 1L);
+
+        Assert.assertEquals(2, executionQueueRepository.poll("worker1", 2, ExecStatus.ASSIGNED).size());
+        Assert.assertEquals(3, executionQueueRepository.pollRecovery("worker1", 10, ExecStatus.ASSIGNED).size());
+    }
+
+    @Test
+    public void testOlderMessageDoesNotOverrideLatest() {
+        executionQueueRepository.insertExecutionQueue(Collections.singletonList(generateMessage(1L, "worker1", ExecStatus.SENT, 2)), 1L);
+        executionQueueRepository.insertExecutionQueue(Collections.singletonList(generateMessage(1L, "worker1", ExecStatus.ASSIGNED, 1)), 1L);
+
+        List<ExecutionMessage> result = executionQueueRepository.findByStatuses(10, ExecStatus.SENT, ExecStatus.ASSIGNED);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(ExecStatus.SENT, result.get(0).getStatus());
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void testInsertFailureDueToUniqueConstraint() {
+        executionQueueRepository.insertExecutionQueue(Arrays.asList(
+                generateMessage(1L, "worker1", ExecStatus.SENT, 1),
+                generateMessage(1L, "worker1", ExecStatus.SENT, 1)), 1L);
+    }
+
+    @Test
+    public void testMessagesWithoutAck() {
+        executionQueueRepository.insertExecutionQueue(Collections.singletonList(generateMessage(1L, "worker1", ExecStatus.SENT, 1)), 1L);
+        executionQueueRepository.insertExecutionQueue(Collections.singletonList(generateMessage(2L, "worker2", ExecStatus.SENT, 1)), 4L);
+
+        List<ExecutionMessage> result = executionQueueRepository.pollMessagesWithoutAck(100, 3);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals("worker1", result.get(0).getWorkerId());
+
+        Assert.assertEquals(1, executionQueueRepository.countMessagesWithoutAckForWorker(100, 3, "worker1").intValue());
+        Assert.assertEquals(0, executionQueueRepository.countMessagesWithoutAckForWorker(100, 3, "worker2").intValue());
+    }
+
+    @Test
+    public void testBusyWorkers() {
+        executionQueueRepository.insertExecutionQueue(Arrays.asList(
+                generateMessage(1L, "worker1", ExecStatus.ASSIGNED, 1),
+                generateMessage(2L, "worker1", ExecStatus.ASSIGNED, 1),
+                generateMessage(3L, "worker2", ExecStatus.FINISHED, 1)), 1L);
+
+        Assert.assertEquals(Collections.singletonList("worker1"), executionQueueRepository.getBusyWorkers(ExecStatus.ASSIGNED));
+    }
+
+    @Test
+    public void testFinishedStepsCleanup() {
+        List<ExecutionMessage> messages = Arrays.asList(
+                generateMessage(1L, "worker1", ExecStatus.IN_PROGRESS, 1),
+                generateMessage(1L, "worker1", ExecStatus.FINISHED, 2),
+                generateMessage(2L, "worker1", ExecStatus.IN_PROGRESS, 1));
+        executionQueueRepository.insertExecutionStates(messages);
+        executionQueueRepository.insertExecutionQueue(messages, 1L);
+
+        Assert.assertEquals(new HashSet<>(Collections.singletonList(1L)), executionQueueRepository.getFinishedExecStateIds());
+
+        executionQueueRepository.deleteFinishedSteps(executionQueueRepository.getFinishedExecStateIds());
+
+        Assert.assertTrue(executionQueueRepository.getFinishedExecStateIds().isEmpty());
+        Map<Long, Payload> payloads = executionQueueRepository.findPayloadByExecutionIds(1L, 2L);
+        Assert.assertEquals(1, payloads.size());
+        Assert.assertTrue(payloads.containsKey(2L));
+        Assert.assertEquals(1, executionQueueRepository.poll("worker1", 10, ExecStatus.IN_PROGRESS).size());
+    }
+
+    @Test
+    public void testFinishedStepsCleanupInBulks() {
+        List<ExecutionMessage> messages = Arrays.asList(
+                generateMessage(3L, "worker1", ExecStatus.FINISHED, 1),
+                generateMessage(1L, "worker1", ExecStatus.FAILED, 1),
+                generateMessage(2L, "worker1", ExecStatus.IN_PROGRESS, 1),
+                generateMessage(4L, "worker1", ExecStatus.TERMINATED, 1));
+        executionQueueRepository.insertExecutionStates(messages);
+        executionQueueRepository.insertExecutionQueue(messages, 1L);
+
+        Assert.assertEquals(3L, executionQueueRepository.deleteFinishedSteps(0L, 2));
+        Assert.assertEquals(new HashSet<>(Collections.singletonList(4L)), executionQueueRepository.getFinishedExecStateIds());
+        Assert.assertEquals(4L, executionQueueRepository.deleteFinishedSteps(3L, 2));
+        Assert.assertEquals(-1L, executionQueueRepository.deleteFinishedSteps(4L, 2));
+
+        Map<Long, Payload> payloads = executionQueueRepository.findPayloadByExecutionIds(1L, 2L, 3L, 4L);
+        Assert.assertEquals(Collections.singleton(2L), payloads.keySet());
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentUpdatesKeepLatestMessagePolled() throws Exception {
+        final int threads = 4;
+        final int messagesPerThread = 500;
+        executionQueueRepository.insertExecutionStates(Collections.singletonList(generateMessage(1L, "worker0", ExecStatus.ASSIGNED, 0)));
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            final int thread = i;
+            executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    //every thread moves the same exec state between the workers with its own msg seq ids
+                    for (int seq = thread; seq < threads * messagesPerThread; seq += threads) {
+                        executionQueueRepository.insertExecutionQueue(
+                                Collections.singletonList(generateMessage(1L, "worker" + (seq % 2), ExecStatus.ASSIGNED, seq)), 1L);
+                    }
+                    return null;
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(15, TimeUnit.SECONDS));
+
+        List<ExecutionMessage> polled = executionQueueRepository.poll("worker1", 10, ExecStatus.ASSIGNED);
+        Assert.assertEquals(1, polled.size());
+        Assert.assertEquals(threads * messagesPerThread - 1, polled.get(0).getMsgSeqId());
+        Assert.assertTrue(executionQueueRepository.poll("worker0", 10, ExecStatus.ASSIGNED).isEmpty());
+    }
+
+    @Test
+    public void testUpdateExecutionStatesReplacesPayload() {
+        ExecutionMessage msg = generateMessage(1L, "worker1", ExecStatus.IN_PROGRESS, 1);
+        executionQueueRepository.insertExecutionStates(Collections.singletonList(msg));
+
+        ExecutionMessage advanceMsg = generateMessage(1L, "worker1", ExecStatus.IN_PROGRESS, 2);
+        advanceMsg.setAdvance(true);
+        advanceMsg.setPayload(new Payload("next step".getBytes()));
+        executionQueueRepository.updateExecutionStates(Collections.singletonList(advanceMsg));
+
+        Map<Long, Payload> payloads = executionQueueRepository.findPayloadByExecutionIds(1L);
+        Assert.assertEquals(1, payloads.size());
+        Assert.assertArrayEquals("next step".getBytes(), payloads.get(1L).getData());
+    }
+
+    private ExecutionMessage generateMessage(long execStateId, String workerId, ExecStatus status, int msgSeqId) {
+        Payload payload = new Payload("This is just a test".getBytes());
+        return new ExecutionMessage(execStateId, workerId, "group1", "msg1", status, payload, msgSeqId);
+    }
+}
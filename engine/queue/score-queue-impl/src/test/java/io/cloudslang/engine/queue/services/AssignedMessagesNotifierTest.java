@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.engine.queue.services;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class AssignedMessagesNotifierTest {
+
+    private AssignedMessagesNotifier notifier = new AssignedMessagesNotifierImpl();
+
+    @Test
+    public void testAwaitTimesOutWithoutSignal() throws Exception {
+        notifier.reset("worker1");
+        Assert.assertFalse(notifier.await("worker1", 10));
+    }
+
+    @Test
+    public void testSignalBeforeAwaitIsNotLost() throws Exception {
+        notifier.reset("worker1");
+        notifier.notifyWorkers(Collections.singletonList("worker1"));
+        Assert.assertTrue(notifier.await("worker1", 10));
+        // the signal is consumed by the await
+        Assert.assertFalse(notifier.await("worker1", 10));
+    }
+
+    @Test
+    public void testResetClearsSignal() throws Exception {
+        notifier.notifyWorkers(Collections.singletonList("worker1"));
+        notifier.reset("worker1");
+        Assert.assertFalse(notifier.await("worker1", 10));
+    }
+
+    @Test
+    public void testSignalWakesWaitingWorker() throws Exception {
+        Thread signaller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ignore) {
+                }
+                notifier.notifyWorkers(Collections.singletonList("worker1"));
+            }
+        });
+        signaller.start();
+        Assert.assertTrue(notifier.await("worker1", 10000));
+        signaller.join();
+    }
+
+    @Test
+    public void testSignalIsPerWorker() throws Exception {
+        notifier.notifyWorkers(Collections.singletonList("worker2"));
+        Assert.assertFalse(notifier.await("worker1", 10));
+        Assert.assertTrue(notifier.await("worker2", 10));
+    }
+}
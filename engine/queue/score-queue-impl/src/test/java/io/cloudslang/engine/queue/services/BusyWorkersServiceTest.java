@@ -30,6 +30,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -70,6 +71,34 @@ public class BusyWorkersServiceTest {
         Assert.assertTrue(busyWorkersService.isWorkerBusy("worker1"));
     }
 
+    @Test
+    public void testMarkWorkerIdle(){
+        busyWorkersService.markWorkerBusy("worker2");
+        long busyMark = busyWorkersService.getBusyMark("worker2");
+        Assert.assertTrue(busyMark != 0);
+        busyWorkersService.markWorkerIdle("worker2", busyMark);
+        Assert.assertFalse(busyWorkersService.isWorkerBusy("worker2"));
+        Assert.assertEquals(0, busyWorkersService.getBusyMark("worker2"));
+    }
+
+    @Test
+    public void testWorkerMarkedBusyAgainStaysBusy(){
+        busyWorkersService.markWorkerBusy("worker3");
+        long busyMark = busyWorkersService.getBusyMark("worker3");
+        //messages were assigned to the worker while it was polled
+        busyWorkersService.markWorkerBusy("worker3");
+        busyWorkersService.markWorkerIdle("worker3", busyMark);
+        Assert.assertTrue(busyWorkersService.isWorkerBusy("worker3"));
+    }
+
+    @Test
+    public void testFindBusyWorkersKeepsMark(){
+        busyWorkersService.markWorkerBusy("worker4");
+        long busyMark = busyWorkersService.getBusyMark("worker4");
+        when(executionQueueRepository.getBusyWorkers(ExecStatus.ASSIGNED)).thenReturn(Collections.singletonList("worker4"));
+        busyWorkersService.findBusyWorkers();
+        Assert.assertEquals(busyMark, busyWorkersService.getBusyMark("worker4"));
+    }
 
     @Configuration
     static class EmptyConfig {
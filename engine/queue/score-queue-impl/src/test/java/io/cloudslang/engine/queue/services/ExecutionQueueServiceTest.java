@@ -73,6 +73,9 @@ public class ExecutionQueueServiceTest {
 	@Autowired
 	private BusyWorkersService busyWorkersService;
 
+	@Autowired
+	private ExecutionAssignerService executionAssignerService;
+
 	@Autowired
 	private JdbcTemplate jdbcTemplate;
 
@@ -85,6 +88,7 @@ public class ExecutionQueueServiceTest {
 	@Before
 	public void before() {
 		jdbcTemplate.execute("delete from OO_EXECUTION_QUEUES");
+		jdbcTemplate.execute("delete from OO_EXECUTION_QUEUES_LATEST");
 		jdbcTemplate.execute("delete from OO_EXECUTION_STATES");
 
 		reset(workerNodeService, engineVersionService);
@@ -97,6 +101,7 @@ public class ExecutionQueueServiceTest {
 		groupWorkerMap.put("group1", "worker3");
 		groupWorkerMap.put("group2", "worker3");
 		when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkerMap);
+		executionAssignerService.refreshWorkersTopology();
 
 
 		ExecutionMessage message1 = generateMessage("group1", "11");
@@ -146,6 +151,7 @@ public class ExecutionQueueServiceTest {
 		groupWorkerMap.put("group1", "worker1");
 		groupWorkerMap.put("group1", "worker2");
 		when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkerMap);
+		executionAssignerService.refreshWorkersTopology();
 
 		when(versionService.getCurrentVersion(anyString())).thenReturn(0L);
 
@@ -173,6 +179,7 @@ public class ExecutionQueueServiceTest {
 		groupWorkerMap.put("group1", "worker1");
 		groupWorkerMap.put("group1", "worker2");
 		when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkerMap);
+		executionAssignerService.refreshWorkersTopology();
 
 		when(versionService.getCurrentVersion(anyString())).thenReturn(0L);
 
@@ -240,6 +247,7 @@ public class ExecutionQueueServiceTest {
 		groupWorkerMap.put("group2", "worker2");
 		reset(workerNodeService);
 		when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkerMap);
+		executionAssignerService.refreshWorkersTopology();
 
 		ExecutionMessage message1 = generateMessage("group1", "6");
 		ExecutionMessage message2 = generateMessage("group2", "6");
@@ -313,8 +321,12 @@ public class ExecutionQueueServiceTest {
 				}
 
 				@Override
-				public List<Long> bulk(int bulkSize) {
-					return null;
+				public synchronized List<Long> bulk(int bulkSize) {
+					List<Long> ids = new ArrayList<>(bulkSize);
+					for (int i = 0; i < bulkSize; i++) {
+						ids.add(id++);
+					}
+					return ids;
 				}
 			};
 		}
@@ -344,6 +356,11 @@ public class ExecutionQueueServiceTest {
 			return new ExecutionQueueServiceImpl();
 		}
 
+		@Bean
+		AssignedMessagesNotifier assignedMessagesNotifier(){
+			return new AssignedMessagesNotifierImpl();
+		}
+
 		@Bean
 		ExecutionAssignerService executionAssignerService(){
 			return new ExecutionAssignerServiceImpl();
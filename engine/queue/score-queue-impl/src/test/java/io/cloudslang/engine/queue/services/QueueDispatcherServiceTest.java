@@ -34,6 +34,8 @@ import java.util.Date;
 import java.util.List;
 
 import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -50,6 +52,9 @@ public class QueueDispatcherServiceTest {
     @Mock
     private BusyWorkersService busyWorkersService;
 
+    @Mock
+    private AssignedMessagesNotifier assignedMessagesNotifier;
+
     @InjectMocks
     private QueueDispatcherService queueDispatcherService = new QueueDispatcherServiceImpl();
 
@@ -115,4 +120,29 @@ public class QueueDispatcherServiceTest {
         Assert.assertEquals("id1",result.get(0).getMsgId());
         Assert.assertEquals("id2",result.get(1).getMsgId());
     }
+
+    @Test
+    public void testLongPollReturnsAfterSignal() throws Exception {
+        List<ExecutionMessage> msg = new ArrayList<>();
+        msg.add(new ExecutionMessage());
+
+        when(executionQueueService.poll("workerId", 5, ExecStatus.ASSIGNED))
+                .thenReturn(new ArrayList<ExecutionMessage>())
+                .thenReturn(msg);
+        when(assignedMessagesNotifier.await(eq("workerId"), anyLong())).thenReturn(true);
+
+        List<ExecutionMessage> result = queueDispatcherService.poll("workerId", 5, 10000);
+        Assert.assertEquals(1, result.size());
+        verify(assignedMessagesNotifier, times(2)).reset("workerId");
+        verify(assignedMessagesNotifier, times(1)).await(eq("workerId"), anyLong());
+    }
+
+    @Test
+    public void testLongPollTimeout() throws Exception {
+        when(executionQueueService.poll("workerId", 5, ExecStatus.ASSIGNED)).thenReturn(new ArrayList<ExecutionMessage>());
+
+        List<ExecutionMessage> result = queueDispatcherService.poll("workerId", 5, 0);
+        Assert.assertTrue(result.isEmpty());
+        verify(assignedMessagesNotifier, never()).await(eq("workerId"), anyLong());
+    }
 }
@@ -18,11 +18,13 @@ package io.cloudslang.engine.queue.services.assigner;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
+import io.cloudslang.engine.node.services.WorkerAvailabilityListener;
 import io.cloudslang.engine.node.services.WorkerNodeService;
 import io.cloudslang.engine.queue.entities.ExecStatus;
 import io.cloudslang.engine.queue.entities.ExecutionMessage;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.entities.Payload;
+import io.cloudslang.engine.queue.repositories.ExecutionQueueRepository;
 import io.cloudslang.engine.queue.services.ExecutionQueueService;
 import io.cloudslang.orchestrator.services.EngineVersionService;
 import io.cloudslang.score.facade.entities.Execution;
@@ -40,8 +42,11 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -67,6 +72,9 @@ public class ExecutionAssignerServiceTest {
     @Autowired
     private ExecutionMessageConverter executionMessageConverter;
 
+    @Autowired
+    private ExecutionQueueRepository executionQueueRepository;
+
     @Autowired
    	private EngineVersionService engineVersionService;
 
@@ -86,6 +94,7 @@ public class ExecutionAssignerServiceTest {
         Mockito.reset(executionQueueService);
         Mockito.reset(workerNodeService);
         Mockito.when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkersMap);
+        executionAssignerService.refreshWorkersTopology();
 
         final List<ExecutionMessage> messagesInQ = executionAssignerService.assignWorkers(assignMessages);
 
@@ -112,6 +121,7 @@ public class ExecutionAssignerServiceTest {
         Mockito.reset(executionQueueService);
         Mockito.reset(workerNodeService);
         Mockito.when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkersMap);
+        executionAssignerService.refreshWorkersTopology();
         Execution execution = Mockito.mock(Execution.class);
         Mockito.when(execution.getSystemContext()).thenReturn(new SystemContext());
         Mockito.when(executionMessageConverter.extractExecution(any(Payload.class))).thenReturn(execution);
@@ -131,6 +141,128 @@ public class ExecutionAssignerServiceTest {
         Assert.assertEquals("EMPTY", FailedMsg.getWorkerId());
     }
 
+    @Test
+    public void assignToLeastLoadedWorker() throws Exception {
+
+        Multimap<String, String> groupWorkersMap = ArrayListMultimap.create();
+        groupWorkersMap.put("DefaultGroup", "worker1");
+        groupWorkersMap.put("DefaultGroup", "worker2");
+
+        Map<String, Integer> workersLoad = new HashMap<>();
+        workersLoad.put("worker1", 3);
+
+        Mockito.reset(workerNodeService, executionQueueRepository);
+        Mockito.when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkersMap);
+        Mockito.when(executionQueueRepository.getWorkersLoad(Mockito.<ExecStatus>anyVararg())).thenReturn(workersLoad);
+        executionAssignerService.refreshWorkersTopology();
+
+        List<ExecutionMessage> assignMessages = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            assignMessages.add(new ExecutionMessage(i, ExecutionMessage.EMPTY_WORKER, "DefaultGroup", "msg" + i, ExecStatus.PENDING, null, 0, (new Date(0)).getTime()));
+        }
+
+        final List<ExecutionMessage> messagesInQ = executionAssignerService.assignWorkers(assignMessages);
+
+        // worker2 gets the first 3 messages until both workers have the same load
+        int worker1Messages = 0;
+        for (int i = 0; i < messagesInQ.size(); i++) {
+            if (i < 3) {
+                Assert.assertEquals("worker2", messagesInQ.get(i).getWorkerId());
+            }
+            if (messagesInQ.get(i).getWorkerId().equals("worker1")) {
+                worker1Messages++;
+            }
+        }
+        Assert.assertTrue(worker1Messages <= 2);
+
+        Mockito.verify(workerNodeService, Mockito.times(1)).readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId());
+    }
+
+    @Test
+    public void readPayloadsOnceWhenHaveNoWorkers() throws Exception {
+
+        Multimap<String, String> groupWorkersMap = ArrayListMultimap.create();
+        groupWorkersMap.put("DefaultGroup", "worker1");
+
+        List<ExecutionMessage> assignMessages = new ArrayList<>();
+        ExecutionMessage msg1 = new ExecutionMessage(1, ExecutionMessage.EMPTY_WORKER, "GroupX", "msg1", ExecStatus.PENDING, null, 0, (new Date(0)).getTime());
+        ExecutionMessage msg2 = new ExecutionMessage(2, ExecutionMessage.EMPTY_WORKER, "DefaultGroup", "msg2", ExecStatus.PENDING, null, 0, (new Date(0)).getTime());
+        ExecutionMessage msg3 = new ExecutionMessage(3, ExecutionMessage.EMPTY_WORKER, "GroupX", "msg3", ExecStatus.PENDING, null, 0, (new Date(0)).getTime());
+        assignMessages.add(msg1);
+        assignMessages.add(msg2);
+        assignMessages.add(msg3);
+
+        Mockito.reset(executionQueueService);
+        Mockito.reset(workerNodeService);
+        Mockito.when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkersMap);
+        Mockito.when(executionQueueService.readPayloadByExecutionIds(Mockito.<Long>anyVararg())).thenReturn(Collections.<Long, Payload>emptyMap());
+        Execution execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getSystemContext()).thenReturn(new SystemContext());
+        Mockito.when(executionMessageConverter.extractExecution(any(Payload.class))).thenReturn(execution);
+        executionAssignerService.refreshWorkersTopology();
+
+        final List<ExecutionMessage> messagesInQ = executionAssignerService.assignWorkers(assignMessages);
+
+        Assert.assertEquals(5, messagesInQ.size());
+        Assert.assertEquals(ExecStatus.FINISHED, messagesInQ.get(0).getStatus());
+        Assert.assertEquals(ExecStatus.FAILED, messagesInQ.get(1).getStatus());
+        Assert.assertEquals(ExecStatus.ASSIGNED, messagesInQ.get(2).getStatus());
+        Assert.assertEquals("worker1", messagesInQ.get(2).getWorkerId());
+        Assert.assertEquals(ExecStatus.FINISHED, messagesInQ.get(3).getStatus());
+        Assert.assertEquals(ExecStatus.FAILED, messagesInQ.get(4).getStatus());
+
+        // the payloads of both messages are read together, and the topology that was just refreshed is not read again
+        Mockito.verify(executionQueueService, Mockito.times(1)).readPayloadByExecutionIds(1L, 3L);
+        Mockito.verify(workerNodeService, Mockito.times(1)).readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId());
+    }
+
+    @Test
+    public void refreshOldTopologyOnceForGroupWithoutWorkers() throws Exception {
+        Multimap<String, String> groupWorkersMap = ArrayListMultimap.create();
+        groupWorkersMap.put("DefaultGroup", "worker1");
+
+        Mockito.reset(executionQueueService);
+        Mockito.reset(workerNodeService);
+        Mockito.when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkersMap);
+        Mockito.when(executionQueueService.readPayloadByExecutionIds(Mockito.<Long>anyVararg())).thenReturn(Collections.<Long, Payload>emptyMap());
+        Execution execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getSystemContext()).thenReturn(new SystemContext());
+        Mockito.when(executionMessageConverter.extractExecution(any(Payload.class))).thenReturn(execution);
+        executionAssignerService.refreshWorkersTopology();
+        Thread.sleep(1100);
+
+        for (int i = 0; i < 3; i++) {
+            List<ExecutionMessage> assignMessages = new ArrayList<>();
+            assignMessages.add(new ExecutionMessage(i, ExecutionMessage.EMPTY_WORKER, "GroupX", "msg" + i, ExecStatus.PENDING, null, 0, (new Date(0)).getTime()));
+            Assert.assertEquals(ExecStatus.FAILED, executionAssignerService.assignWorkers(assignMessages).get(1).getStatus());
+        }
+
+        // the old topology is refreshed by the first enqueue only, the next ones use the new topology
+        Mockito.verify(workerNodeService, Mockito.times(2)).readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId());
+    }
+
+    @Test
+    public void doNotAssignToUnavailableWorker() throws Exception {
+        Multimap<String, String> groupWorkersMap = ArrayListMultimap.create();
+        groupWorkersMap.put("DefaultGroup", "worker1");
+        groupWorkersMap.put("DefaultGroup", "worker2");
+
+        Mockito.reset(executionQueueService);
+        Mockito.reset(workerNodeService);
+        Mockito.when(workerNodeService.readGroupWorkersMapActiveAndRunningAndVersion(engineVersionService.getEngineVersionId())).thenReturn(groupWorkersMap);
+        executionAssignerService.refreshWorkersTopology();
+        ((WorkerAvailabilityListener) executionAssignerService).onWorkerUnavailable("worker1");
+
+        List<ExecutionMessage> assignMessages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            assignMessages.add(new ExecutionMessage(i, ExecutionMessage.EMPTY_WORKER, "DefaultGroup", "msg" + i, ExecStatus.PENDING, null, 0, (new Date(0)).getTime()));
+        }
+        for (ExecutionMessage msg : executionAssignerService.assignWorkers(assignMessages)) {
+            Assert.assertEquals(ExecStatus.ASSIGNED, msg.getStatus());
+            Assert.assertEquals("worker2", msg.getWorkerId());
+        }
+    }
+
     @Configuration
     static class Configurator {
 
@@ -144,6 +276,11 @@ public class ExecutionAssignerServiceTest {
             return Mockito.mock(WorkerNodeService.class);
         }
 
+        @Bean
+        public ExecutionQueueRepository executionQueueRepository() {
+            return Mockito.mock(ExecutionQueueRepository.class);
+        }
+
         @Bean
         public ExecutionQueueService executionQueueService() {
             return Mockito.mock(ExecutionQueueService.class);
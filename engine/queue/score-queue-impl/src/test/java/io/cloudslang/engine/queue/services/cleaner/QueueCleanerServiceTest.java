@@ -25,6 +25,8 @@ import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.entities.Payload;
 import io.cloudslang.engine.queue.repositories.ExecutionQueueRepository;
 import io.cloudslang.engine.queue.repositories.ExecutionQueueRepositoryImpl;
+import io.cloudslang.engine.queue.services.AssignedMessagesNotifier;
+import io.cloudslang.engine.queue.services.AssignedMessagesNotifierImpl;
 import io.cloudslang.engine.queue.services.BusyWorkersService;
 import io.cloudslang.engine.queue.services.ExecutionQueueService;
 import io.cloudslang.engine.queue.services.ExecutionQueueServiceImpl;
@@ -82,6 +84,7 @@ public class QueueCleanerServiceTest {
 	@Before
 	public void before() {
 		jdbcTemplate.execute("delete from OO_EXECUTION_QUEUES");
+		jdbcTemplate.execute("delete from OO_EXECUTION_QUEUES_LATEST");
 		jdbcTemplate.execute("delete from OO_EXECUTION_STATES");
 	}
 
@@ -130,6 +133,30 @@ public class QueueCleanerServiceTest {
 		Assert.assertEquals(0, ids.size());
 	}
 
+	@Test
+	public void cleanInBulksTest() throws Exception {
+		List<ExecutionMessage> msgs = new ArrayList<>();
+		msgs.add(generateMessage(1, "group1", "1", ExecStatus.FINISHED, 1));
+		msgs.add(generateMessage(2, "group1", "2", ExecStatus.IN_PROGRESS, 1));
+		msgs.add(generateMessage(3, "group1", "3", ExecStatus.FAILED, 1));
+		msgs.add(generateMessage(4, "group1", "4", ExecStatus.TERMINATED, 1));
+		when(busyWorkersService.isWorkerBusy("myWorker")).thenReturn(true);
+		executionQueueService.enqueue(msgs);
+
+		long lastExecStateId = queueCleanerService.cleanFinishedSteps(0, 2);
+		Assert.assertEquals(3, lastExecStateId);
+		Assert.assertEquals(1, queueCleanerService.getFinishedExecStateIds().size());
+
+		lastExecStateId = queueCleanerService.cleanFinishedSteps(lastExecStateId, 2);
+		Assert.assertEquals(4, lastExecStateId);
+		Assert.assertEquals(-1, queueCleanerService.cleanFinishedSteps(lastExecStateId, 2));
+
+		Assert.assertEquals(0, queueCleanerService.getFinishedExecStateIds().size());
+		Assert.assertEquals(1, jdbcTemplate.queryForObject("select count(*) from OO_EXECUTION_QUEUES", Integer.class).intValue());
+		Assert.assertEquals(1, jdbcTemplate.queryForObject("select count(*) from OO_EXECUTION_QUEUES_LATEST", Integer.class).intValue());
+		Assert.assertEquals(1, jdbcTemplate.queryForObject("select count(*) from OO_EXECUTION_STATES", Integer.class).intValue());
+	}
+
 	private ExecutionMessage generateMessage(long execStateId, String groupName, String msgId, ExecStatus status, int msg_seq_id) {
 		byte[] payloadData;
 		payloadData = "This is just a test".getBytes();
@@ -178,8 +205,12 @@ public class QueueCleanerServiceTest {
 				}
 
 				@Override
-				public List<Long> bulk(int bulkSize) {
-					return null;
+				public synchronized List<Long> bulk(int bulkSize) {
+					List<Long> ids = new ArrayList<>(bulkSize);
+					for (int i = 0; i < bulkSize; i++) {
+						ids.add(id++);
+					}
+					return ids;
 				}
 			};
 		}
@@ -214,6 +245,11 @@ public class QueueCleanerServiceTest {
 			return new ExecutionQueueServiceImpl();
 		}
 
+		@Bean
+		AssignedMessagesNotifier assignedMessagesNotifier(){
+			return new AssignedMessagesNotifierImpl();
+		}
+
 		@Bean
 		ExecutionAssignerService executionAssignerService(){
 			return new ExecutionAssignerServiceImpl();
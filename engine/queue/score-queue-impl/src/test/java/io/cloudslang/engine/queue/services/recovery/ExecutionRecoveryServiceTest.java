@@ -31,8 +31,10 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
 /**
@@ -61,17 +63,31 @@ public class ExecutionRecoveryServiceTest {
 
     @Before
     public void setUp() {
-        reset(workerNodeService, executionQueueService, messageRecoveryService);
+        reset(workerNodeService, workerRecoveryService, executionQueueService, messageRecoveryService);
     }
 
     @Test
     public void testRecoverWorkers() throws Exception {
+        List<String> nonRespondingWorkers = Arrays.asList("456");
         when(workerNodeService.readAllWorkersUuids()).thenReturn(getWorkers());
+        when(workerNodeService.readNonRespondingWorkers()).thenReturn(nonRespondingWorkers);
         executionRecoveryService.recoverWorkers();
 
-        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery("123");
-        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery("456");
-        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery("789");
+        verify(workerNodeService, times(1)).readNonRespondingWorkers();
+        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery("123", nonRespondingWorkers);
+        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery("456", nonRespondingWorkers);
+        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery("789", nonRespondingWorkers);
+    }
+
+    @Test
+    public void testRecoverWorkersContinuesAfterFailure() throws Exception {
+        when(workerNodeService.readAllWorkersUuids()).thenReturn(getWorkers());
+        doThrow(new IllegalStateException("Unknown worker uuid [456]")).when(workerRecoveryService).doWorkerAndMessageRecovery(eq("456"), anyListOf(String.class));
+        executionRecoveryService.recoverWorkers();
+
+        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery(eq("123"), anyListOf(String.class));
+        verify(workerRecoveryService, times(1)).doWorkerAndMessageRecovery(eq("789"), anyListOf(String.class));
+        assertEquals(1, executionRecoveryService.getLastFailedWorkersCount());
     }
 
     private List<String> getWorkers(){
@@ -98,6 +114,7 @@ public class ExecutionRecoveryServiceTest {
 		when(executionQueueService.readMessagesByStatus(1000, ExecStatus.RECOVERED)).thenReturn(recoveredMessages);
         executionRecoveryService.assignRecoveredMessages();
         verify(messageRecoveryService).enqueueMessages(recoveredMessages, ExecStatus.PENDING);
+        assertEquals(5, executionRecoveryService.getLastRecoveredMessagesCount());
 	}
 
 	@Configuration
@@ -147,6 +147,19 @@ public class WorkerRecoveryServiceTest {
         verify(workerNodeService, times(1)).updateStatusInSeparateTransaction("123", WorkerStatus.IN_RECOVERY);
     }
 
+    @Test
+    //Test that the given non responsive workers are used and not read again
+    public void testDoWorkerAndMessageRecoveryWithNonRespondingWorkers() throws Exception {
+        when(executionQueueService.countMessagesWithoutAckForWorker(anyInt(), anyLong(), anyString())).thenReturn(0);
+        WorkerNode mockWorker = mock(WorkerNode.class);
+        when(mockWorker.getStatus()).thenReturn(WorkerStatus.RUNNING);
+        when(workerNodeService.findByUuid("123")).thenReturn(mockWorker);
+        workerRecoveryService.doWorkerAndMessageRecovery("123", getNonResponsiveWorkers());
+
+        verify(workerNodeService, never()).readNonRespondingWorkers();
+        verify(workerNodeService, times(1)).updateStatusInSeparateTransaction("123", WorkerStatus.IN_RECOVERY);
+    }
+
     @Test
     public void testDoWorkerRecovery() throws Exception {
         workerRecoveryService.doWorkerRecovery("worker1");
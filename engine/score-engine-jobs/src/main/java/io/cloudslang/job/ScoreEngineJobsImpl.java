@@ -25,8 +25,6 @@ import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * This class will unite all periodic jobs needed by the score engine, to be triggered by a scheduler .
@@ -62,22 +60,14 @@ public class ScoreEngineJobsImpl implements ScoreEngineJobs {
     @Override
     public void cleanQueueJob(){
         try {
-            Set<Long> ids = queueCleanerService.getFinishedExecStateIds();
-            if(logger.isDebugEnabled()) logger.debug("Will clean from queue the next Exec state ids amount:"+ids.size());
-
-            Set<Long> execIds = new HashSet<>();
-
-            for (Long id : ids) {
-                execIds.add(id);
-                if (execIds.size() >= QUEUE_BULK_SIZE) {
-                    queueCleanerService.cleanFinishedSteps(execIds);
-                    execIds.clear();
-                }
-            }
-
-            if (execIds.size() > 0) {
-                queueCleanerService.cleanFinishedSteps(execIds);
+            // walk the finished exec states page by page, each bulk is deleted in its own transaction
+            int cleanedBulks = 0;
+            long lastExecStateId = queueCleanerService.cleanFinishedSteps(0, QUEUE_BULK_SIZE);
+            while (lastExecStateId != -1) {
+                cleanedBulks++;
+                lastExecStateId = queueCleanerService.cleanFinishedSteps(lastExecStateId, QUEUE_BULK_SIZE);
             }
+            if(logger.isDebugEnabled()) logger.debug("Cleaned from queue " + cleanedBulks + " bulks of finished Exec states");
         } catch (Exception e) {
             logger.error("Can't run queue cleaner job.", e);
         }
@@ -41,4 +41,7 @@ public class TempConstants {
 
     public static final String USE_DEFAULT_GROUP = "USE_DEFAULT_GROUP";
 
+    // Integer priority of the execution on the worker threads, a higher priority gets longer time slices. 0 by default
+    public static final String EXECUTION_PRIORITY = "EXECUTION_PRIORITY";
+
 }
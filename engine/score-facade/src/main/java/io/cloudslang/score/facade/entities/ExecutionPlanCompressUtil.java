@@ -26,6 +26,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -62,6 +64,62 @@ public class ExecutionPlanCompressUtil {
         }
   }
 
+    /**
+     * Serializes the ExecutionPlan without compressing it
+     *
+     * @param executionPlan - the plan to serialize
+     * @return serialized object of ExecutionPlan
+     */
+    public static byte[] getSerializedExecutionPlan(ExecutionPlan executionPlan) {
+        try (ByteArrayOutputStream bout = new ByteArrayOutputStream();
+             ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(bout))) {
+            oos.writeObject(executionPlan);
+            oos.flush();
+            return bout.toByteArray();
+        } catch (IOException ex) {
+            logger.error("Failed to serialize execution plan. Error: ", ex);
+            throw new RuntimeException("Failed to serialize execution plan. Error: ", ex);
+        }
+    }
+
+    /**
+     * Compresses an already serialized ExecutionPlan, the result can be read by getExecutionPlanFromBytes
+     *
+     * @param serializedExecutionPlan - serialized object of ExecutionPlan
+     * @return compressed serialized object of ExecutionPlan
+     */
+    public static byte[] compressSerializedExecutionPlan(byte[] serializedExecutionPlan) {
+        try {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream(serializedExecutionPlan.length / 4);
+            try (GZIPOutputStream gzipout = new GZIPOutputStream(bout)) {
+                gzipout.write(serializedExecutionPlan);
+            }
+            return bout.toByteArray();
+        } catch (IOException ex) {
+            logger.error("Failed to compress execution plan. Error: ", ex);
+            throw new RuntimeException("Failed to compress execution plan. Error: ", ex);
+        }
+    }
+
+    /**
+     * Calculates the content hash of a serialized ExecutionPlan
+     *
+     * @param serializedExecutionPlan - serialized object of ExecutionPlan
+     * @return hex encoded SHA-256 of the given bytes
+     */
+    public static String getExecutionPlanHash(byte[] serializedExecutionPlan) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(serializedExecutionPlan);
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
     public static byte[] getBytesFromExecutionPlan(ExecutionPlan executionPlan) {
         ObjectOutputStream oos = null;
         try {
@@ -18,7 +18,6 @@ package io.cloudslang.score.facade.entities;
 
 import io.cloudslang.score.api.ExecutionPlan;
 import io.cloudslang.engine.data.AbstractIdentifiable;
-import org.apache.commons.lang.SerializationUtils;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 
@@ -47,8 +46,9 @@ public class RunningExecutionPlan extends AbstractIdentifiable {
     @Basic(fetch = FetchType.LAZY)
     private byte[] executionPlanZipped;
 
+    //volatile since cached plans are shared between the worker threads
     @Transient
-    private ExecutionPlan executionPlan;
+    private volatile ExecutionPlan executionPlan;
 
     @Column(name = "UUID", nullable = false)
     private String flowUUID;
@@ -56,6 +56,10 @@ public class RunningExecutionPlan extends AbstractIdentifiable {
     @Column(name = "EXECUTION_ID")
     private String executionId;
 
+    //content hash of the serialized plan, plans with the same hash are shared between executions
+    @Column(name = "PLAN_HASH")
+    private String planHash;
+
     public byte[] getExecutionPlanZipped() {
         return executionPlanZipped;
     }
@@ -72,9 +76,15 @@ public class RunningExecutionPlan extends AbstractIdentifiable {
     }
 
     public void setExecutionPlan(ExecutionPlan executionPlan) {
+        //the plan is serialized once - the copy of the given plan is lazily read back from the zipped bytes
+        byte[] serializedPlan = ExecutionPlanCompressUtil.getSerializedExecutionPlan(executionPlan);
+        this.executionPlan = null;
+        executionPlanZipped = ExecutionPlanCompressUtil.compressSerializedExecutionPlan(serializedPlan);
+        planHash = ExecutionPlanCompressUtil.getExecutionPlanHash(serializedPlan);
+    }
 
-        this.executionPlan = (ExecutionPlan) SerializationUtils.clone(executionPlan);
-        executionPlanZipped = ExecutionPlanCompressUtil.getBytesFromExecutionPlan(this.executionPlan);
+    public String getPlanHash() {
+        return planHash;
     }
 
     public String getFlowUUID() {
@@ -21,9 +21,11 @@ import io.cloudslang.engine.node.services.WorkerNodeServiceImpl;
 import io.cloudslang.engine.node.services.WorkersMBean;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.repositories.ExecutionQueueRepositoryImpl;
+import io.cloudslang.engine.queue.repositories.InMemoryExecutionQueueRepository;
 import io.cloudslang.engine.queue.services.*;
 import io.cloudslang.engine.queue.services.assigner.ExecutionAssignerServiceImpl;
 import io.cloudslang.engine.queue.services.cleaner.QueueCleanerServiceImpl;
+import io.cloudslang.engine.queue.services.recovery.ExecutionRecoveryMBean;
 import io.cloudslang.engine.queue.services.recovery.ExecutionRecoveryServiceImpl;
 import io.cloudslang.engine.queue.services.recovery.MessageRecoveryServiceImpl;
 import io.cloudslang.engine.queue.services.recovery.WorkerRecoveryServiceImpl;
@@ -90,13 +92,14 @@ public class EngineBeanDefinitionParser extends AbstractBeanDefinitionParser {
 		put(SqlUtils.class, null);
 		put(SqlInQueryReader.class, null);
 		put(DataBaseDetector.class, null);
-		put(ExecutionQueueRepositoryImpl.class, null);
 		put(HiloFactoryBean.class, "scoreHiloFactoryBean");
 		put(WorkersMBean.class, "io.cloudslang.engine.node.services.WorkersMBean");
+		put(ExecutionRecoveryMBean.class, "io.cloudslang.engine.queue.services.recovery.ExecutionRecoveryMBean");
         put(WorkerDbSupportServiceImpl.class, null);
         put(ScoreDeprecatedImpl.class, null);
         put(ScoreEngineJobsImpl.class,"scoreEngineJobs");
 		put(BusyWorkersServiceImpl.class,"busyWorkersService");
+		put(AssignedMessagesNotifierImpl.class, null);
 		put(MergedConfigurationServiceImpl.class,"MergedConfigurationService");
 	}};
 
@@ -121,6 +124,8 @@ public class EngineBeanDefinitionParser extends AbstractBeanDefinitionParser {
 
         String repositoriesContextPath = "META-INF/spring/score/context/scoreRepositoryContext.xml";
 
+        new XmlBeanDefinitionReader(beanDefinitionRegistry).loadBeanDefinitions(WorkerBeanDefinitionParser.CACHE_CONTEXT_LOCATION);
+
         String ignoreEngineJobs = element.getAttribute("ignoreEngineJobs");
         if(StringUtils.isNotBlank(ignoreEngineJobs) && ignoreEngineJobs.equals(Boolean.TRUE.toString())){
             new XmlBeanDefinitionReader(beanDefinitionRegistry).loadBeanDefinitions(repositoriesContextPath);
@@ -144,6 +149,7 @@ public class EngineBeanDefinitionParser extends AbstractBeanDefinitionParser {
         registerPauseResume(element,parserContext);
 		registerWorkerNodeService(element, parserContext);
 		registerEngineVersionService(element, parserContext);
+		registerExecutionQueueRepository(element, parserContext);
     }
 
     private void registerPauseResume(Element element, ParserContext parserContext){
@@ -167,6 +173,15 @@ public class EngineBeanDefinitionParser extends AbstractBeanDefinitionParser {
 		}
 	}
 
+	private void registerExecutionQueueRepository(Element element, ParserContext parserContext){
+		String inMemoryQueue = element.getAttribute("inMemoryQueue");
+		if(inMemoryQueue.equals(Boolean.TRUE.toString())){
+			new BeanRegistrator(parserContext).CLASS(InMemoryExecutionQueueRepository.class).register();
+		} else {
+			new BeanRegistrator(parserContext).CLASS(ExecutionQueueRepositoryImpl.class).register();
+		}
+	}
+
 	private void registerPartitionTemplate(String name, int groupSize, long sizeThreshold, long timeThreshold,
                                            ParserContext parserContext,
                                            Class<? extends PartitionCallback> callbackClass){
@@ -44,6 +44,8 @@ import java.util.Map;
  */
 public class WorkerBeanDefinitionParser extends AbstractBeanDefinitionParser {
 
+	static final String CACHE_CONTEXT_LOCATION = "META-INF/spring/score/context/scoreCacheContext.xml";
+
 	private Map<Class<?>,String> beans = new HashMap<Class<?>,String>(){{
 		put(WorkerManager.class, "workerManager");
 		put(EventBusImpl.class, null);
@@ -68,6 +70,7 @@ public class WorkerBeanDefinitionParser extends AbstractBeanDefinitionParser {
 	private List<ConfValue> configurationValues = Arrays.asList(
 			new ConfValue().NAME("inBufferCapacity").DEFAULT(500),
 			new ConfValue().NAME("numberOfExecutionThreads").DEFAULT(20),
+			new ConfValue().NAME("executionThreadPoolType").DEFAULT(ExecutionThreadPoolType.FIXED.getValue()),
 			new ConfValue().NAME("maxDeltaBetweenDrains").DEFAULT(100)
 	);
 
@@ -88,6 +91,7 @@ public class WorkerBeanDefinitionParser extends AbstractBeanDefinitionParser {
 		registerSpecialBeans(element, parserContext);
 		registerConfiguration(DomUtils.getChildElementByTagName(element, "configuration"), parserContext);
 		registerScheduler(DomUtils.getChildElementByTagName(element, "scheduler"), parserContext);
+		registerCache(parserContext);
 		return createRootBeanDefinition();
 	}
 
@@ -143,6 +147,10 @@ public class WorkerBeanDefinitionParser extends AbstractBeanDefinitionParser {
 				.loadBeanDefinitions("META-INF/spring/score/context/scoreWorkerSchedulerContext.xml");
 	}
 
+	private void registerCache(ParserContext parserContext) {
+		new XmlBeanDefinitionReader(parserContext.getRegistry()).loadBeanDefinitions(CACHE_CONTEXT_LOCATION);
+	}
+
 	@Override
 	protected boolean shouldGenerateId() {
 		return true;
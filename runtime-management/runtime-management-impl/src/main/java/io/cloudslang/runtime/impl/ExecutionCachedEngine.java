@@ -19,10 +19,16 @@ package io.cloudslang.runtime.impl;
 import io.cloudslang.dependency.api.services.DependencyService;
 
 import org.apache.log4j.Logger;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -34,47 +40,205 @@ public abstract class ExecutionCachedEngine<T extends Executor> extends Executio
     // key --> dependencies concatenated
     // value --> classloader/pythoninterpreter which was build with classpath from these dependencies
     // if we reached the limit of cache we will release the least recently used
-    private final Map<String, T> executors = new LinkedHashMap<>();
+    private final ConcurrentMap<String, CachedExecutor> executors = new ConcurrentHashMap<>();
 
-    private final Lock lock = new ReentrantLock();
+    // orders the executors by their last use, for the least recently used eviction
+    private final AtomicLong accessCounter = new AtomicLong();
+
+    // taken only when the cache is over its limit, lookups of cached executors never wait for it
+    private final Lock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
     public T allocateExecutor(Set<String> dependencies) {
         String dependenciesKey = generatedDependenciesKey(dependencies);
 
-        T executor;
-        T candidateForRemove = null;
-        lock.lock();
+        while (true) {
+            CachedExecutor cachedExecutor = executors.get(dependenciesKey);
+            boolean created = false;
+            if (cachedExecutor == null) {
+                CachedExecutor newCachedExecutor = new CachedExecutor(dependencies);
+                cachedExecutor = executors.putIfAbsent(dependenciesKey, newCachedExecutor);
+                if (cachedExecutor == null) {
+                    cachedExecutor = newCachedExecutor;
+                    created = true;
+                }
+            }
+
+            if (created) {
+                misses.increment();
+                // the dependencies are resolved and the executor is built outside of any lock,
+                // concurrent requests for the same dependencies wait for this single creation
+                cachedExecutor.create();
+            } else {
+                hits.increment();
+            }
+
+            T executor;
+            try {
+                executor = cachedExecutor.allocate(accessCounter.incrementAndGet());
+            } catch (RuntimeException | Error e) {
+                executors.remove(dependenciesKey, cachedExecutor);
+                throw e;
+            }
+            if (created) {
+                evictLeastRecentlyUsed();
+            }
+            if (executor != null) {
+                return executor;
+            }
+            // the executor was evicted between the lookup and the allocation, a new one is needed
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        int cacheSize = getCacheSize();
+        if (executors.size() <= cacheSize) {
+            return;
+        }
+
+        List<T> candidatesForRemove = new ArrayList<>();
+        evictionLock.lock();
         try {
-            executor = executors.get(dependenciesKey);
-            if (executor == null) {
-                int cacheSize = getCacheSize();
-                if (executors.size() == cacheSize) {
+            while (executors.size() > cacheSize) {
+                Map.Entry<String, CachedExecutor> leastRecentlyUsed = null;
+                for (Map.Entry<String, CachedExecutor> entry : executors.entrySet()) {
+                    if (entry.getValue().isCreated() && ((leastRecentlyUsed == null) ||
+                            (entry.getValue().getLastAccess() < leastRecentlyUsed.getValue().getLastAccess()))) {
+                        leastRecentlyUsed = entry;
+                    }
+                }
+                if (leastRecentlyUsed == null) {
+                    break;
+                }
+                if (executors.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue())) {
                     logger.info("Reached cached executors limit[" + cacheSize + "], replacing LRU executor.");
-                    Iterator<Map.Entry<String, T>> iterator = executors.entrySet().iterator();
-                    candidateForRemove = iterator.next().getValue();
-                    iterator.remove();
+                    T evicted = leastRecentlyUsed.getValue().evict();
+                    if (evicted != null) {
+                        candidatesForRemove.add(evicted);
+                    }
+                    evictions.increment();
                 }
-                executor = createNewExecutor(getDependencyService().getDependencies(dependencies));
-            } else {
-                // remove it and place at the end - most recently used
-                executors.remove(dependenciesKey);
             }
-            executor.allocate();
-            executors.put(dependenciesKey, executor);
         } finally {
-            lock.unlock();
+            evictionLock.unlock();
         }
-        if(candidateForRemove != null) {
+        for (T candidateForRemove : candidatesForRemove) {
             candidateForRemove.close();
         }
-        return executor;
     }
 
     protected void releaseExecutor(T executor) {
         executor.release();
     }
 
+    /**
+     * @return the number of executors that were found in the cache
+     */
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of executors that were created because they were not found in the cache
+     */
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of least recently used executors that were removed from the cache because of its limit
+     */
+    public long getCacheEvictions() {
+        return evictions.sum();
+    }
+
+    public int getCachedExecutorsCount() {
+        return executors.size();
+    }
+
     protected abstract DependencyService getDependencyService();
     protected abstract int getCacheSize();
     protected abstract T createNewExecutor(Set<String> filePaths);
+
+    /**
+     * An executor in the cache, it can not be allocated anymore once it was evicted
+     */
+    private class CachedExecutor {
+        private final FutureTask<T> creation;
+        private volatile long lastAccess;
+        private boolean evicted;
+
+        CachedExecutor(final Set<String> dependencies) {
+            creation = new FutureTask<>(() -> createNewExecutor(getDependencyService().getDependencies(dependencies)));
+            // a new executor counts as just used, otherwise it could be evicted before its first allocation
+            lastAccess = accessCounter.incrementAndGet();
+        }
+
+        void create() {
+            creation.run();
+        }
+
+        boolean isCreated() {
+            return creation.isDone();
+        }
+
+        long getLastAccess() {
+            return lastAccess;
+        }
+
+        // waits for the creation if it is still running, returns null if this executor was already evicted
+        T allocate(long accessTime) {
+            T executor = getExecutor();
+            synchronized (this) {
+                if (evicted) {
+                    return null;
+                }
+                executor.allocate();
+                lastAccess = accessTime;
+            }
+            return executor;
+        }
+
+        // the executor is returned also when the thread is interrupted, it must be closed to release its classloader
+        synchronized T evict() {
+            evicted = true;
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return creation.get();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        return null;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private T getExecutor() {
+            try {
+                return creation.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the executor to be created", e);
+            }
+        }
+    }
 }
@@ -23,4 +23,6 @@ public interface JavaExecutionConfigurationConsts {
     String JAVA_EXECUTOR_ENGINE = "java.executor.engine";
     String JAVA_EXECUTOR_CACHE_SIZE = "java.executor.cache.size";
     int JAVA_EXECUTOR_CACHE_DEFAULT_SIZE = 200;
+    // comma separated class names of actions that keep no state, their instance is reused by all invocations
+    String JAVA_EXECUTOR_STATELESS_ACTIONS = "java.executor.stateless.actions";
 }
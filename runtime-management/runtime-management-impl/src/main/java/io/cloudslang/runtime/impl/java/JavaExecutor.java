@@ -33,7 +33,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static io.cloudslang.runtime.impl.constants.ScoreContentSdk.SERIALIZABLE_SESSION_OBJECT_CANONICAL_NAME;
 
@@ -48,6 +51,13 @@ public class JavaExecutor implements Executor {
 
     private static final ClassLoader PARENT_CLASS_LOADER;
 
+    private static final ClassValue<Boolean> IS_SERIALIZABLE_SESSION_OBJECT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return SERIALIZABLE_SESSION_OBJECT_CANONICAL_NAME.equals(type.getCanonicalName());
+        }
+    };
+
     static {
         ClassLoader parentClassLoader = JavaExecutor.class.getClassLoader();
 
@@ -78,6 +88,9 @@ public class JavaExecutor implements Executor {
 
     private final ClassLoader classLoader;
 
+    // className.methodName --> the action resolved in this classloader, so the reflection lookups are done once
+    private final Map<String, ActionDescriptor> actionDescriptors = new ConcurrentHashMap<>();
+
     JavaExecutor(Set<String> filePaths) {
         logger.info("Creating java classloader with [" + filePaths.size() + "] dependencies [" + filePaths + "]");
         if (!filePaths.isEmpty()) {
@@ -104,14 +117,13 @@ public class JavaExecutor implements Executor {
         ClassLoader origCL = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(classLoader);
-            Class actionClass = getActionClass(className);
-            Method executionMethod = getMethodByName(actionClass, methodName);
+            ActionDescriptor action = getActionDescriptor(className, methodName);
+            Method executionMethod = action.getMethod();
 
             Object[] executionParameters = parametersProvider.getExecutionParameters(executionMethod);
-            Object[] transformedExecutionParameters = transformExecutionParameters(executionParameters,
-                    executionMethod);
+            Object[] transformedExecutionParameters = transformExecutionParameters(executionParameters, action);
 
-            return executionMethod.invoke(actionClass.newInstance(), transformedExecutionParameters);
+            return executionMethod.invoke(action.getInstance(), transformedExecutionParameters);
         } catch (Exception e) {
             throw new RuntimeException(
                     "Method [" + methodName + "] invocation of class [" + className + "] failed: " + e.getMessage(), e);
@@ -120,42 +132,26 @@ public class JavaExecutor implements Executor {
         }
     }
 
-    private Object[] transformExecutionParameters(Object[] oldExecutionParameters, Method executionMethod)
+    private Object[] transformExecutionParameters(Object[] oldExecutionParameters, ActionDescriptor action)
             throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException,
             InvocationTargetException, InstantiationException {
         // this method relies on the current SerializableSessionObject from the SDK
         // if the object changes in the future, we need to align the logic here
 
         Object[] transformedExecutionParameters = new Object[oldExecutionParameters.length];
-        String stringClassCanonicalName = String.class.getCanonicalName();
 
         for (int i = 0; i < oldExecutionParameters.length; i++) {
             Object currentParameter = oldExecutionParameters[i];
             if (currentParameter != null) {
                 Class<?> currentParameterClass = currentParameter.getClass();
-                Class<?> expectedClass = executionMethod.getParameterTypes()[i];
 
                 // check if it's a string - optimization - most of the parameters for actions are strings
-                if (!currentParameterClass.getCanonicalName().equals(stringClassCanonicalName)) {
-                    if (isSerializableSessionObjectMismatch(expectedClass, currentParameterClass)) {
-                        String valueFieldName = "value";
-                        String nameFieldName = "name";
-
-                        // get the old data
-                        Object valueField = getFieldValue(valueFieldName, currentParameterClass, currentParameter);
-                        Object nameField = getFieldValueFromSuperClass(nameFieldName, currentParameterClass,
-                                currentParameter);
-
-                        // set the data in the new object
-                        Object transformedParameter = expectedClass.newInstance();
-                        setValue(valueField, expectedClass, transformedParameter);
-                        setName(nameField, expectedClass, transformedParameter);
-
-                        transformedExecutionParameters[i] = transformedParameter;
-                    } else {
-                        // no transformation
-                        transformedExecutionParameters[i] = currentParameter;
-                    }
+                if ((currentParameterClass != String.class) &&
+                        IS_SERIALIZABLE_SESSION_OBJECT.get(currentParameterClass) &&
+                        (action.getParameterType(i) != currentParameterClass)) {
+                    // SerializableSessionObject loaded by different classLoaders
+                    transformedExecutionParameters[i] = action.getSessionObjectConverter(i, currentParameterClass)
+                            .convert(currentParameter);
                 } else {
                     // no transformation
                     transformedExecutionParameters[i] = currentParameter;
@@ -168,41 +164,17 @@ public class JavaExecutor implements Executor {
         return transformedExecutionParameters;
     }
 
-    private Object getFieldValue(String fieldName, Class<?> currentParameterClass, Object currentParameter)
-            throws NoSuchFieldException, IllegalAccessException {
-        Field field = currentParameterClass.getDeclaredField(fieldName);
-        field.setAccessible(true);
-        return field.get(currentParameter);
-    }
-
-    private Object getFieldValueFromSuperClass(String fieldName, Class<?> currentParameterClass,
-                                               Object currentParameter)
-            throws NoSuchFieldException, IllegalAccessException {
-        Class<?> superClass = currentParameterClass.getSuperclass();
-        return getFieldValue(fieldName, superClass, currentParameter);
-    }
-
-    private void setValue(Object value, Class<?> currentParameterClass, Object currentParameter)
-            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        setField("Value", value, Serializable.class, currentParameterClass, currentParameter);
-    }
-
-    private void setName(Object name, Class<?> currentParameterClass, Object currentParameter)
-            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        setField("Name", name, String.class, currentParameterClass, currentParameter);
-    }
-
-    private void setField(String fieldId, Object fieldValue, Class<?> fieldType, Class<?> currentParameterClass,
-                          Object currentParameter)
-            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Method setterMethod = currentParameterClass.getMethod("set" + fieldId, fieldType);
-        setterMethod.invoke(currentParameter, fieldValue);
-    }
-
-    private boolean isSerializableSessionObjectMismatch(Class<?> expectedClass, Class<?> currentParameterClass) {
-        // SerializableSessionObject loaded by different classLoaders
-        return SERIALIZABLE_SESSION_OBJECT_CANONICAL_NAME.equals(currentParameterClass.getCanonicalName()) &&
-                expectedClass != currentParameterClass;
+    private ActionDescriptor getActionDescriptor(String className, String methodName) throws ReflectiveOperationException {
+        String actionKey = className + '.' + methodName;
+        ActionDescriptor action = actionDescriptors.get(actionKey);
+        if (action == null) {
+            action = new ActionDescriptor(getActionClass(className), methodName);
+            ActionDescriptor existingAction = actionDescriptors.putIfAbsent(actionKey, action);
+            if (existingAction != null) {
+                action = existingAction;
+            }
+        }
+        return action;
     }
 
     private Class getActionClass(String className) {
@@ -215,7 +187,7 @@ public class JavaExecutor implements Executor {
         return actionClass;
     }
 
-    private Method getMethodByName(Class actionClass, String methodName) {
+    private static Method getMethodByName(Class actionClass, String methodName) {
         Method[] methods = actionClass.getDeclaredMethods();
         Method actionMethod = null;
         for (Method m : methods) {
@@ -226,6 +198,95 @@ public class JavaExecutor implements Executor {
         return actionMethod;
     }
 
+    private static Set<String> getStatelessActions() {
+        Set<String> statelessActions = Sets.newHashSet();
+        String statelessActionsProperty = System.getProperty(JavaExecutionConfigurationConsts.JAVA_EXECUTOR_STATELESS_ACTIONS);
+        if (statelessActionsProperty != null) {
+            for (String actionClassName : statelessActionsProperty.split(",")) {
+                if (!actionClassName.trim().isEmpty()) {
+                    statelessActions.add(actionClassName.trim());
+                }
+            }
+        }
+        return statelessActions;
+    }
+
+    /**
+     * An action resolved in the classloader of this executor
+     */
+    private static class ActionDescriptor {
+        private final Class actionClass;
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+        // the instance of a stateless action is shared by all its invocations
+        private final Object sharedInstance;
+        private final AtomicReferenceArray<SessionObjectConverter> sessionObjectConverters;
+
+        ActionDescriptor(Class actionClass, String methodName) throws ReflectiveOperationException {
+            this.actionClass = actionClass;
+            this.method = getMethodByName(actionClass, methodName);
+            this.parameterTypes = method == null ? new Class<?>[0] : method.getParameterTypes();
+            this.sharedInstance = getStatelessActions().contains(actionClass.getName()) ? actionClass.newInstance() : null;
+            this.sessionObjectConverters = new AtomicReferenceArray<>(parameterTypes.length);
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        Class<?> getParameterType(int index) {
+            return parameterTypes[index];
+        }
+
+        Object getInstance() throws IllegalAccessException, InstantiationException {
+            return sharedInstance != null ? sharedInstance : actionClass.newInstance();
+        }
+
+        SessionObjectConverter getSessionObjectConverter(int index, Class<?> sourceClass)
+                throws NoSuchFieldException, NoSuchMethodException {
+            SessionObjectConverter converter = sessionObjectConverters.get(index);
+            if ((converter == null) || (converter.getSourceClass() != sourceClass)) {
+                converter = new SessionObjectConverter(sourceClass, parameterTypes[index]);
+                sessionObjectConverters.set(index, converter);
+            }
+            return converter;
+        }
+    }
+
+    /**
+     * Copies a SerializableSessionObject loaded by another classloader to the class the action expects
+     */
+    private static class SessionObjectConverter {
+        private final Class<?> sourceClass;
+        private final Class<?> targetClass;
+        private final Field valueField;
+        private final Field nameField;
+        private final Method setValueMethod;
+        private final Method setNameMethod;
+
+        SessionObjectConverter(Class<?> sourceClass, Class<?> targetClass) throws NoSuchFieldException, NoSuchMethodException {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            valueField = sourceClass.getDeclaredField("value");
+            valueField.setAccessible(true);
+            nameField = sourceClass.getSuperclass().getDeclaredField("name");
+            nameField.setAccessible(true);
+            setValueMethod = targetClass.getMethod("setValue", Serializable.class);
+            setNameMethod = targetClass.getMethod("setName", String.class);
+        }
+
+        Class<?> getSourceClass() {
+            return sourceClass;
+        }
+
+        Object convert(Object sourceObject) throws IllegalAccessException, InstantiationException, InvocationTargetException {
+            Object targetObject = targetClass.newInstance();
+            setValueMethod.invoke(targetObject, valueField.get(sourceObject));
+            setNameMethod.invoke(targetObject, nameField.get(sourceObject));
+            return targetObject;
+        }
+    }
+
     @Override
     public void allocate() {
     }
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.runtime.impl.python;
+
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
+import org.python.core.Py;
+import org.python.core.PyCode;
+import org.python.google.common.cache.Cache;
+import org.python.google.common.cache.CacheBuilder;
+
+/**
+ * Bounded cache of compiled python code, keyed by the script text.
+ * Flows evaluate the same expressions over and over, and compiling a script (which generates a java class)
+ * costs much more than running it. Compiled code holds no interpreter state, so it is shared by all executors.
+ */
+class PythonCodeCache {
+    private static final String FILE_NAME = "<string>";
+    private static final String FUTURE_IMPORT = "__future__";
+    private static final int DEFAULT_FLAGS = new CompilerFlags().toBits();
+
+    private final Cache<String, PyCode> execCodes;
+    private final Cache<String, PyCode> evalCodes;
+
+    PythonCodeCache(int maxSize) {
+        execCodes = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        evalCodes = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Compiles a script the same way the interpreter does before executing it.
+     * Scripts that import from __future__ change the interpreter flags while compiled, and scripts compiled after
+     * such flags were set depend on them, so both are always compiled with the interpreter flags and not cached.
+     */
+    PyCode getExecCode(String script, CompilerFlags interpreterFlags) {
+        if (interpreterFlags.toBits() != DEFAULT_FLAGS || script.contains(FUTURE_IMPORT)) {
+            return Py.compile_flags(script, FILE_NAME, CompileMode.exec, interpreterFlags);
+        }
+        PyCode code = execCodes.getIfPresent(script);
+        if (code == null) {
+            code = Py.compile_flags(script, FILE_NAME, CompileMode.exec, new CompilerFlags());
+            execCodes.put(script, code);
+        }
+        return code;
+    }
+
+    PyCode getEvalCode(String expression) {
+        PyCode code = evalCodes.getIfPresent(expression);
+        if (code == null) {
+            code = Py.compile_flags(expression, FILE_NAME, CompileMode.eval, new CompilerFlags());
+            evalCodes.put(expression, code);
+        }
+        return code;
+    }
+
+    long size() {
+        return execCodes.size() + evalCodes.size();
+    }
+}
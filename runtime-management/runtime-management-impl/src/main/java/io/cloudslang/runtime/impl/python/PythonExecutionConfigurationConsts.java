@@ -23,4 +23,6 @@ public class PythonExecutionConfigurationConsts {
     public static final String PYTHON_EXECUTOR_ENGINE = "python.executor.engine";
     public static final String PYTHON_EXECUTOR_CACHE_SIZE = "python.executor.cache.size";
     public static final int PYTHON_EXECUTOR_CACHE_DEFAULT_SIZE = 200;
+    public static final String PYTHON_EXECUTOR_CODE_CACHE_SIZE = "python.executor.code.cache.size";
+    public static final int PYTHON_EXECUTOR_CODE_CACHE_DEFAULT_SIZE = 1000;
 }
@@ -21,6 +21,7 @@ import io.cloudslang.runtime.api.python.PythonExecutionResult;
 import io.cloudslang.runtime.impl.Executor;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
+import org.python.core.CompilerFlags;
 import org.python.core.Py;
 import org.python.core.PyBoolean;
 import org.python.core.PyClass;
@@ -57,6 +58,10 @@ public class PythonExecutor implements Executor {
 
     private static final PythonInterpreter GLOBAL_INTERPRETER = new ThreadSafePythonInterpreter(null);
 
+    private static final PythonCodeCache CODE_CACHE = new PythonCodeCache(Integer.getInteger(
+            PythonExecutionConfigurationConsts.PYTHON_EXECUTOR_CODE_CACHE_SIZE,
+            PythonExecutionConfigurationConsts.PYTHON_EXECUTOR_CODE_CACHE_DEFAULT_SIZE));
+
     /**
      * There is an issue in loaded environment - existing python module not found in PySystem.modules.table
      * although it exists in the table.
@@ -134,7 +139,7 @@ public class PythonExecutor implements Executor {
     }
 
     private PythonExecutionResult exec(String script) {
-        interpreter.exec(script);
+        execScript(script);
         Iterator<PyObject> localsIterator = interpreter.getLocals().asIterable().iterator();
         Map<String, Serializable> returnValue = new HashMap<>();
         while (localsIterator.hasNext()) {
@@ -209,9 +214,9 @@ public class PythonExecutor implements Executor {
         }
 
         if(prepareEnvironmentScript != null && !prepareEnvironmentScript.isEmpty()) {
-            interpreter.exec(prepareEnvironmentScript);
+            execScript(prepareEnvironmentScript);
         }
-        PyObject evalResultAsPyObject = interpreter.eval(script);
+        PyObject evalResultAsPyObject = interpreter.eval(CODE_CACHE.getEvalCode(script));
         Serializable evalResult;
         evalResult = resolveJythonObjectToJavaEval(evalResultAsPyObject, script);
         return evalResult;
@@ -259,6 +264,14 @@ public class PythonExecutor implements Executor {
         return actuallyClosed;
     }
 
+    private void execScript(String script) {
+        if (interpreter instanceof ThreadSafePythonInterpreter) {
+            interpreter.exec(CODE_CACHE.getExecCode(script, ((ThreadSafePythonInterpreter) interpreter).getCompilerFlags()));
+        } else {
+            interpreter.exec(script);
+        }
+    }
+
     private void initInterpreter() {
         interpreter.setLocals(new PyStringMap());
     }
@@ -326,5 +339,9 @@ public class PythonExecutor implements Executor {
         ThreadSafePythonInterpreter(PySystemState systemState) {
             super(null, systemState, true);
         }
+
+        CompilerFlags getCompilerFlags() {
+            return cflags;
+        }
     }
 }
@@ -23,6 +23,8 @@ import io.cloudslang.runtime.api.java.JavaExecutionParametersProvider;
 import io.cloudslang.runtime.impl.AbsExecutionCachedEngineTest;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,10 +32,22 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -101,6 +115,139 @@ public class JavaExecutionCachedEngineTest extends AbsExecutionCachedEngineTest
         verify(javaExecutor).release();
     }
 
+    @Test
+    public void testConcurrentRequestsCreateSingleExecutor() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final CountDownLatch resolve = new CountDownLatch(1);
+        final JavaExecutionCachedEngine engine = new JavaExecutionCachedEngine() {
+            @Override
+            protected DependencyService getDependencyService() {
+                return new DependencyService() {
+                    @Override
+                    public Set<String> getDependencies(Set<String> resources) {
+                        if (!resources.contains("g1:a2:v3")) {
+                            return resources;
+                        }
+                        resolving.countDown();
+                        try {
+                            resolve.await();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        return resources;
+                    }
+                };
+            }
+
+            @Override
+            protected int getCacheSize() {
+                return 2;
+            }
+
+            @Override
+            protected JavaExecutor createNewExecutor(Set<String> filePaths) {
+                created.incrementAndGet();
+                return mock(JavaExecutor.class);
+            }
+        };
+        final Set<String> dependencies = new HashSet<>(Arrays.asList("g1:a2:v3"));
+        ExecutorService service = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<JavaExecutor>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(service.submit(new Callable<JavaExecutor>() {
+                    @Override
+                    public JavaExecutor call() {
+                        return engine.allocateExecutor(dependencies);
+                    }
+                }));
+            }
+            resolving.await();
+            // other dependencies are not blocked by the slow resolution
+            engine.allocateExecutor(new HashSet<>(Arrays.asList("g2:a3:v4")));
+            resolve.countDown();
+
+            JavaExecutor executor = results.get(0).get();
+            for (Future<JavaExecutor> result : results) {
+                assertSame(executor, result.get());
+            }
+        } finally {
+            service.shutdown();
+        }
+        engine.allocateExecutor(new HashSet<>(Arrays.asList("g3:a4:v5")));
+
+        assertEquals(3, created.get());
+        assertEquals(3, engine.getCacheMisses());
+        assertEquals(3, engine.getCacheHits());
+        assertEquals(1, engine.getCacheEvictions());
+        assertEquals(2, engine.getCachedExecutorsCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testNewExecutorIsNotEvictedBeforeItsFirstAllocation() throws Exception {
+        final CountDownLatch allocating = new CountDownLatch(1);
+        final CountDownLatch allocate = new CountDownLatch(1);
+        final Map<String, JavaExecutor> created = new ConcurrentHashMap<>();
+        final JavaExecutionCachedEngine engine = new JavaExecutionCachedEngine() {
+            @Override
+            protected DependencyService getDependencyService() {
+                return new DependencyService() {
+                    @Override
+                    public Set<String> getDependencies(Set<String> resources) {
+                        return resources;
+                    }
+                };
+            }
+
+            @Override
+            protected int getCacheSize() {
+                return 2;
+            }
+
+            @Override
+            protected JavaExecutor createNewExecutor(Set<String> filePaths) {
+                String key = filePaths.iterator().next();
+                JavaExecutor executor = mock(JavaExecutor.class);
+                if (key.equals("g2:a3:v4")) {
+                    doAnswer(new Answer<Void>() {
+                        @Override
+                        public Void answer(InvocationOnMock invocation) throws Throwable {
+                            allocating.countDown();
+                            allocate.await();
+                            return null;
+                        }
+                    }).when(executor).allocate();
+                }
+                created.put(key, executor);
+                return executor;
+            }
+        };
+        engine.allocateExecutor(new HashSet<>(Arrays.asList("g1:a2:v3")));
+
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            Future<JavaExecutor> result = service.submit(new Callable<JavaExecutor>() {
+                @Override
+                public JavaExecutor call() {
+                    return engine.allocateExecutor(new HashSet<>(Arrays.asList("g2:a3:v4")));
+                }
+            });
+            allocating.await();
+            // the executor that is being allocated is newer than the first one, the first one is evicted
+            engine.allocateExecutor(new HashSet<>(Arrays.asList("g3:a4:v5")));
+            allocate.countDown();
+
+            assertSame(created.get("g2:a3:v4"), result.get());
+        } finally {
+            service.shutdown();
+        }
+        verify(created.get("g1:a2:v3")).close();
+        verify(created.get("g2:a3:v4"), never()).close();
+        assertEquals(3, created.size());
+        assertEquals(1, engine.getCacheEvictions());
+    }
+
     @Configuration
     static class TestConfig {
         @Bean
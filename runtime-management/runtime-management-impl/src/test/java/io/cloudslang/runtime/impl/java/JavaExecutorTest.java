@@ -29,6 +29,7 @@ import java.io.File;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
@@ -96,6 +97,42 @@ public class JavaExecutorTest {
         javaExecutor.execute(CLASS_NAME, METHOD_NAME, PARAM_PROVIDER).toString();
     }
 
+    @Test
+    public void testStatelessActionInstanceIsReused() {
+        System.setProperty(JavaExecutionConfigurationConsts.JAVA_EXECUTOR_STATELESS_ACTIONS, CountingAction.class.getName());
+        try {
+            JavaExecutor javaExecutor = new JavaExecutor(new HashSet<String>());
+            int instances = CountingAction.instances.get();
+            assertEquals(1, javaExecutor.execute(CountingAction.class.getName(), "count", PARAM_PROVIDER));
+            assertEquals(2, javaExecutor.execute(CountingAction.class.getName(), "count", PARAM_PROVIDER));
+            assertEquals(instances + 1, CountingAction.instances.get());
+        } finally {
+            System.clearProperty(JavaExecutionConfigurationConsts.JAVA_EXECUTOR_STATELESS_ACTIONS);
+        }
+    }
+
+    @Test
+    public void testActionInstanceIsCreatedPerInvocation() {
+        JavaExecutor javaExecutor = new JavaExecutor(new HashSet<String>());
+        int instances = CountingAction.instances.get();
+        assertEquals(1, javaExecutor.execute(CountingAction.class.getName(), "count", PARAM_PROVIDER));
+        assertEquals(1, javaExecutor.execute(CountingAction.class.getName(), "count", PARAM_PROVIDER));
+        assertEquals(instances + 2, CountingAction.instances.get());
+    }
+
+    public static class CountingAction {
+        static final AtomicInteger instances = new AtomicInteger();
+        private int invocations;
+
+        public CountingAction() {
+            instances.incrementAndGet();
+        }
+
+        public int count() {
+            return ++invocations;
+        }
+    }
+
     @Configuration
     static class TestConfig {
     }
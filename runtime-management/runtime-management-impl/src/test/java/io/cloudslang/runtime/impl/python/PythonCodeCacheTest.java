@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.runtime.impl.python;
+
+import org.junit.Test;
+import org.python.core.CodeFlag;
+import org.python.core.CompilerFlags;
+import org.python.core.PyCode;
+import org.python.core.PyInteger;
+import org.python.core.PyObject;
+import org.python.util.PythonInterpreter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PythonCodeCacheTest {
+
+    @Test
+    public void testEvalCodeIsCompiledOnce() {
+        PythonCodeCache cache = new PythonCodeCache(10);
+        PyCode code = cache.getEvalCode("x + 1");
+        assertSame(code, cache.getEvalCode("x + 1"));
+        assertEquals(1, cache.size());
+
+        PythonInterpreter interpreter = new PythonInterpreter();
+        interpreter.set("x", new PyInteger(2));
+        PyObject result = interpreter.eval(code);
+        assertEquals(3, result.asInt());
+    }
+
+    @Test
+    public void testExecCodeIsCompiledOnce() {
+        PythonCodeCache cache = new PythonCodeCache(10);
+        PyCode code = cache.getExecCode("y = x * 2", new CompilerFlags());
+        assertSame(code, cache.getExecCode("y = x * 2", new CompilerFlags()));
+
+        PythonInterpreter interpreter = new PythonInterpreter();
+        interpreter.set("x", new PyInteger(4));
+        interpreter.exec(code);
+        assertEquals(8, interpreter.get("y").asInt());
+    }
+
+    @Test
+    public void testFutureImportsAreNotCached() {
+        PythonCodeCache cache = new PythonCodeCache(10);
+        CompilerFlags flags = new CompilerFlags();
+        String script = "from __future__ import division";
+        assertNotSame(cache.getExecCode(script, flags), cache.getExecCode(script, flags));
+        assertEquals(0, cache.size());
+
+        // scripts compiled after a future import depend on the interpreter flags
+        flags.setFlag(CodeFlag.CO_FUTURE_DIVISION);
+        assertNotSame(cache.getExecCode("y = 1 / 2", flags), cache.getExecCode("y = 1 / 2", flags));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        PythonCodeCache cache = new PythonCodeCache(2);
+        cache.getEvalCode("1");
+        cache.getEvalCode("2");
+        cache.getEvalCode("3");
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.score.events;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands the events over to a bounded queue, and calls the listener with batches of the queued events from its own thread
+ * So the dispatching thread does not wait for a slow listener, unless the queue is full and the policy is BLOCK
+ */
+public class AsyncScoreEventListener implements ScoreEventListener {
+
+	private static final Logger logger = Logger.getLogger(AsyncScoreEventListener.class);
+
+	private static final long CLOSE_CHECK_INTERVAL = 100L;
+
+	private final ScoreEventListener listener;
+	private final BlockingQueue<ScoreEvent> queue;
+	private final EventOverflowPolicy overflowPolicy;
+	private final int batchSize;
+	private final AtomicLong droppedEvents = new AtomicLong();
+	private final Thread deliveryThread;
+	private volatile boolean closed;
+
+	public AsyncScoreEventListener(ScoreEventListener listener, int queueCapacity, EventOverflowPolicy overflowPolicy, int batchSize) {
+		this.listener = listener;
+		this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+		this.overflowPolicy = overflowPolicy;
+		this.batchSize = Math.max(1, batchSize);
+		this.deliveryThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				deliverEvents();
+			}
+		}, "score-event-listener-" + listener.getClass().getSimpleName());
+		this.deliveryThread.setDaemon(true);
+		this.deliveryThread.start();
+	}
+
+	@Override
+	public void onEvent(ScoreEvent event) throws InterruptedException {
+		if (closed || queue.offer(event)) {
+			return;
+		}
+		if (overflowPolicy == EventOverflowPolicy.DROP) {
+			droppedEvents.incrementAndGet();
+			return;
+		}
+		//the replacing event is queued last, so COALESCE does not keep the dispatch order
+		if ((overflowPolicy == EventOverflowPolicy.COALESCE) && removeQueuedEventOfType(event.getEventType()) && queue.offer(event)) {
+			droppedEvents.incrementAndGet();
+			return;
+		}
+		queue.put(event);
+	}
+
+	/**
+	 * Stops taking new events, the events already in the queue are still delivered
+	 */
+	public void close() {
+		closed = true;
+	}
+
+	public ScoreEventListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @return the number of events that were dropped or replaced because the queue was full
+	 */
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	private boolean removeQueuedEventOfType(String eventType) {
+		for (Iterator<ScoreEvent> iterator = queue.iterator(); iterator.hasNext(); ) {
+			if (Objects.equals(eventType, iterator.next().getEventType())) {
+				iterator.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void deliverEvents() {
+		List<ScoreEvent> batch = new ArrayList<>(batchSize);
+		try {
+			while (!closed || !queue.isEmpty()) {
+				ScoreEvent event = queue.poll(CLOSE_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+				if (event != null) {
+					batch.add(event);
+					queue.drainTo(batch, batchSize - 1);
+					deliverBatch(batch);
+					batch.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void deliverBatch(List<ScoreEvent> batch) throws InterruptedException {
+		if (listener instanceof ScoreEventBatchListener) {
+			try {
+				((ScoreEventBatchListener) listener).onEvents(batch);
+			} catch (Throwable t) {
+				handleListenerFailure(t);
+			}
+		} else {
+			for (ScoreEvent event : batch) {
+				try {
+					listener.onEvent(event);
+				} catch (Throwable t) {
+					handleListenerFailure(t);
+				}
+			}
+		}
+	}
+
+	// a failing listener must not stop the delivery of the next events, only an interruption on close does
+	private void handleListenerFailure(Throwable t) throws InterruptedException {
+		if (closed && (t instanceof InterruptedException)) {
+			throw (InterruptedException) t;
+		}
+		logger.error("Score event listener " + listener.getClass().getName() + " failed to handle events", t);
+	}
+}
@@ -16,6 +16,11 @@
 
 package io.cloudslang.score.events;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,25 +32,93 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class EventBusImpl implements EventBus {
 
-	private Map<ScoreEventListener, Set<String>> handlers = new ConcurrentHashMap<>();
+	// System properties of the asynchronous mode, in which every listener gets its events from its own bounded queue
+	public static final String ASYNC_DISPATCH = "score.event.bus.async";
+	public static final String ASYNC_QUEUE_CAPACITY = "score.event.bus.queue.capacity";
+	public static final String ASYNC_OVERFLOW_POLICY = "score.event.bus.overflow.policy";
+	public static final String ASYNC_BATCH_SIZE = "score.event.bus.batch.size";
 
-	public void subscribe(ScoreEventListener eventListener, Set<String> eventTypes) {
-		handlers.put(eventListener, eventTypes);
+	private final boolean asyncDispatch;
+	private final int queueCapacity;
+	private final EventOverflowPolicy overflowPolicy;
+	private final int batchSize;
+
+	private Map<ScoreEventListener, Subscription> handlers = new ConcurrentHashMap<>();
+
+	// event type --> the listeners of this type, rebuilt on every subscription change so dispatch does a single lookup
+	private volatile Map<String, ScoreEventListener[]> listenersByType = Collections.emptyMap();
+
+	public EventBusImpl() {
+		this(Boolean.getBoolean(ASYNC_DISPATCH),
+				Integer.getInteger(ASYNC_QUEUE_CAPACITY, 10000),
+				EventOverflowPolicy.fromValue(System.getProperty(ASYNC_OVERFLOW_POLICY)),
+				Integer.getInteger(ASYNC_BATCH_SIZE, 100));
+	}
+
+	public EventBusImpl(boolean asyncDispatch, int queueCapacity, EventOverflowPolicy overflowPolicy, int batchSize) {
+		this.asyncDispatch = asyncDispatch;
+		this.queueCapacity = queueCapacity;
+		this.overflowPolicy = overflowPolicy;
+		this.batchSize = batchSize;
 	}
 
-	public void unsubscribe(ScoreEventListener eventListener) {
-		handlers.remove(eventListener);
+	public synchronized void subscribe(ScoreEventListener eventListener, Set<String> eventTypes) {
+		ScoreEventListener dispatchListener = asyncDispatch ?
+				new AsyncScoreEventListener(eventListener, queueCapacity, overflowPolicy, batchSize) : eventListener;
+		close(handlers.put(eventListener, new Subscription(new HashSet<>(eventTypes), dispatchListener)));
+		rebuildListenersIndex();
+	}
+
+	public synchronized void unsubscribe(ScoreEventListener eventListener) {
+		close(handlers.remove(eventListener));
+		rebuildListenersIndex();
 	}
 
     public void dispatch(ScoreEvent... events)  throws InterruptedException {
-        for (ScoreEventListener eventHandler : handlers.keySet()) {
-            Set<String> eventTypes = handlers.get(eventHandler);
-            for (ScoreEvent eventWrapper : events) {
-                if (eventTypes.contains(eventWrapper.getEventType())) {
+        Map<String, ScoreEventListener[]> currentListenersByType = listenersByType;
+        for (ScoreEvent eventWrapper : events) {
+            ScoreEventListener[] eventHandlers = currentListenersByType.get(eventWrapper.getEventType());
+            if (eventHandlers != null) {
+                for (ScoreEventListener eventHandler : eventHandlers) {
                     eventHandler.onEvent(eventWrapper);
                 }
+            }
+		}
+	}
+
+	private void rebuildListenersIndex() {
+		Map<String, List<ScoreEventListener>> listeners = new HashMap<>();
+		for (Subscription subscription : handlers.values()) {
+			for (String eventType : subscription.eventTypes) {
+				List<ScoreEventListener> typeListeners = listeners.get(eventType);
+				if (typeListeners == null) {
+					typeListeners = new ArrayList<>();
+					listeners.put(eventType, typeListeners);
+				}
+				typeListeners.add(subscription.dispatchListener);
 			}
 		}
+		Map<String, ScoreEventListener[]> index = new HashMap<>();
+		for (Map.Entry<String, List<ScoreEventListener>> entry : listeners.entrySet()) {
+			index.put(entry.getKey(), entry.getValue().toArray(new ScoreEventListener[entry.getValue().size()]));
+		}
+		listenersByType = index;
+	}
+
+	private static void close(Subscription subscription) {
+		if ((subscription != null) && (subscription.dispatchListener instanceof AsyncScoreEventListener)) {
+			((AsyncScoreEventListener) subscription.dispatchListener).close();
+		}
+	}
+
+	private static class Subscription {
+		private final Set<String> eventTypes;
+		private final ScoreEventListener dispatchListener; // the listener itself, or its asynchronous queue
+
+		Subscription(Set<String> eventTypes, ScoreEventListener dispatchListener) {
+			this.eventTypes = eventTypes;
+			this.dispatchListener = dispatchListener;
+		}
 	}
 
 }
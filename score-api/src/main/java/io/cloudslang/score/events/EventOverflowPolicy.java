@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.score.events;
+
+/**
+ * What an asynchronous listener does with a new event when its queue is full
+ */
+public enum EventOverflowPolicy {
+	/**
+	 * the dispatching thread waits until the listener takes events from the queue
+	 */
+	BLOCK,
+	/**
+	 * the new event is dropped
+	 */
+	DROP,
+	/**
+	 * the oldest queued event of the same type is removed and the new event is queued last, and it waits like BLOCK if there is no such event.
+	 * so the listener does not get the events in the order they were dispatched
+	 */
+	COALESCE;
+
+	public static EventOverflowPolicy fromValue(String value) {
+		if (value == null) {
+			return BLOCK;
+		}
+		for (EventOverflowPolicy policy : values()) {
+			if (policy.name().equalsIgnoreCase(value.trim())) {
+				return policy;
+			}
+		}
+		throw new IllegalArgumentException("Unknown event overflow policy: " + value);
+	}
+}
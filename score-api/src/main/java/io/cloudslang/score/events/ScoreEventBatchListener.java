@@ -0,0 +1,32 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.score.events;
+
+import java.util.List;
+
+/**
+ * A listener that can handle several events at once, used by the asynchronous dispatch of the event bus
+ */
+public interface ScoreEventBatchListener extends ScoreEventListener {
+
+	/**
+	 * handler of a batch of score events, called instead of onEvent() for every event of the batch
+	 * @param events - the events that were dispatched, in the order of their dispatch
+	 */
+	void onEvents(List<ScoreEvent> events) throws InterruptedException;
+
+}
@@ -16,6 +16,7 @@
 
 package io.cloudslang.score.events;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -24,8 +25,14 @@ import io.cloudslang.score.events.EventBusImpl;
 import io.cloudslang.score.events.ScoreEvent;
 import io.cloudslang.score.events.ScoreEventListener;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class EventBusTest {
 
@@ -70,4 +77,148 @@ public class EventBusTest {
 		Mockito.verify(eventHandler, Mockito.times(0)).onEvent(event);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testDispatchToSeveralListeners() throws Exception {
+		ScoreEventListener otherHandler = Mockito.mock(ScoreEventListener.class);
+		eventBus.subscribe(eventHandler, new HashSet<>(Arrays.asList("type1", "type2")));
+		eventBus.subscribe(otherHandler, new HashSet<>(Arrays.asList("type2")));
+
+		ScoreEvent event1 = new ScoreEvent("type1", "event");
+		ScoreEvent event2 = new ScoreEvent("type2", "event");
+		eventBus.dispatch(event1, event2);
+
+		Mockito.verify(eventHandler, Mockito.times(1)).onEvent(event1);
+		Mockito.verify(eventHandler, Mockito.times(1)).onEvent(event2);
+		Mockito.verify(otherHandler, Mockito.never()).onEvent(event1);
+		Mockito.verify(otherHandler, Mockito.times(1)).onEvent(event2);
+	}
+
+	@Test
+	public void testAsyncDispatch() throws Exception {
+		eventBus = new EventBusImpl(true, 100, EventOverflowPolicy.BLOCK, 10);
+		final List<ScoreEvent> received = Collections.synchronizedList(new ArrayList<ScoreEvent>());
+		final CountDownLatch latch = new CountDownLatch(3);
+		eventBus.subscribe(new ScoreEventListener() {
+			@Override
+			public void onEvent(ScoreEvent event) {
+				received.add(event);
+				latch.countDown();
+			}
+		}, Collections.singleton("type1"));
+
+		ScoreEvent event1 = new ScoreEvent("type1", "event1");
+		ScoreEvent event2 = new ScoreEvent("type1", "event2");
+		ScoreEvent event3 = new ScoreEvent("type1", "event3");
+		eventBus.dispatch(event1, new ScoreEvent("typeX", "event"), event2);
+		eventBus.dispatch(event3);
+
+		Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList(event1, event2, event3), received);
+	}
+
+	@Test
+	public void testAsyncDeliveryContinuesAfterListenerFailures() throws Exception {
+		final List<ScoreEvent> received = Collections.synchronizedList(new ArrayList<ScoreEvent>());
+		final CountDownLatch latch = new CountDownLatch(1);
+		AsyncScoreEventListener listener = new AsyncScoreEventListener(new ScoreEventListener() {
+			@Override
+			public void onEvent(ScoreEvent event) throws InterruptedException {
+				if ("error".equals(event.getEventType())) {
+					throw new AssertionError("listener error");
+				}
+				if ("interrupted".equals(event.getEventType())) {
+					throw new InterruptedException("listener interrupted");
+				}
+				received.add(event);
+				latch.countDown();
+			}
+		}, 10, EventOverflowPolicy.BLOCK, 1);
+
+		listener.onEvent(new ScoreEvent("error", "event1"));
+		listener.onEvent(new ScoreEvent("interrupted", "event2"));
+		ScoreEvent event3 = new ScoreEvent("type1", "event3");
+		listener.onEvent(event3);
+
+		Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList(event3), received);
+		listener.close();
+	}
+
+	@Test
+	public void testAsyncDropWhenQueueIsFull() throws Exception {
+		final CountDownLatch blockListener = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		AsyncScoreEventListener listener = new AsyncScoreEventListener(new ScoreEventListener() {
+			@Override
+			public void onEvent(ScoreEvent event) throws InterruptedException {
+				started.countDown();
+				blockListener.await();
+			}
+		}, 2, EventOverflowPolicy.DROP, 1);
+
+		listener.onEvent(new ScoreEvent("type1", "event0"));
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		listener.onEvent(new ScoreEvent("type1", "event1"));
+		listener.onEvent(new ScoreEvent("type1", "event2"));
+		listener.onEvent(new ScoreEvent("type1", "event3"));
+
+		Assert.assertEquals(2, listener.getQueueSize());
+		Assert.assertEquals(1, listener.getDroppedEvents());
+		blockListener.countDown();
+		listener.close();
+	}
+
+	@Test
+	public void testAsyncCoalesceReplacesEventOfSameType() throws Exception {
+		final CountDownLatch blockListener = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final List<ScoreEvent> received = Collections.synchronizedList(new ArrayList<ScoreEvent>());
+		final CountDownLatch delivered = new CountDownLatch(3);
+		AsyncScoreEventListener listener = new AsyncScoreEventListener(new ScoreEventBatchListener() {
+			@Override
+			public void onEvent(ScoreEvent event) throws InterruptedException {
+				started.countDown();
+				blockListener.await();
+				received.add(event);
+				delivered.countDown();
+			}
+
+			@Override
+			public void onEvents(List<ScoreEvent> events) throws InterruptedException {
+				for (ScoreEvent event : events) {
+					onEvent(event);
+				}
+			}
+		}, 2, EventOverflowPolicy.COALESCE, 10);
+
+		ScoreEvent first = new ScoreEvent("type1", "first");
+		listener.onEvent(first);
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		ScoreEvent status1 = new ScoreEvent("status", "1");
+		ScoreEvent other = new ScoreEvent("type1", "other");
+		ScoreEvent status2 = new ScoreEvent("status", "2");
+		listener.onEvent(status1);
+		listener.onEvent(other);
+		listener.onEvent(status2);
+
+		Assert.assertEquals(1, listener.getDroppedEvents());
+		blockListener.countDown();
+		Assert.assertTrue(delivered.await(10, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList(first, other, status2), received);
+		listener.close();
+	}
+
+	@Test
+	public void testAsyncUnsubscribeStopsDelivery() throws Exception {
+		eventBus = new EventBusImpl(true, 100, EventOverflowPolicy.BLOCK, 10);
+		eventBus.subscribe(eventHandler, Collections.singleton("type1"));
+		eventBus.unsubscribe(eventHandler);
+
+		ScoreEvent event = new ScoreEvent("type1", "event");
+		eventBus.dispatch(event);
+
+		Thread.sleep(300);
+		Mockito.verify(eventHandler, Mockito.never()).onEvent(event);
+	}
+
+}
@@ -30,7 +30,6 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import io.cloudslang.engine.node.services.WorkerNodeService;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.services.QueueDispatcherService;
-import io.cloudslang.engine.queue.services.QueueStateIdGeneratorService;
 import io.cloudslang.engine.queue.services.ScoreEventFactory;
 import io.cloudslang.worker.management.services.WorkerManager;
 import io.cloudslang.worker.management.services.dbsupport.WorkerDbSupportService;
@@ -107,11 +106,6 @@ public class WorkerTest {
 		ScoreEventFactory scoreEventFactory() {
 			return mock(ScoreEventFactory.class);
 		}
-
-		@Bean
-		QueueStateIdGeneratorService queueStateIdGeneratorService(){
-			return mock(QueueStateIdGeneratorService.class);
-		}
 	}
 
 }
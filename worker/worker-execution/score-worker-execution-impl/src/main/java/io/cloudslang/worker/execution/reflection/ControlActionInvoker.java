@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.execution.reflection;
+
+import io.cloudslang.score.api.execution.ExecutionParametersConsts;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * Invokes one control action method on its bean.
+ *
+ * The method is compiled once into a method handle that is bound to the bean and takes its arguments as an array,
+ * and the action data key of every parameter is resolved once.
+ * Reflection is used only when the method can not be reached by a method handle, or when an argument needs a
+ * conversion that reflection does (e.g. an Integer passed to a long parameter).
+ */
+final class ControlActionInvoker {
+
+    private final Object bean;
+    private final Method method;
+    private final MethodHandle methodHandle;
+
+    private final String[] paramNames;
+    private final Class<?>[] paramTypes; // primitive types are replaced by their wrappers
+    private final boolean[] primitiveParams;
+    private final int nonSerializableDataIndex;
+
+    ControlActionInvoker(Object bean, Method method, String[] paramNames) {
+        this.bean = bean;
+        this.method = method;
+        this.paramNames = paramNames;
+
+        Class<?>[] methodParamTypes = method.getParameterTypes();
+        paramTypes = new Class<?>[methodParamTypes.length];
+        primitiveParams = new boolean[methodParamTypes.length];
+        int nonSerializableIndex = -1;
+        for (int i = 0; i < methodParamTypes.length; i++) {
+            primitiveParams[i] = methodParamTypes[i].isPrimitive();
+            paramTypes[i] = MethodType.methodType(methodParamTypes[i]).wrap().returnType();
+            if (ExecutionParametersConsts.NON_SERIALIZABLE_EXECUTION_DATA.equals(paramNames[i])) {
+                nonSerializableIndex = i;
+            }
+        }
+        nonSerializableDataIndex = nonSerializableIndex;
+        methodHandle = createMethodHandle(bean, method);
+    }
+
+    private static MethodHandle createMethodHandle(Object bean, Method method) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(bean);
+            }
+            int paramCount = method.getParameterTypes().length;
+            return handle.asType(MethodType.genericMethodType(paramCount)).asSpreader(Object[].class, paramCount);
+        } catch (IllegalAccessException | ClassCastException ex) {
+            // e.g. a method of a non public class, or a bean that is a proxy of the action class
+            return null;
+        }
+    }
+
+    boolean needsNonSerializableData() {
+        return nonSerializableDataIndex >= 0;
+    }
+
+    Object[] bindArguments(Map<String, ?> actionData, Object nonSerializableData) {
+        Object[] args = new Object[paramNames.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = i == nonSerializableDataIndex ? nonSerializableData : actionData.get(paramNames[i]);
+        }
+        return args;
+    }
+
+    Object invoke(Object[] args) throws InvocationTargetException, IllegalAccessException {
+        if (methodHandle == null || !matchesExactly(args)) {
+            return method.invoke(bean, args);
+        }
+        try {
+            return (Object) methodHandle.invokeExact(args);
+        } catch (Throwable ex) {
+            // same as reflection, the exceptions thrown by the action are wrapped
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    private boolean matchesExactly(Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null ? primitiveParams[i] : !paramTypes[i].isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -32,9 +32,7 @@ import org.springframework.core.ParameterNameDiscoverer;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -54,10 +52,8 @@ public class ReflectionAdapterImpl implements ReflectionAdapter, ApplicationCont
     @Autowired
     private SessionDataHandler sessionDataHandler;
     private ApplicationContext applicationContext;
-    private Map<String, Object> cacheBeans = new ConcurrentHashMap<>();
-    private Map<String, Method> cacheMethods = new ConcurrentHashMap<>();
+    private Map<String, ControlActionInvoker> cacheInvokers = new ConcurrentHashMap<>();
     private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
-    private Map<String, String[]> cacheParamNames = new ConcurrentHashMap<>();
 
     private static Long getExecutionIdFromActionData(Map<String, ?> actionData) {
         ExecutionRuntimeServices executionRuntimeServices = (ExecutionRuntimeServices) actionData.get(
@@ -84,11 +80,10 @@ public class ReflectionAdapterImpl implements ReflectionAdapter, ApplicationCont
         if (logger.isDebugEnabled()) logger.debug(
                 "Executing control action [" + actionMetadata.getClassName() + '.' + actionMetadata.getMethodName() + ']');
         try {
-            Object actionBean = getActionBean(actionMetadata);
-            Method actionMethod = getActionMethod(actionMetadata);
-            Object[] arguments = buildParametersArray(actionMethod, actionData);
+            ControlActionInvoker invoker = getActionInvoker(actionMetadata);
+            Object[] arguments = buildParametersArray(invoker, actionData);
             if (logger.isTraceEnabled()) logger.trace("Invoking...");
-            Object result = actionMethod.invoke(actionBean, arguments);
+            Object result = invoker.invoke(arguments);
             clearStateAfterInvocation(actionData);
             if (logger.isDebugEnabled()) logger.debug(
                     "Control action [" + actionMetadata.getClassName() + '.' + actionMetadata.getMethodName() + "] done");
@@ -114,82 +109,64 @@ public class ReflectionAdapterImpl implements ReflectionAdapter, ApplicationCont
         sessionDataHandler.setSessionDataInactive(executionId, getRunningExecutionIdFromActionData(actionData));
     }
 
-    private Object getActionBean(
-            ControlActionMetadata actionMetadata) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
-        Object bean = cacheBeans.get(actionMetadata.getClassName());
-        if (bean == null) {
-            if (logger.isTraceEnabled())
-                logger.trace(actionMetadata.getClassName() + " wasn't found in the beans cache");
+    private ControlActionInvoker getActionInvoker(ControlActionMetadata actionMetadata) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+        String actionFullName = actionMetadata.getClassName() + '.' + actionMetadata.getMethodName();
+        ControlActionInvoker invoker = cacheInvokers.get(actionFullName);
+        if (invoker == null) {
+            if (logger.isTraceEnabled()) logger.trace(actionFullName + " wasn't found in the invokers cache");
             Class<?> actionClass = Class.forName(actionMetadata.getClassName());
-            try {
-                bean = applicationContext.getBean(actionClass);
-            } catch (Exception ex) { // Not a spring bean
-                if (logger.isTraceEnabled()) logger.trace(ex);
-            }
-            if (bean == null) bean = actionClass.newInstance();
-            cacheBeans.put(actionMetadata.getClassName(), bean);
-            if (logger.isTraceEnabled()) logger.trace(actionMetadata.getClassName() + " placed in the beans cache");
+            Method actionMethod = getActionMethod(actionClass, actionMetadata);
+            invoker = new ControlActionInvoker(getActionBean(actionClass), actionMethod,
+                    parameterNameDiscoverer.getParameterNames(actionMethod));
+            cacheInvokers.put(actionFullName, invoker);
+            if (logger.isTraceEnabled()) logger.trace(actionFullName + " placed in the invokers cache");
+        }
+        return invoker;
+    }
+
+    private Object getActionBean(Class<?> actionClass) throws InstantiationException, IllegalAccessException {
+        Object bean = null;
+        try {
+            bean = applicationContext.getBean(actionClass);
+        } catch (Exception ex) { // Not a spring bean
+            if (logger.isTraceEnabled()) logger.trace(ex);
         }
+        if (bean == null) bean = actionClass.newInstance();
         return bean;
     }
 
-    private Method getActionMethod(ControlActionMetadata actionMetadata) throws ClassNotFoundException {
-        Method actionMethod = cacheMethods.get(actionMetadata.getClassName() + '.' + actionMetadata.getMethodName());
-        if (actionMethod == null) {
-            if (logger.isTraceEnabled()) logger.trace(
-                    actionMetadata.getClassName() + '.' + actionMetadata.getMethodName() + " wasn't found in the methods cache");
-            for (Method method : Class.forName(actionMetadata.getClassName()).getMethods()) {
-                if (method.getName().equals(actionMetadata.getMethodName())) {
-                    actionMethod = method;
-                    cacheMethods.put(actionMetadata.getClassName() + '.' + actionMetadata.getMethodName(), method);
-                    break;
-                }
+    private Method getActionMethod(Class<?> actionClass, ControlActionMetadata actionMetadata) {
+        for (Method method : actionClass.getMethods()) {
+            if (method.getName().equals(actionMetadata.getMethodName())) {
+                return method;
             }
-        } else if (logger.isTraceEnabled()) {
-            logger.trace(
-                    actionMetadata.getClassName() + '.' + actionMetadata.getMethodName() + " was found in the methods cache");
         }
-        if (actionMethod == null) {
-            String errMessage = "Method: " + actionMetadata.getMethodName() + " was not found in class:  " + actionMetadata
-                    .getClassName();
-            logger.error(errMessage);
-            throw new FlowExecutionException(errMessage);
-        }
-        return actionMethod;
+        String errMessage = "Method: " + actionMetadata.getMethodName() + " was not found in class:  " + actionMetadata
+                .getClassName();
+        logger.error(errMessage);
+        throw new FlowExecutionException(errMessage);
     }
 
-    private Object[] buildParametersArray(Method actionMethod, Map<String, ?> actionData) {
-        String actionFullName = actionMethod.getDeclaringClass().getName() + "." + actionMethod.getName();
-        String[] paramNames = cacheParamNames.get(actionFullName);
-        if (paramNames == null) {
-            paramNames = parameterNameDiscoverer.getParameterNames(actionMethod);
-            cacheParamNames.put(actionFullName, paramNames);
-        }
-        List<Object> args = new ArrayList<>(paramNames.length);
-        for (String paramName : paramNames) {
-            if (ExecutionParametersConsts.NON_SERIALIZABLE_EXECUTION_DATA.equals(paramName)) {
-                final Long executionId = getExecutionIdFromActionData(actionData);
-                final Long runningId = getRunningExecutionIdFromActionData(actionData);
-                final Map<String, Object> globalSessionsExecutionData = sessionDataHandler
-                        .getGlobalSessionsExecutionData(executionId);
-                final Map<String, Object> sessionObjectExecutionData = sessionDataHandler
-                        .getSessionsExecutionData(executionId, runningId);
-
-                final Map<String, Map<String, Object>> nonSerializableExecutionData = new HashMap<>(2);
-                nonSerializableExecutionData.put(GLOBAL_SESSION_OBJECT, globalSessionsExecutionData);
-                nonSerializableExecutionData.put(SESSION_OBJECT, sessionObjectExecutionData);
-
-                args.add(nonSerializableExecutionData);
-                // If the control action requires non-serializable session data, we add it to the arguments array
-                // and set the session data as active, so that it won't be cleared
-                sessionDataHandler.setGlobalSessionDataActive(executionId);
-                sessionDataHandler.setSessionDataActive(executionId, runningId);
-                continue;
-            }
-            Object param = actionData.get(paramName);
-            args.add(param);
+    private Object[] buildParametersArray(ControlActionInvoker invoker, Map<String, ?> actionData) {
+        if (!invoker.needsNonSerializableData()) {
+            return invoker.bindArguments(actionData, null);
         }
-        return args.toArray(new Object[args.size()]);
+        final Long executionId = getExecutionIdFromActionData(actionData);
+        final Long runningId = getRunningExecutionIdFromActionData(actionData);
+        final Map<String, Object> globalSessionsExecutionData = sessionDataHandler
+                .getGlobalSessionsExecutionData(executionId);
+        final Map<String, Object> sessionObjectExecutionData = sessionDataHandler
+                .getSessionsExecutionData(executionId, runningId);
+
+        final Map<String, Map<String, Object>> nonSerializableExecutionData = new HashMap<>(2);
+        nonSerializableExecutionData.put(GLOBAL_SESSION_OBJECT, globalSessionsExecutionData);
+        nonSerializableExecutionData.put(SESSION_OBJECT, sessionObjectExecutionData);
+
+        // If the control action requires non-serializable session data, we add it to the arguments array
+        // and set the session data as active, so that it won't be cleared
+        sessionDataHandler.setGlobalSessionDataActive(executionId);
+        sessionDataHandler.setSessionDataActive(executionId, runningId);
+        return invoker.bindArguments(actionData, nonSerializableExecutionData);
     }
 
     @Override
@@ -20,9 +20,7 @@ import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,32 +33,48 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SessionDataHandlerImpl implements SessionDataHandler {
 
     private static final Logger logger = Logger.getLogger(SessionDataHandlerImpl.class);
+    private static final int EXPIRY_WHEEL_SIZE = 512; //the session timeout is split between the buckets of the wheel
+    private static final Long NO_BRANCH = Long.MIN_VALUE; //the key of the session data of a flow that is not in a branch
     @Autowired(required = false)
     @Qualifier("scoreSessionTimeout")
     private Long sessionTimeout = 1800000L; // 30 minutes
     private Map<Long, SessionDataHolder> globalSessionsExecutionDataMap = new ConcurrentHashMap<>();
     private Map<Long, Map<Long, SessionDataHolder>> sessionsExecutionDataMap = new ConcurrentHashMap<>();
+    private volatile TimerWheel<SessionDataHolder> expiryWheel; //created on first use, after the timeout is injected
 
     @Override
     public void sessionTimeOutScheduler() {
-        invalidateTimedOutSessions(globalSessionsExecutionDataMap);
-        sessionsExecutionDataMap.values().forEach(this::invalidateTimedOutSessions);
+        invalidateTimedOutSessions(System.currentTimeMillis());
     }
 
-    private void invalidateTimedOutSessions(Map<Long, SessionDataHolder> executionDataMap) {
-        final List<SessionDataHolder> sessionDataHolders = new ArrayList<>(executionDataMap.values());
-        long currentTime = System.currentTimeMillis();
-        for (SessionDataHolder sessionDataHolder : sessionDataHolders) {
-            if (logger.isDebugEnabled()) logger.debug("Checking if we need to clean. Current time: " + (new Date(
+    void invalidateTimedOutSessions(long currentTime) {
+        // only the sessions in the buckets that came due are checked, and not all the sessions
+        final List<SessionDataHolder> timedOutSessions = getExpiryWheel().expire(currentTime);
+        for (SessionDataHolder sessionDataHolder : timedOutSessions) {
+            if (sessionDataHolder.getDeadline() > currentTime) {
+                // touched after it was taken out of the wheel
+                getExpiryWheel().schedule(sessionDataHolder);
+                continue;
+            }
+            if (logger.isDebugEnabled()) logger.debug("Cleaning session. Current time: " + (new Date(
                     currentTime)).toString() + ".   session time: " + (new Date(
                     sessionDataHolder.getTimeStamp())).toString());
-            if (currentTime - sessionDataHolder.getTimeStamp() > sessionTimeout) {
-                if (logger.isDebugEnabled()) logger.debug("Cleaning session. Current time: " + (new Date(
-                        currentTime)).toString() + ".   session time: " + (new Date(
-                        sessionDataHolder.getTimeStamp())).toString());
-                executionDataMap.remove(sessionDataHolder.getExecutionId());
+            sessionDataHolder.invalidate();
+        }
+    }
+
+    private TimerWheel<SessionDataHolder> getExpiryWheel() {
+        TimerWheel<SessionDataHolder> wheel = expiryWheel;
+        if (wheel == null) {
+            synchronized (this) {
+                wheel = expiryWheel;
+                if (wheel == null) {
+                    wheel = new TimerWheel<>(EXPIRY_WHEEL_SIZE, sessionTimeout / EXPIRY_WHEEL_SIZE, System.currentTimeMillis());
+                    expiryWheel = wheel;
+                }
             }
         }
+        return wheel;
     }
 
     @Override
@@ -75,9 +89,23 @@ public class SessionDataHandlerImpl implements SessionDataHandler {
     }
 
     private SessionDataHolder getSessionDataHolder(Long executionId, Long branchId) {
-        final Map<Long, SessionDataHolder> sessionMap = sessionsExecutionDataMap.computeIfAbsent(executionId,
-                (e) -> new HashMap<>());
-        return sessionMap.computeIfAbsent(branchId, SessionDataHolder::new);
+        final Map<Long, SessionDataHolder> sessionMap = sessionsExecutionDataMap.get(executionId);
+        final SessionDataHolder sessionDataHolder = sessionMap == null ? null : sessionMap.get(branchKey(branchId));
+        if (sessionDataHolder != null) {
+            return sessionDataHolder;
+        }
+        // created under the lock of the execution entry, so it can not be lost to a timeout of the last branch
+        final SessionDataHolder[] result = new SessionDataHolder[1];
+        sessionsExecutionDataMap.compute(executionId, (e, branches) -> {
+            final Map<Long, SessionDataHolder> branchesMap = branches == null ? new ConcurrentHashMap<>() : branches;
+            result[0] = branchesMap.computeIfAbsent(branchKey(branchId), (b) -> new SessionDataHolder(executionId, b));
+            return branchesMap;
+        });
+        return result[0];
+    }
+
+    private static Long branchKey(Long branchId) {
+        return branchId == null ? NO_BRANCH : branchId;
     }
 
     @Override
@@ -93,7 +121,11 @@ public class SessionDataHandlerImpl implements SessionDataHandler {
     }
 
     private SessionDataHolder getGlobalSessionDataHolder(Long executionId) {
-        return globalSessionsExecutionDataMap.computeIfAbsent(executionId, SessionDataHolder::new);
+        final SessionDataHolder globalSessionDataHolder = globalSessionsExecutionDataMap.get(executionId);
+        if (globalSessionDataHolder != null) {
+            return globalSessionDataHolder;
+        }
+        return globalSessionsExecutionDataMap.computeIfAbsent(executionId, (e) -> new SessionDataHolder(executionId, null));
     }
 
     @Override
@@ -108,8 +140,11 @@ public class SessionDataHandlerImpl implements SessionDataHandler {
     public void setSessionDataInactive(Long executionId,Long branchId) {
         if (branchId == null)
             return;
-        final SessionDataHolder nonSerializableExecutionData = getSessionDataHolder(executionId, branchId);
-        nonSerializableExecutionData.resetTimeStamp();
+        // only sessions that were already created are reset, most actions never use one
+        final Map<Long, SessionDataHolder> sessionMap = executionId == null ? null : sessionsExecutionDataMap.get(executionId);
+        final SessionDataHolder nonSerializableExecutionData = sessionMap == null ? null : sessionMap.get(branchKey(branchId));
+        if (nonSerializableExecutionData != null)
+            nonSerializableExecutionData.resetTimeStamp();
     }
 
     @Override
@@ -124,21 +159,24 @@ public class SessionDataHandlerImpl implements SessionDataHandler {
     public void setGlobalSessionDataInactive(Long executionId) {
         if (executionId == null)
             return;
-        final SessionDataHolder nonSerializableExecutionData = getGlobalSessionDataHolder(executionId);
-        nonSerializableExecutionData.resetTimeStamp();
+        final SessionDataHolder nonSerializableExecutionData = globalSessionsExecutionDataMap.get(executionId);
+        if (nonSerializableExecutionData != null)
+            nonSerializableExecutionData.resetTimeStamp();
     }
 
     /**
      * Holds the session data and timestamp it was last accessed
      */
-    class SessionDataHolder {
-        private Long executionId;
-        private Map<String, Object> sessionData;
-        private long timeStamp;
+    class SessionDataHolder extends TimerWheel.Entry {
+        private final Long executionId;
+        private final Long branchId; // the key in the branches map, null for the global session data of the execution
+        private final Map<String, Object> sessionData;
+        private volatile long timeStamp;
 
-        SessionDataHolder(Long executionId) {
+        SessionDataHolder(Long executionId, Long branchId) {
             this.executionId = executionId;
-            sessionData = new HashMap<>();
+            this.branchId = branchId;
+            sessionData = new ConcurrentHashMap<>();
             timeStamp = System.currentTimeMillis();
         }
 
@@ -154,9 +192,16 @@ public class SessionDataHandlerImpl implements SessionDataHandler {
             return timeStamp;
         }
 
+        @Override
+        long getDeadline() {
+            final long currentTimeStamp = timeStamp;
+            return currentTimeStamp == Long.MAX_VALUE ? Long.MAX_VALUE : currentTimeStamp + sessionTimeout;
+        }
+
         void resetTimeStamp() {
             if (logger.isDebugEnabled()) logger.debug("Resetting session timestamp for execution: " + executionId);
             timeStamp = System.currentTimeMillis();
+            getExpiryWheel().schedule(this);
         }
 
         // set value to large long value before running an action. Reset it after action finishes -
@@ -165,6 +210,17 @@ public class SessionDataHandlerImpl implements SessionDataHandler {
             if (logger.isDebugEnabled()) logger.debug("Locking session timestamp for execution: " + executionId);
             timeStamp = Long.MAX_VALUE;
         }
+
+        void invalidate() {
+            if (branchId == null) {
+                globalSessionsExecutionDataMap.remove(executionId, this);
+            } else {
+                sessionsExecutionDataMap.computeIfPresent(executionId, (e, branches) -> {
+                    branches.remove(branchId, this);
+                    return branches.isEmpty() ? null : branches;
+                });
+            }
+        }
     }
 
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.execution.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hashed timer wheel for entries that are touched often and expire rarely.
+ * A touch only changes the deadline of the entry, the entry is moved to the bucket of its new deadline lazily
+ * when its current bucket comes due. So an expiry pass costs the entries of the due buckets and not all the entries.
+ */
+class TimerWheel<E extends TimerWheel.Entry> {
+
+    /**
+     * An entry of the wheel, an entry is in at most one bucket at a time
+     */
+    abstract static class Entry {
+        final AtomicBoolean scheduled = new AtomicBoolean(); //whether the entry is in a bucket
+
+        /**
+         * @return the time in millis this entry expires at, Long.MAX_VALUE if it can not expire right now
+         */
+        abstract long getDeadline();
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Set<E>> buckets;
+    private volatile long lastTick; //the last tick that expire() went over
+
+    /**
+     * @param wheelSize the number of buckets, rounded up to a power of 2
+     * @param tickMillis the time range of a single bucket
+     * @param currentTime the time the wheel starts at
+     */
+    TimerWheel(int wheelSize, long tickMillis, long currentTime) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = Math.max(1, tickMillis);
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(ConcurrentHashMap.<E>newKeySet());
+        }
+        this.lastTick = currentTime / this.tickMillis;
+    }
+
+    /**
+     * Adds the entry to the wheel if it is not there already
+     * Entries already in the wheel are not moved - their new deadline is checked when their bucket comes due
+     */
+    void schedule(E entry) {
+        if (entry.scheduled.compareAndSet(false, true)) {
+            bucketOf(entry.getDeadline()).add(entry);
+        }
+    }
+
+    /**
+     * Goes over the buckets that came due since the last call and takes out the entries that expired
+     * @return the expired entries, they are not in the wheel anymore
+     */
+    synchronized List<E> expire(long currentTime) {
+        List<E> expired = new ArrayList<>();
+        long currentTick = currentTime / tickMillis;
+        long ticks = Math.min(currentTick - lastTick, buckets.size());
+        for (long tick = currentTick - ticks + 1; tick <= currentTick; tick++) {
+            Set<E> bucket = buckets.get((int) (tick & mask));
+            for (Iterator<E> iterator = bucket.iterator(); iterator.hasNext(); ) {
+                E entry = iterator.next();
+                long deadline = entry.getDeadline();
+                if (deadline <= currentTime) {
+                    iterator.remove();
+                    entry.scheduled.set(false);
+                    expired.add(entry);
+                } else if (deadline == Long.MAX_VALUE) {
+                    //the entry can not expire now - it is added again when it gets a deadline
+                    iterator.remove();
+                    entry.scheduled.set(false);
+                    if (entry.getDeadline() != Long.MAX_VALUE) {
+                        schedule(entry);
+                    }
+                } else {
+                    Set<E> deadlineBucket = bucketOf(deadline);
+                    if (deadlineBucket != bucket) {
+                        iterator.remove();
+                        deadlineBucket.add(entry);
+                    }
+                }
+            }
+        }
+        lastTick = currentTick;
+        return expired;
+    }
+
+    private Set<E> bucketOf(long deadline) {
+        //the first tick at or after the deadline, a deadline that already passed goes to the next bucket that comes due
+        long tick = Math.max(deadline / tickMillis + (deadline % tickMillis == 0 ? 0 : 1), lastTick + 1);
+        return buckets.get((int) (tick & mask));
+    }
+}
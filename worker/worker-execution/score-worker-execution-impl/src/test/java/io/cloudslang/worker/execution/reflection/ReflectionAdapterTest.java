@@ -18,6 +18,7 @@ package io.cloudslang.worker.execution.reflection;
 
 import io.cloudslang.worker.execution.services.SessionDataHandler;
 import io.cloudslang.score.api.ControlActionMetadata;
+import io.cloudslang.score.exceptions.FlowExecutionException;
 import junit.framework.Assert;
 import org.apache.log4j.Logger;
 import org.junit.Test;
@@ -28,6 +29,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -94,6 +96,43 @@ public class ReflectionAdapterTest {
 		Assert.assertNull(result);
 	}
 
+	@Test
+	public void executeControlActionWideningTest() {
+		ControlActionMetadata metadata = new ControlActionMetadata("io.cloudslang.worker.execution.reflection.ReflectionAdapterTestHelper", "myMethod_5");
+		Map<String, Object> actionData = new HashMap<>();
+		actionData.put("parameter_1", 5);
+		actionData.put("parameter_2", 3L);
+		Assert.assertEquals(8L, adapter.executeControlAction(metadata, actionData));
+	}
+
+	@Test
+	public void executeControlActionWrongArgumentsTest() {
+		ControlActionMetadata metadata = new ControlActionMetadata("io.cloudslang.worker.execution.reflection.ReflectionAdapterTestHelper", "myMethod_2");
+		Map<String, Object> actionData = new HashMap<>();
+		actionData.put("parameter_1", "5");
+		actionData.put("parameter_2", 3);
+		try {
+			adapter.executeControlAction(metadata, actionData);
+			Assert.fail();
+		} catch(FlowExecutionException ex) {
+			Assert.assertTrue(ex.getMessage().startsWith("Failed to run the action! Wrong arguments were passed"));
+		}
+	}
+
+	@Test
+	public void executeControlActionExceptionTest() {
+		ControlActionMetadata metadata = new ControlActionMetadata("io.cloudslang.worker.execution.reflection.ReflectionAdapterTestHelper", "myMethod_6");
+		Map<String, Object> actionData = new HashMap<>();
+		actionData.put("parameter_1", "TEST");
+		try {
+			adapter.executeControlAction(metadata, actionData);
+			Assert.fail();
+		} catch(FlowExecutionException ex) {
+			Assert.assertEquals("action failed: TEST", ex.getMessage());
+			Assert.assertTrue(ex.getCause() instanceof InvocationTargetException);
+		}
+	}
+
 	@Configuration
 	static class Context {
 
@@ -39,4 +39,14 @@ public class ReflectionAdapterTestHelper {
 		return executionContext;
 	}
 
+	@SuppressWarnings("static-method")
+	public long myMethod_5(long parameter_1, long parameter_2) {
+		return parameter_1 + parameter_2;
+	}
+
+	@SuppressWarnings({ "static-method", "unused" })
+	public void myMethod_6(String parameter_1) {
+		throw new IllegalStateException("action failed: " + parameter_1);
+	}
+
 }
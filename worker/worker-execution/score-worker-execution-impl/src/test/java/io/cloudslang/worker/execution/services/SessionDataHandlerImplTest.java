@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.execution.services;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionDataHandlerImplTest {
+
+    private static final long SESSION_TIMEOUT = 1800000L;
+
+    private SessionDataHandlerImpl sessionDataHandler = new SessionDataHandlerImpl();
+
+    @Test
+    public void testSessionDataIsKeptUntilTimeout() {
+        sessionDataHandler.getSessionsExecutionData(1L, 2L).put("key", "value");
+        sessionDataHandler.getGlobalSessionsExecutionData(1L).put("key", "value");
+
+        sessionDataHandler.invalidateTimedOutSessions(System.currentTimeMillis() + SESSION_TIMEOUT / 2);
+        Assert.assertEquals("value", sessionDataHandler.getSessionsExecutionData(1L, 2L).get("key"));
+        Assert.assertEquals("value", sessionDataHandler.getGlobalSessionsExecutionData(1L).get("key"));
+    }
+
+    @Test
+    public void testSessionDataIsClearedAfterTimeout() {
+        sessionDataHandler.getSessionsExecutionData(1L, 2L).put("key", "value");
+        sessionDataHandler.getGlobalSessionsExecutionData(1L).put("key", "value");
+
+        sessionDataHandler.invalidateTimedOutSessions(System.currentTimeMillis() + 2 * SESSION_TIMEOUT);
+        Assert.assertTrue(sessionDataHandler.getSessionsExecutionData(1L, 2L).isEmpty());
+        Assert.assertTrue(sessionDataHandler.getGlobalSessionsExecutionData(1L).isEmpty());
+    }
+
+    @Test
+    public void testActiveSessionIsNotCleared() {
+        sessionDataHandler.getSessionsExecutionData(1L, 2L).put("key", "value");
+        sessionDataHandler.setSessionDataActive(1L, 2L);
+
+        sessionDataHandler.invalidateTimedOutSessions(System.currentTimeMillis() + 2 * SESSION_TIMEOUT);
+        Assert.assertEquals("value", sessionDataHandler.getSessionsExecutionData(1L, 2L).get("key"));
+    }
+
+    @Test
+    public void testInactiveSessionIsClearedAfterTimeout() {
+        sessionDataHandler.getSessionsExecutionData(1L, 2L).put("key", "value");
+        sessionDataHandler.setSessionDataActive(1L, 2L);
+        long currentTime = System.currentTimeMillis();
+        sessionDataHandler.invalidateTimedOutSessions(currentTime + 2 * SESSION_TIMEOUT);
+
+        sessionDataHandler.setSessionDataInactive(1L, 2L);
+        sessionDataHandler.invalidateTimedOutSessions(currentTime + 4 * SESSION_TIMEOUT);
+        Assert.assertTrue(sessionDataHandler.getSessionsExecutionData(1L, 2L).isEmpty());
+    }
+
+    @Test
+    public void testSessionDataOutsideOfBranch() {
+        sessionDataHandler.getSessionsExecutionData(1L, null).put("key", "value");
+        Assert.assertEquals("value", sessionDataHandler.getSessionsExecutionData(1L, null).get("key"));
+        Assert.assertTrue(sessionDataHandler.getGlobalSessionsExecutionData(1L).isEmpty());
+
+        sessionDataHandler.invalidateTimedOutSessions(System.currentTimeMillis() + 2 * SESSION_TIMEOUT);
+        Assert.assertTrue(sessionDataHandler.getSessionsExecutionData(1L, null).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.execution.services;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class TimerWheelTest {
+
+    private TimerWheel<TestEntry> timerWheel = new TimerWheel<>(8, 10, 0);
+
+    @Test
+    public void testEntryExpiresOnlyAfterDeadline() {
+        TestEntry entry = new TestEntry(35);
+        timerWheel.schedule(entry);
+
+        Assert.assertTrue(timerWheel.expire(20).isEmpty());
+        Assert.assertTrue(timerWheel.expire(30).isEmpty());
+        Assert.assertEquals(Collections.singletonList(entry), timerWheel.expire(40));
+        Assert.assertTrue(timerWheel.expire(200).isEmpty());
+    }
+
+    @Test
+    public void testTouchedEntryMovesToItsNewBucket() {
+        TestEntry entry = new TestEntry(25);
+        timerWheel.schedule(entry);
+        entry.deadline = 55;
+        timerWheel.schedule(entry); //already in the wheel, only the deadline changed
+
+        Assert.assertTrue(timerWheel.expire(30).isEmpty());
+        Assert.assertTrue(timerWheel.expire(50).isEmpty());
+        Assert.assertEquals(Collections.singletonList(entry), timerWheel.expire(60));
+    }
+
+    @Test
+    public void testDeadlineBeyondTheWheelIsKept() {
+        TestEntry entry = new TestEntry(250);
+        timerWheel.schedule(entry);
+
+        Assert.assertTrue(timerWheel.expire(100).isEmpty());
+        Assert.assertTrue(timerWheel.expire(200).isEmpty());
+        Assert.assertEquals(Collections.singletonList(entry), timerWheel.expire(300));
+    }
+
+    @Test
+    public void testEntryWithoutDeadlineLeavesTheWheelUntilScheduledAgain() {
+        TestEntry entry = new TestEntry(Long.MAX_VALUE);
+        timerWheel.schedule(entry);
+
+        Assert.assertTrue(timerWheel.expire(500).isEmpty());
+        entry.deadline = 520;
+        timerWheel.schedule(entry);
+        Assert.assertTrue(timerWheel.expire(510).isEmpty());
+        Assert.assertEquals(Collections.singletonList(entry), timerWheel.expire(530));
+    }
+
+    private static class TestEntry extends TimerWheel.Entry {
+        private long deadline;
+
+        TestEntry(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        long getDeadline() {
+            return deadline;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+import io.cloudslang.score.facade.entities.Execution;
+
+/**
+ * Decides how long an execution keeps a worker thread before other executions get it.
+ * Define a bean of this type in the worker context to replace the default {@code TimeSliceSchedulingPolicy}.
+ */
+public interface ExecutionSchedulingPolicy {
+
+    enum Decision {
+        /** run the next step on the current thread */
+        CONTINUE,
+        /** give the thread to other executions, the execution stays in the worker memory */
+        YIELD,
+        /** persist the execution and give the thread to other executions */
+        CHECKPOINT
+    }
+
+    /**
+     * Called after every step of a regular (not split) execution.
+     *
+     * @param nextStepExecution the execution of the next step
+     * @param stepsInSlice the number of steps run since the execution got the thread
+     * @param sliceMillis the time since the execution got the thread
+     * @param millisSinceCheckpoint the time since the execution was last persisted by the worker
+     * @param waitingExecutions the number of executions waiting in the worker for a thread
+     * @return what to do before the next step
+     */
+    Decision decide(Execution nextStepExecution, int stepsInSlice, long sliceMillis, long millisSinceCheckpoint, int waitingExecutions);
+}
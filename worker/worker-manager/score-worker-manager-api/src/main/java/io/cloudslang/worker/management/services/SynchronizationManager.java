@@ -16,6 +16,8 @@
 
 package io.cloudslang.worker.management.services;
 
+import java.util.function.BooleanSupplier;
+
 /**
  * Created with IntelliJ IDEA.
  * User: kravtsov
@@ -35,8 +37,15 @@ public interface SynchronizationManager {
     void startGetMessages();
     void finishGetMessages();
 
-    void waitForMessages() throws InterruptedException;
-    void waitForDrain() throws InterruptedException;
+    /**
+     * Waits while the out buffer is empty. Puts made in the meanwhile wake up the waiting thread.
+     */
+    void waitForMessages(BooleanSupplier bufferEmpty) throws InterruptedException;
+
+    /**
+     * Waits while the out buffer is full. Drains made in the meanwhile wake up the waiting thread.
+     */
+    void waitForDrain(BooleanSupplier bufferFull) throws InterruptedException;
 
     void startDrain();
     void finishDrain();
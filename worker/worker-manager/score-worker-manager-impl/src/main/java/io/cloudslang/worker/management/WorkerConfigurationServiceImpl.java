@@ -16,7 +16,8 @@
 
 package io.cloudslang.worker.management;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 
 import io.cloudslang.orchestrator.entities.MergedConfigurationDataContainer;
@@ -38,9 +39,11 @@ public class WorkerConfigurationServiceImpl implements WorkerConfigurationServic
 
 	private static final Logger log = Logger.getLogger(WorkerConfigurationServiceImpl.class);
 
-	private volatile List<Long> cancelledExecutions;
+	// hash sets, since they are looked up for every step the worker runs
+	private volatile Set<Long> cancelledExecutions;
 	private volatile Set<String> pausedExecutions;
-	private volatile List<String> workerGroups;
+	private volatile Set<String> workerGroups;
+	private volatile long configurationVersion = MergedConfigurationDataContainer.NO_VERSION;
 	private volatile boolean enabled;
 
 	@Autowired
@@ -68,15 +71,20 @@ public class WorkerConfigurationServiceImpl implements WorkerConfigurationServic
 
 	public void refresh() {
 		if(!enabled) return;
-		MergedConfigurationDataContainer mergedConfigurationDataContainer = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid());
+		MergedConfigurationDataContainer mergedConfigurationDataContainer = mergedConfigurationService.fetchMergedConfiguration(getWorkerUuid(), configurationVersion);
+		if(!mergedConfigurationDataContainer.isModified()) {
+			if(log.isTraceEnabled()) log.trace("Worker configuration version " + configurationVersion + " did not change");
+			return;
+		}
 		setCanceledExecutions(mergedConfigurationDataContainer);
 		setPausedExecutions(mergedConfigurationDataContainer);
 		setWorkerGroups(mergedConfigurationDataContainer);
+		configurationVersion = mergedConfigurationDataContainer.getVersion();
 	}
 
 	protected void setCanceledExecutions(MergedConfigurationDataContainer mergedConfigurationDataContainer) {
 		try {
-			cancelledExecutions = mergedConfigurationDataContainer.getCancelledExecutions();
+			cancelledExecutions = toSet(mergedConfigurationDataContainer.getCancelledExecutions());
 		} catch(Exception ex) {
 			log.error("Failed to fetch cancelled information: ", ex);
 		}
@@ -84,7 +92,7 @@ public class WorkerConfigurationServiceImpl implements WorkerConfigurationServic
 
 	protected void setPausedExecutions(MergedConfigurationDataContainer mergedConfigurationDataContainer) {
 		try {
-			pausedExecutions = mergedConfigurationDataContainer.getPausedExecutions();
+			pausedExecutions = toSet(mergedConfigurationDataContainer.getPausedExecutions());
 		} catch(Exception ex) {
 			log.error("Failed to fetch paused information: ", ex);
 		}
@@ -92,12 +100,16 @@ public class WorkerConfigurationServiceImpl implements WorkerConfigurationServic
 
 	protected void setWorkerGroups(MergedConfigurationDataContainer mergedConfigurationDataContainer) {
 		try {
-			workerGroups = mergedConfigurationDataContainer.getWorkerGroups();
+			workerGroups = toSet(mergedConfigurationDataContainer.getWorkerGroups());
 		} catch(Exception ex) {
 			log.error("Failed to fetch worker group information: ", ex);
 		}
 	}
 
+	private static <T> Set<T> toSet(Collection<T> elements) {
+		return elements == null ? null : new HashSet<>(elements);
+	}
+
 	protected static String getWorkerUuid() {
 		return System.getProperty("worker.uuid");
 	}
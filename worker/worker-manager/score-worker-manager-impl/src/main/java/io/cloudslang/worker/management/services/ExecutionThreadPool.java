@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One generation of the worker execution threads. Recovery shuts a generation down and starts a new one.
+ * The generation a thread runs for is kept in a thread local, so it does not depend on how the executor names its threads.
+ */
+class ExecutionThreadPool {
+
+    private static final Logger logger = Logger.getLogger(ExecutionThreadPool.class);
+
+    private static final ThreadLocal<ExecutionThreadPool> currentPool = new ThreadLocal<>();
+
+    private final ExecutorService executorService;
+    //null when the executor itself limits the number of running steps
+    private final Semaphore runningPermits;
+    //steps that were submitted and did not start running yet
+    private final AtomicInteger waitingTasks = new AtomicInteger();
+    //statistics for the InBuffer sizing
+    private final AtomicLong startedTasks = new AtomicLong();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+
+    ExecutionThreadPool(ExecutionThreadPoolType type, int numberOfThreads, String threadNamePrefix) {
+        ExecutorService executor;
+        try {
+            executor = type.createExecutor(numberOfThreads, threadNamePrefix);
+        } catch (UnsupportedOperationException ex) {
+            logger.warn(ex.getMessage() + ", using a " + ExecutionThreadPoolType.FIXED.getValue() + " thread pool instead");
+            type = ExecutionThreadPoolType.FIXED;
+            executor = type.createExecutor(numberOfThreads, threadNamePrefix);
+        }
+        executorService = executor;
+        runningPermits = type.limitsConcurrency() ? null : new Semaphore(numberOfThreads);
+    }
+
+    Future submit(Runnable runnable) {
+        final ExecutionTask task = new ExecutionTask(runnable);
+        waitingTasks.incrementAndGet();
+        FutureTask<Object> future = new FutureTask<Object>(task, null) {
+            @Override
+            protected void done() {
+                task.stopWaiting(); //cancelled before it started
+            }
+        };
+        try {
+            executorService.execute(future);
+        } catch (RuntimeException ex) {
+            task.stopWaiting();
+            throw ex;
+        }
+        return future;
+    }
+
+    int getWaitingTasksCount() {
+        return waitingTasks.get();
+    }
+
+    long getStartedTasksCount() {
+        return startedTasks.get();
+    }
+
+    long getCompletedTasksCount() {
+        return completedTasks.get();
+    }
+
+    /**
+     * @return the total time the started tasks waited in the pool before they started
+     */
+    long getQueueWaitNanos() {
+        return queueWaitNanos.get();
+    }
+
+    boolean isCurrentThreadInPool() {
+        return currentPool.get() == this && !executorService.isShutdown();
+    }
+
+    void shutdownNow() {
+        executorService.shutdownNow();
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executorService.awaitTermination(timeout, unit);
+    }
+
+    private class ExecutionTask implements Runnable {
+
+        private final Runnable runnable;
+        private final AtomicBoolean waiting = new AtomicBoolean(true);
+        private final long submitNanos = System.nanoTime();
+
+        ExecutionTask(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            ExecutionThreadPool previousPool = currentPool.get();
+            currentPool.set(ExecutionThreadPool.this);
+            try {
+                if (runningPermits != null) {
+                    runningPermits.acquire();
+                }
+                try {
+                    stopWaiting();
+                    queueWaitNanos.addAndGet(System.nanoTime() - submitNanos);
+                    startedTasks.incrementAndGet();
+                    runnable.run();
+                } finally {
+                    completedTasks.incrementAndGet();
+                    if (runningPermits != null) {
+                        runningPermits.release();
+                    }
+                }
+            } catch (InterruptedException ex) {
+                //cancelled while waiting for a free slot
+                Thread.currentThread().interrupt();
+            } finally {
+                stopWaiting();
+                if (previousPool == null) {
+                    currentPool.remove();
+                } else {
+                    currentPool.set(previousPool);
+                }
+            }
+        }
+
+        void stopWaiting() {
+            if (waiting.compareAndSet(true, false)) {
+                waitingTasks.decrementAndGet();
+            }
+        }
+    }
+}
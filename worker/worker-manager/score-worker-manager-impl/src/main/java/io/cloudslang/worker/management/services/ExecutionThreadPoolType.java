@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The kinds of executors the worker can run execution steps on, configured by the
+ * executionThreadPoolType attribute of the worker configuration.
+ */
+public enum ExecutionThreadPoolType {
+
+    /**
+     * A fixed pool of numberOfExecutionThreads threads over a FIFO queue.
+     */
+    FIXED("fixed") {
+        @Override
+        ExecutorService createExecutor(int numberOfThreads, String threadNamePrefix) {
+            return new ThreadPoolExecutor(numberOfThreads,
+                    numberOfThreads,
+                    Long.MAX_VALUE, TimeUnit.NANOSECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new WorkerThreadFactory(threadNamePrefix));
+        }
+    },
+
+    /**
+     * A work stealing pool with a parallelism of numberOfExecutionThreads, the steps are taken in FIFO order.
+     */
+    WORK_STEALING("workStealing") {
+        @Override
+        ExecutorService createExecutor(int numberOfThreads, final String threadNamePrefix) {
+            return new ForkJoinPool(numberOfThreads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                @Override
+                public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName(threadNamePrefix + "-" + thread.getPoolIndex());
+                    return thread;
+                }
+            }, null, true);
+        }
+    },
+
+    /**
+     * A new virtual thread for every step, up to numberOfExecutionThreads steps run at the same time.
+     * Requires a JDK with virtual threads, steps that block on remote calls do not hold a platform thread.
+     */
+    VIRTUAL("virtual") {
+        @Override
+        ExecutorService createExecutor(int numberOfThreads, String threadNamePrefix) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException ex) {
+                throw new UnsupportedOperationException("Virtual threads are not supported by Java " + System.getProperty("java.version"), ex);
+            }
+        }
+
+        @Override
+        boolean limitsConcurrency() {
+            return false;
+        }
+    };
+
+    private final String value;
+
+    ExecutionThreadPoolType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    abstract ExecutorService createExecutor(int numberOfThreads, String threadNamePrefix);
+
+    /**
+     * @return true if the executor itself runs at most numberOfExecutionThreads steps at the same time
+     */
+    boolean limitsConcurrency() {
+        return true;
+    }
+
+    /**
+     * @param value the configured value, null for the default fixed pool
+     */
+    public static ExecutionThreadPoolType fromValue(String value) {
+        if (value == null) {
+            return FIXED;
+        }
+        for (ExecutionThreadPoolType type : values()) {
+            if (type.value.equalsIgnoreCase(value) || type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown execution thread pool type: " + value);
+    }
+}
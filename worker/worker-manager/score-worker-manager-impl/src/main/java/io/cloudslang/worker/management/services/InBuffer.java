@@ -46,7 +46,7 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
     private static final Logger logger = Logger.getLogger(InBuffer.class);
 
     private final static long MEMORY_THRESHOLD = 50000000; // 50 Mega byte
-    private final static int MINIMUM_GC_DELTA = 10000; // minimum delta between garbage collections in milliseconds
+    private final static long DEFAULT_TARGET_BUFFER_MILLIS = 2000; // how much work the buffer holds at the measured rate
 
     @Autowired
     private QueueDispatcherService queueDispatcher;
@@ -62,13 +62,24 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
     @Qualifier("coolDownPollingMillis")
     private Integer coolDownPollingMillis = 200;
 
+    // max time to wait in the engine for new messages when the buffer is empty, 0 means regular polling
+    private long longPollTimeoutMillis = 1000;
+
     private Thread fillBufferThread = new Thread(this);
 
     private boolean inShutdown;
 
     private boolean endOfInit = false;
 
-    private long gcTimer = System.currentTimeMillis();
+    private boolean adaptive;
+
+    private long targetBufferMillis = DEFAULT_TARGET_BUFFER_MILLIS;
+
+    // null when the buffer is sized only by the static capacity
+    private volatile InBufferSizer sizer;
+
+    // counts the worker recoveries, written only by the recovery thread
+    private volatile long recoveries;
 
     @Autowired
     private WorkerManager workerManager;
@@ -89,7 +100,14 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
     private void init(){
         capacity = Integer.getInteger("worker.inbuffer.capacity",capacity);
         coolDownPollingMillis = Integer.getInteger("worker.inbuffer.coolDownPollingMillis",coolDownPollingMillis);
-        logger.info("InBuffer capacity is set to :" + capacity + ", coolDownPollingMillis is set to :"+ coolDownPollingMillis);
+        longPollTimeoutMillis = Long.getLong("worker.inbuffer.longPollTimeoutMillis",longPollTimeoutMillis);
+        logger.info("InBuffer capacity is set to :" + capacity + ", coolDownPollingMillis is set to :"+ coolDownPollingMillis +
+                ", longPollTimeoutMillis is set to :" + longPollTimeoutMillis);
+        adaptive = Boolean.parseBoolean(System.getProperty("worker.inbuffer.adaptive", "true"));
+        if (adaptive) {
+            targetBufferMillis = Long.getLong("worker.inbuffer.targetBufferMillis", targetBufferMillis);
+            logger.info("InBuffer is sized adaptively up to its capacity, targetBufferMillis is set to :" + targetBufferMillis);
+        }
     }
 
 
@@ -112,14 +130,34 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
                     }
 
                     if (needToPoll()) {
-                        int messagesToGet = capacity - workerManager.getInBufferSize();
-
-                        if (logger.isDebugEnabled()) logger.debug("Polling messages from queue (max " + messagesToGet + ")");
-                        List<ExecutionMessage> newMessages = queueDispatcher.poll(workerUuid, messagesToGet);
+                        int bufferSize = workerManager.getInBufferSize();
+                        int messagesToGet = getCapacity() - bufferSize;
+                        //when there is nothing to run we wait in the engine until new messages are assigned to us
+                        boolean longPoll = longPollTimeoutMillis > 0 && bufferSize == 0;
+
+                        if (logger.isDebugEnabled()) logger.debug("Polling messages from queue (max " + messagesToGet + ", long poll " + longPoll + ")");
+                        List<ExecutionMessage> newMessages;
+                        if (longPoll) {
+                            //recovery must not wait while the engine holds the long poll, so the lock is released meanwhile
+                            long recoveriesBeforePoll = recoveries;
+                            syncManager.finishGetMessages();
+                            newMessages = queueDispatcher.poll(workerUuid, messagesToGet, longPollTimeoutMillis);
+                            syncManager.startGetMessages();
+
+                            if (Thread.interrupted() || recoveries != recoveriesBeforePoll) {
+                                //the messages were not acknowledged, so they are polled again or recovered by the engine
+                                logger.info("Worker recovery happened during the long poll, dropping " + newMessages.size() + " polled messages");
+                                continue;
+                            }
+                        }
+                        else {
+                            newMessages = queueDispatcher.poll(workerUuid, messagesToGet);
+                        }
                         if (executionsActivityListener != null) {
                             executionsActivityListener.onActivate(extract(newMessages, on(ExecutionMessage.class).getExecStateId()));
                         }
                         if (logger.isDebugEnabled()) logger.debug("Received " + newMessages.size() + " messages from queue");
+                        recordPayloads(newMessages);
 
                         if (!newMessages.isEmpty()) {
                             //we must acknowledge the messages that we took from the queue
@@ -135,7 +173,8 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
                         else {
                             syncManager.finishGetMessages(); //release all locks before going to sleep!!!
 
-                            Thread.sleep(coolDownPollingMillis); //if there are no messages - sleep a while
+                            //if there are no messages - sleep a while, the long poll already waited in the engine
+                            Thread.sleep(longPoll ? coolDownPollingMillis/8 : coolDownPollingMillis);
                         }
                     }
                     else {
@@ -164,7 +203,25 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
 
         if (logger.isDebugEnabled()) logger.debug("InBuffer size: " + bufferSize);
 
-        return bufferSize < (capacity * 0.2) && checkFreeMemorySpace(MEMORY_THRESHOLD);
+        if (sizer == null) {
+            return bufferSize < (capacity * 0.2) && checkFreeMemorySpace(MEMORY_THRESHOLD);
+        }
+        sizer.update(System.currentTimeMillis(), workerManager.getCompletedStepsCount(), workerManager.getStartedStepsCount(),
+                workerManager.getStepsQueueWaitNanos(), getPresumableFreeMemory());
+        if (logger.isDebugEnabled()) logger.debug("InBuffer capacity: " + sizer.getCapacity() + ", refill threshold: " + sizer.getRefillThreshold());
+
+        return bufferSize < sizer.getRefillThreshold() && checkFreeMemorySpace(MEMORY_THRESHOLD);
+    }
+
+    private void recordPayloads(List<ExecutionMessage> messages) {
+        if (sizer == null) {
+            return;
+        }
+        for (ExecutionMessage message : messages) {
+            if (message.getPayload() != null && message.getPayload().getData() != null) {
+                sizer.recordPayload(message.getPayload().getData().length);
+            }
+        }
     }
 
     private void ackMessages(List<ExecutionMessage> newMessages) throws InterruptedException {
@@ -184,13 +241,20 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
 
 
     public void addExecutionMessage(ExecutionMessage msg) throws InterruptedException {
+        addExecutionMessage(msg, 0);
+    }
+
+    /**
+     * @param lastCheckpointTime when the worker last persisted an execution that yielded its thread, 0 if it was just persisted
+     */
+    public void addExecutionMessage(ExecutionMessage msg, long lastCheckpointTime) throws InterruptedException {
         try{
             syncManager.startGetMessages(); //this is a public method that can push new executions from outside - from execution threads
             //We need to check if the current execution thread was interrupted while waiting for the lock
             if(Thread.currentThread().isInterrupted()){
                 throw new InterruptedException("Thread was interrupted while waiting on the lock in fillBufferPeriodically()!");
             }
-            addExecutionMessageInner(msg);
+            addExecutionMessageInner(msg, lastCheckpointTime);
         }
         finally {
             syncManager.finishGetMessages();
@@ -198,8 +262,13 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
     }
 
     private void addExecutionMessageInner(ExecutionMessage msg) {
+        addExecutionMessageInner(msg, 0);
+    }
+
+    private void addExecutionMessageInner(ExecutionMessage msg, long lastCheckpointTime) {
         SimpleExecutionRunnable simpleExecutionRunnable = simpleExecutionRunnableFactory.getObject();
         simpleExecutionRunnable.setExecutionMessage(msg);
+        simpleExecutionRunnable.setLastCheckpointTime(lastCheckpointTime);
         Long executionId = null;
         if (!StringUtils.isEmpty(msg.getMsgId())) {
             executionId = Long.valueOf(msg.getMsgId());
@@ -212,6 +281,11 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
         if (applicationEvent instanceof ContextRefreshedEvent && ! endOfInit) {
             endOfInit = true;
             inShutdown = false;
+            //the sizer needs the number of execution threads, the worker manager may not be initialized yet in init()
+            if (adaptive) {
+                sizer = new InBufferSizer(capacity, workerManager.getExecutionThreadsCount(), targetBufferMillis,
+                        2L * coolDownPollingMillis, MEMORY_THRESHOLD);
+            }
             fillBufferThread.setName("WorkerFillBufferThread");
             fillBufferThread.start();
         } else if (applicationEvent instanceof ContextClosedEvent) {
@@ -224,28 +298,28 @@ public class InBuffer implements WorkerRecoveryListener, ApplicationListener, Ru
         fillBufferPeriodically();
     }
 
+    //back-pressure: the buffer is not filled until the running steps free enough memory, the JVM collects the garbage by itself
     public boolean checkFreeMemorySpace(long threshold){
-        double allocatedMemory      = Runtime.getRuntime().totalMemory()-Runtime.getRuntime().freeMemory();
-        double presumableFreeMemory = Runtime.getRuntime().maxMemory() - allocatedMemory;
-        boolean result = presumableFreeMemory > threshold;
+        boolean result = getPresumableFreeMemory() > threshold;
         if (! result) {
             logger.warn("InBuffer would not poll messages, because there is not enough free memory.");
-            if (System.currentTimeMillis() > (gcTimer + MINIMUM_GC_DELTA)){
-                logger.warn("Trying to initiate garbage collection");
-                System.gc();
-                gcTimer = System.currentTimeMillis();
-            }
         }
         return result;
     }
 
+    private static long getPresumableFreeMemory() {
+        long allocatedMemory = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        return Runtime.getRuntime().maxMemory() - allocatedMemory;
+    }
+
     @Override
     public void doRecovery() {
+        recoveries++;
         //We must interrupt the inBuffer thread in case it is stuck in await() because the outBuffer is full
         fillBufferThread.interrupt();
     }
 
     public int getCapacity() {
-        return capacity;
+        return sizer == null ? capacity : sizer.getCapacity();
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+/**
+ * Sizes the InBuffer from what the worker actually does, instead of a static capacity:
+ * <ul>
+ *     <li>the buffer holds about targetBufferMillis of work at the measured step completion rate</li>
+ *     <li>when steps wait in the worker longer than that, the buffer shrinks so other workers can take the messages</li>
+ *     <li>the buffered payloads must fit in the free memory above the memory threshold</li>
+ *     <li>the refill threshold is what will be consumed until the next poll, so the buffer does not run dry</li>
+ * </ul>
+ * The configured capacity is the upper limit. Until the first measurements it behaves like the static buffer.
+ */
+class InBufferSizer {
+
+    private static final double SMOOTHING = 0.3; // weight of the newest sample in the moving averages
+    private static final double STATIC_REFILL_RATIO = 0.2;
+    private static final int PAYLOAD_MEMORY_FACTOR = 4; // a deserialized execution takes more memory than its payload
+    private static final long MIN_SAMPLE_MILLIS = 100;
+
+    private final int maxCapacity;
+    private final int minCapacity;
+    private final long targetBufferMillis;
+    private final long refillLeadMillis;
+    private final long memoryThreshold;
+
+    private long lastSampleMillis;
+    private long lastCompleted;
+    private long lastStarted;
+    private long lastQueueWaitNanos;
+
+    private double completionsPerMilli = -1;
+    private double queueWaitMillis = -1;
+    private double payloadBytes;
+
+    private volatile int capacity;
+    private volatile int refillThreshold;
+
+    InBufferSizer(int maxCapacity, int minCapacity, long targetBufferMillis, long refillLeadMillis, long memoryThreshold) {
+        this.maxCapacity = Math.max(1, maxCapacity);
+        this.minCapacity = Math.max(1, Math.min(minCapacity, this.maxCapacity));
+        this.targetBufferMillis = targetBufferMillis;
+        this.refillLeadMillis = refillLeadMillis;
+        this.memoryThreshold = memoryThreshold;
+        capacity = this.maxCapacity;
+        refillThreshold = Math.max(1, (int) (this.maxCapacity * STATIC_REFILL_RATIO));
+    }
+
+    synchronized void recordPayload(int bytes) {
+        payloadBytes = payloadBytes == 0 ? bytes : average(payloadBytes, bytes);
+    }
+
+    /**
+     * @param nowMillis the current time
+     * @param completed the number of steps completed so far
+     * @param started the number of steps started so far
+     * @param queueWaitNanos the total time the started steps waited before they started
+     * @param freeMemory the memory the JVM can still allocate
+     */
+    synchronized void update(long nowMillis, long completed, long started, long queueWaitNanos, long freeMemory) {
+        //after a recovery the counters start from zero again
+        if (lastSampleMillis == 0 || completed < lastCompleted || started < lastStarted) {
+            setBaseline(nowMillis, completed, started, queueWaitNanos);
+            return;
+        }
+        long elapsed = nowMillis - lastSampleMillis;
+        if (elapsed < MIN_SAMPLE_MILLIS) {
+            return;
+        }
+
+        double completionsSample = (double) (completed - lastCompleted) / elapsed;
+        completionsPerMilli = completionsPerMilli < 0 ? completionsSample : average(completionsPerMilli, completionsSample);
+        if (started > lastStarted) {
+            double waitSample = (queueWaitNanos - lastQueueWaitNanos) / 1000000.0 / (started - lastStarted);
+            queueWaitMillis = queueWaitMillis < 0 ? waitSample : average(queueWaitMillis, waitSample);
+        }
+        setBaseline(nowMillis, completed, started, queueWaitNanos);
+
+        double desired = completionsPerMilli * targetBufferMillis;
+        if (queueWaitMillis > targetBufferMillis) {
+            desired = desired * targetBufferMillis / queueWaitMillis;
+        }
+        if (payloadBytes > 0) {
+            desired = Math.min(desired, (freeMemory - memoryThreshold) / (payloadBytes * PAYLOAD_MEMORY_FACTOR));
+        }
+        int newCapacity = (int) Math.max(minCapacity, Math.min(maxCapacity, Math.round(desired)));
+        capacity = newCapacity;
+        refillThreshold = (int) Math.max(1, Math.min(newCapacity, Math.round(completionsPerMilli * refillLeadMillis)));
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int getRefillThreshold() {
+        return refillThreshold;
+    }
+
+    private void setBaseline(long nowMillis, long completed, long started, long queueWaitNanos) {
+        lastSampleMillis = nowMillis;
+        lastCompleted = completed;
+        lastStarted = started;
+        lastQueueWaitNanos = queueWaitNanos;
+    }
+
+    private static double average(double current, double sample) {
+        return current + SMOOTHING * (sample - current);
+    }
+}
@@ -29,11 +29,16 @@ import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 import static ch.lambdaj.Lambda.*;
 
@@ -60,9 +65,27 @@ public class OutboundBufferImpl implements OutboundBuffer, WorkerRecoveryListene
     @Autowired(required = false)
     private ExecutionsActivityListener executionsActivityListener;
 
-	private List<Message> buffer = new ArrayList<>();
+	// messages are put to the shard of the putting thread, so execution threads do not contend on one queue.
+	// the sequence keeps the order of the puts, the drain merges the shards back by it
+	private final List<ConcurrentLinkedQueue<SequencedMessage>> shards = createShards();
+	private final AtomicLong sequence = new AtomicLong();
 
-	private int currentWeight;
+	private final AtomicInteger currentWeight = new AtomicInteger();
+	private final AtomicInteger currentSize = new AtomicInteger();
+
+	private final BooleanSupplier bufferEmpty = new BooleanSupplier() {
+		@Override
+		public boolean getAsBoolean() {
+			return currentSize.get() <= 0;
+		}
+	};
+
+	private final BooleanSupplier bufferFull = new BooleanSupplier() {
+		@Override
+		public boolean getAsBoolean() {
+			return currentWeight.get() >= maxBufferWeight;
+		}
+	};
 
 	private int maxBufferWeight = Integer.getInteger("out.buffer.max.buffer.weight", 30000);
 	private int maxBulkWeight = Integer.getInteger("out.buffer.max.bulk.weight", 1500);
@@ -90,19 +113,20 @@ public class OutboundBufferImpl implements OutboundBuffer, WorkerRecoveryListene
                     logger.debug("Current thread was not interrupted! Proceeding to put messages to OutBuffer...");
             }
 
-            while (currentWeight >= maxBufferWeight){
+            if (bufferFull.getAsBoolean()){
                 logger.warn("Outbound buffer is full. Waiting...");
-                syncManager.waitForDrain();
+                syncManager.waitForDrain(bufferFull);
             }
 
             // in case of multiple messages create a single compound message
             // to make sure that it will be processed in a single transaction
             Message message = messages.length==1? messages[0]: new CompoundMessage(messages);
 
-            //put message into the buffer
-            buffer.add(message);
+            //put message into the buffer, the counters are updated after it so a drain never waits for a message that is already there
+            getShard().add(new SequencedMessage(sequence.getAndIncrement(), message));
 
-            currentWeight += message.getWeight();
+            currentWeight.addAndGet(message.getWeight());
+            currentSize.incrementAndGet();
 			if (logger.isTraceEnabled()) logger.trace(message.getClass().getSimpleName() + " added to the buffer. " + getStatus());
 		} catch (InterruptedException ex) {
 			logger.warn("Buffer put action was interrupted", ex);
@@ -117,18 +141,16 @@ public class OutboundBufferImpl implements OutboundBuffer, WorkerRecoveryListene
 		List<Message> bufferToDrain;
 		try{
             syncManager.startDrain();
-			while (buffer.isEmpty()){
+			if (bufferEmpty.getAsBoolean()){
 				if (logger.isDebugEnabled()){
                     logger.debug("buffer is empty. Waiting to drain...");
                 }
-				syncManager.waitForMessages();
+				syncManager.waitForMessages(bufferEmpty);
 			}
 
 			if (logger.isDebugEnabled()) logger.debug("buffer is going to be drained. " + getStatus());
 
-			bufferToDrain = buffer;
-			buffer = new ArrayList<>();
-			currentWeight = 0;
+			bufferToDrain = takeMessages();
 		} catch (InterruptedException e) {
 			logger.warn("Drain outgoing buffer was interrupted while waiting for messages on the buffer");
 			return;
@@ -136,7 +158,50 @@ public class OutboundBufferImpl implements OutboundBuffer, WorkerRecoveryListene
 			syncManager.finishDrain();
 		}
 
-		drainInternal(bufferToDrain);
+		if (!bufferToDrain.isEmpty()) {
+			drainInternal(bufferToDrain);
+		}
+	}
+
+	/**
+	 * Takes the messages that were put before this call from all the shards, in the order they were put.
+	 * A message put by a thread after another message was put (by any thread) is never taken without it:
+	 * the taking stops at the first message of a shard that got its sequence after the call started.
+	 */
+	private List<Message> takeMessages() {
+		long sequenceLimit = sequence.get();
+		List<SequencedMessage> taken = new ArrayList<>();
+		for (ConcurrentLinkedQueue<SequencedMessage> shard : shards) {
+			SequencedMessage sequencedMessage = shard.peek();
+			while (sequencedMessage != null && sequencedMessage.sequence < sequenceLimit) {
+				taken.add(shard.poll());
+				sequencedMessage = shard.peek();
+			}
+		}
+		Collections.sort(taken, SEQUENCE_ORDER);
+
+		List<Message> messages = new ArrayList<>(taken.size());
+		int takenWeight = 0;
+		for (SequencedMessage sequencedMessage : taken) {
+			messages.add(sequencedMessage.message);
+			takenWeight += sequencedMessage.message.getWeight();
+		}
+		currentWeight.addAndGet(-takenWeight);
+		currentSize.addAndGet(-messages.size());
+		return messages;
+	}
+
+	private ConcurrentLinkedQueue<SequencedMessage> getShard() {
+		return shards.get((int) (Thread.currentThread().getId() % shards.size()));
+	}
+
+	private static List<ConcurrentLinkedQueue<SequencedMessage>> createShards() {
+		int shardsNumber = Integer.getInteger("out.buffer.shards", Runtime.getRuntime().availableProcessors());
+		List<ConcurrentLinkedQueue<SequencedMessage>> shards = new ArrayList<>(shardsNumber);
+		for (int i = 0; i < shardsNumber; i++) {
+			shards.add(new ConcurrentLinkedQueue<SequencedMessage>());
+		}
+		return shards;
 	}
 
 	private void drainInternal(List<Message> bufferToDrain){
@@ -211,12 +276,12 @@ public class OutboundBufferImpl implements OutboundBuffer, WorkerRecoveryListene
 
 	@Override
 	public int getSize() {
-		return buffer.size();
+		return currentSize.get();
 	}
 
 	@Override
 	public int getWeight() {
-		return currentWeight;
+		return currentWeight.get();
 	}
 
     @Override
@@ -226,7 +291,7 @@ public class OutboundBufferImpl implements OutboundBuffer, WorkerRecoveryListene
 
     @Override
 	public String getStatus() {
-		return "Buffer status: [W:" + currentWeight + '/' + maxBufferWeight + ",S:" + buffer.size() + "]";
+		return "Buffer status: [W:" + currentWeight.get() + '/' + maxBufferWeight + ",S:" + currentSize.get() + "]";
 	}
 
 	@Override
@@ -234,8 +299,28 @@ public class OutboundBufferImpl implements OutboundBuffer, WorkerRecoveryListene
         if (logger.isDebugEnabled()){
             logger.debug("OutboundBuffer is in recovery, clearing buffer.");
         }
-        buffer.clear();
-        currentWeight = 0 ;
+        for (ConcurrentLinkedQueue<SequencedMessage> shard : shards) {
+            shard.clear();
+        }
+        currentWeight.set(0);
+        currentSize.set(0);
+    }
+
+    private static final Comparator<SequencedMessage> SEQUENCE_ORDER = new Comparator<SequencedMessage>() {
+        @Override
+        public int compare(SequencedMessage message1, SequencedMessage message2) {
+            return Long.compare(message1.sequence, message2.sequence);
+        }
+    };
+
+    private static class SequencedMessage {
+        private final long sequence;
+        private final Message message;
+
+        SequencedMessage(long sequence, Message message) {
+            this.sequence = sequence;
+            this.message = message;
+        }
     }
 
     private class CompoundMessage implements Message{
@@ -21,7 +21,6 @@ import io.cloudslang.engine.queue.entities.ExecStatus;
 import io.cloudslang.engine.queue.entities.ExecutionMessage;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.entities.Payload;
-import io.cloudslang.engine.queue.services.QueueStateIdGeneratorService;
 import io.cloudslang.orchestrator.entities.SplitMessage;
 import io.cloudslang.score.facade.TempConstants;
 import io.cloudslang.score.facade.entities.Execution;
@@ -54,8 +53,6 @@ public class SimpleExecutionRunnable implements Runnable {
 
     private ExecutionMessage executionMessage;
 
-    private QueueStateIdGeneratorService queueStateIdGeneratorService;
-
     private String workerUUID;
 
     private WorkerConfigurationService workerConfigurationService;
@@ -64,12 +61,15 @@ public class SimpleExecutionRunnable implements Runnable {
 
     private WorkerManager workerManager;
 
+    private ExecutionSchedulingPolicy schedulingPolicy;
+
+    private long lastCheckpointTime; //when the worker last persisted the execution, carried over when the execution yields
+
     public SimpleExecutionRunnable(ExecutionService executionService,
                                    OutboundBuffer outBuffer,
                                    InBuffer inBuffer,
                                    ExecutionMessageConverter converter,
                                    EndExecutionCallback endExecutionCallback,
-                                   QueueStateIdGeneratorService queueStateIdGeneratorService,
                                    String workerUUID,
                                    WorkerConfigurationService workerConfigurationService,
                                    WorkerManager workerManager
@@ -79,11 +79,26 @@ public class SimpleExecutionRunnable implements Runnable {
         this.inBuffer = inBuffer;
         this.converter = converter;
         this.endExecutionCallback = endExecutionCallback;
-        this.queueStateIdGeneratorService = queueStateIdGeneratorService;
         this.workerUUID = workerUUID;
         this.workerConfigurationService = workerConfigurationService;
         this.workerManager = workerManager;
         this.isRecoveryDisabled = Boolean.getBoolean("is.recovery.disabled");
+        this.schedulingPolicy = new TimeSliceSchedulingPolicy();
+    }
+
+    public SimpleExecutionRunnable(ExecutionService executionService,
+                                   OutboundBuffer outBuffer,
+                                   InBuffer inBuffer,
+                                   ExecutionMessageConverter converter,
+                                   EndExecutionCallback endExecutionCallback,
+                                   String workerUUID,
+                                   WorkerConfigurationService workerConfigurationService,
+                                   WorkerManager workerManager,
+                                   ExecutionSchedulingPolicy schedulingPolicy
+    ) {
+        this(executionService, outBuffer, inBuffer, converter, endExecutionCallback, workerUUID,
+                workerConfigurationService, workerManager);
+        this.schedulingPolicy = schedulingPolicy;
     }
 
     public ExecutionMessage getExecutionMessage() {
@@ -94,6 +109,10 @@ public class SimpleExecutionRunnable implements Runnable {
         this.executionMessage = executionMessage;
     }
 
+    public void setLastCheckpointTime(long lastCheckpointTime) {
+        this.lastCheckpointTime = lastCheckpointTime;
+    }
+
     @Override
     public void run() {
         String executionId = executionMessage.getMsgId();
@@ -129,7 +148,7 @@ public class SimpleExecutionRunnable implements Runnable {
         catch (InterruptedException interruptedException){
 
             // not old thread and interrupted by cancel
-            boolean oldThread = !workerManager.isFromCurrentThreadPool(Thread.currentThread().getName());
+            boolean oldThread = !workerManager.isFromCurrentThreadPool();
             if(!oldThread && isExecutionCancelled(execution)){
                 if (logger.isDebugEnabled())  logger.debug("Execution is interrupted...");
             } else {
@@ -166,23 +185,28 @@ public class SimpleExecutionRunnable implements Runnable {
 
     private void executeRegularStep(Execution execution) throws InterruptedException {
         Execution nextStepExecution;
-        Long startTime = System.currentTimeMillis();
+        long sliceStartTime = System.currentTimeMillis();
+        if (lastCheckpointTime == 0) {
+            lastCheckpointTime = sliceStartTime;
+        }
+        int stepsInSlice = 0;
 
         do {
             //Actually execute the step and get the execution object of the next step
             nextStepExecution = executionService.execute(execution);
+            stepsInSlice++;
         }
-        while (!shouldStop(nextStepExecution, startTime));
+        while (!shouldStop(nextStepExecution, stepsInSlice, sliceStartTime));
     }
 
-    private boolean shouldStop(Execution nextStepExecution, Long startTime) {
+    private boolean shouldStop(Execution nextStepExecution, int stepsInSlice, long sliceStartTime) {
         //We should stop if
         //1. Thread was interrupted
         //2. execution was paused
         //3. we should stop and go to queue
         //4. The execution is terminating
         //5. The nextStepExecution is a splitStep
-        //6. Running too long
+        //6. Its time slice is over
 
         //The order is important!!!
         return isOldThread() ||
@@ -193,7 +217,7 @@ public class SimpleExecutionRunnable implements Runnable {
                 shouldChangeWorkerGroup(nextStepExecution) ||
                 isPersistStep(nextStepExecution) ||
                 isRecoveryCheckpoint(nextStepExecution) ||
-                isRunningTooLong(startTime, nextStepExecution);
+                isTimeSliceOver(nextStepExecution, stepsInSlice, sliceStartTime);
     }
 
     //If execution was paused it sends the current step with status FINISHED and that is all...
@@ -223,27 +247,7 @@ public class SimpleExecutionRunnable implements Runnable {
             //clean key
             nextStepExecution.getSystemContext().remove(TempConstants.IS_RECOVERY_CHECKPOINT);
 
-            //set current step to finished
-            executionMessage.setStatus(ExecStatus.FINISHED);
-            executionMessage.incMsgSeqId();
-            executionMessage.setPayload(null);
-
-
-            ExecutionMessage inProgressMessage = createInProgressExecutionMessage(nextStepExecution);
-            ExecutionMessage[] executionMessagesToSend = new ExecutionMessage[]{executionMessage, inProgressMessage}; //for the outBuffer
-
-            ExecutionMessage inProgressMessageForInBuffer = (ExecutionMessage) inProgressMessage.clone();
-            inProgressMessageForInBuffer.setPayload(null); //we do not need the payload for the inBuffer shortcut
-
-            try {
-                //The order is important!!!!!
-                outBuffer.put(executionMessagesToSend);
-                inBuffer.addExecutionMessage(inProgressMessageForInBuffer);
-            } catch (InterruptedException e) {
-                logger.warn("Thread was interrupted! Exiting the execution... ", e);
-                return true; //exiting... in shutdown...
-            }
-            return true;
+            return advance(nextStepExecution, false, null);
         }
         else {
             return false;
@@ -256,33 +260,11 @@ public class SimpleExecutionRunnable implements Runnable {
             //clean the persist key
             nextStepExecution.getSystemContext().removeStepPersist();
 
-            //set current step to finished
-            executionMessage.setStatus(ExecStatus.FINISHED);
-            executionMessage.incMsgSeqId();
-
-            executionMessage.setStepPersist(true);
-            executionMessage.setStepPersistId(nextStepExecution.getSystemContext().getStepPersistId());
+            String stepPersistId = nextStepExecution.getSystemContext().getStepPersistId();
             //clean the persist data
             nextStepExecution.getSystemContext().removeStepPersistID();
 
-            //set the payload to the current step and not from the message that could be several micro step behind
-            executionMessage.setPayload(converter.createPayload(nextStepExecution));
-
-            ExecutionMessage inProgressMessage = createInProgressExecutionMessage(nextStepExecution);
-            ExecutionMessage[] executionMessagesToSend = new ExecutionMessage[]{executionMessage, inProgressMessage}; //for the outBuffer
-
-            ExecutionMessage inProgressMessageForInBuffer = (ExecutionMessage) inProgressMessage.clone();
-            inProgressMessageForInBuffer.setPayload(null); //we do not need the payload for the inBuffer shortcut, we have execution there
-
-            try {
-                //The order is important!!!!!
-                outBuffer.put(executionMessagesToSend);
-                inBuffer.addExecutionMessage(inProgressMessageForInBuffer);
-            } catch (InterruptedException e) {
-                logger.warn("Thread was interrupted! Exiting the execution... ", e);
-                return true; //exiting... in shutdown...
-            }
-            return true;
+            return advance(nextStepExecution, true, stepPersistId);
         }
         else {
             return false;
@@ -350,7 +332,7 @@ public class SimpleExecutionRunnable implements Runnable {
 
     private boolean isOldThread() {
 
-        boolean oldThread = !workerManager.isFromCurrentThreadPool(Thread.currentThread().getName());
+        boolean oldThread = !workerManager.isFromCurrentThreadPool();
         if(oldThread){ // interrupted old (recovery) thread
             if(logger.isDebugEnabled()) {
                 logger.debug("This thread is from old thread pool...");
@@ -410,36 +392,55 @@ public class SimpleExecutionRunnable implements Runnable {
 
 
 
-    private boolean isRunningTooLong(Long startTime, Execution nextStepExecution) {
-        Long currentTime = System.currentTimeMillis();
+    private boolean isTimeSliceOver(Execution nextStepExecution, int stepsInSlice, long sliceStartTime) {
+        long currentTime = System.currentTimeMillis();
 
-        //Return true if running more than 60 seconds.
-        //We want to exit after 60 seconds from this thread in order to prevent starvation of other tasks.
-        if ((currentTime - startTime) > 60 * 1000) {
-            //set current step to finished
-            executionMessage.setStatus(ExecStatus.FINISHED);
-            executionMessage.incMsgSeqId();
-            executionMessage.setPayload(null);
+        //We give the thread to other executions in order to prevent their starvation
+        ExecutionSchedulingPolicy.Decision decision = schedulingPolicy.decide(nextStepExecution, stepsInSlice,
+                currentTime - sliceStartTime, currentTime - lastCheckpointTime, workerManager.getInBufferSize());
+        switch (decision) {
+            case CHECKPOINT:
+                return advance(nextStepExecution, false, null);
+            case YIELD:
+                return yieldThread(nextStepExecution);
+            default:
+                return false;
+        }
+    }
 
-            ExecutionMessage inProgressMessage = createInProgressExecutionMessage(nextStepExecution);
-            ExecutionMessage[] executionMessagesToSend = new ExecutionMessage[]{executionMessage, inProgressMessage}; //for the outBuffer
+    //The execution continues in this worker from memory, nothing is persisted - as between any other two steps
+    private boolean yieldThread(Execution nextStepExecution) {
+        ExecutionMessage yieldedMessage = (ExecutionMessage) executionMessage.clone();
+        yieldedMessage.setExecutionObject(nextStepExecution);
+        try {
+            inBuffer.addExecutionMessage(yieldedMessage, lastCheckpointTime);
+        } catch (InterruptedException e) {
+            logger.warn("Thread was interrupted! Exiting the execution... ", e);
+        }
+        return true;
+    }
 
-            ExecutionMessage inProgressMessageForInBuffer = (ExecutionMessage) inProgressMessage.clone();
-            inProgressMessageForInBuffer.setPayload(null); //we do not need the payload for the inBuffer shortcut
+    //Persists the next step with a single advance message, the current exec state is not finished but moves to the next step
+    private boolean advance(Execution nextStepExecution, boolean stepPersist, String stepPersistId) {
+        ExecutionMessage advanceMessage = createAdvanceExecutionMessage(nextStepExecution);
+        advanceMessage.setStepPersist(stepPersist);
+        advanceMessage.setStepPersistId(stepPersistId);
 
-            try {
-                //The order is important!!!!!
-                outBuffer.put(executionMessagesToSend);
-                inBuffer.addExecutionMessage(inProgressMessageForInBuffer);
-            } catch (InterruptedException e) {
-                logger.warn("Thread was interrupted! Exiting the execution... ", e);
-                return true; //exiting... in shutdown...
-            }
-            return true;
+        ExecutionMessage inProgressMessageForInBuffer = (ExecutionMessage) advanceMessage.clone();
+        inProgressMessageForInBuffer.setAdvance(false);
+        inProgressMessageForInBuffer.setStepPersist(false);
+        inProgressMessageForInBuffer.setStepPersistId(null);
+        inProgressMessageForInBuffer.setPayload(null); //we do not need the payload for the inBuffer shortcut, we have execution there
 
-        } else {
-            return false;
+        try {
+            //The order is important!!!!!
+            outBuffer.put(advanceMessage);
+            inBuffer.addExecutionMessage(inProgressMessageForInBuffer);
+        } catch (InterruptedException e) {
+            logger.warn("Thread was interrupted! Exiting the execution... ", e);
+            return true; //exiting... in shutdown...
         }
+        return true;
     }
 
     // Creates termination execution message, base on current execution message
@@ -468,24 +469,23 @@ public class SimpleExecutionRunnable implements Runnable {
                 0).setWorkerKey(executionMessage.getWorkerKey());
     }
 
-    // Creates InProgress execution message for the next step, base on current execution message - used for short cut!
-    private ExecutionMessage createInProgressExecutionMessage(Execution nextStepExecution) {
+    // Creates the advance message of the next step, base on current execution message - the next step keeps the exec state
+    // and the worker of the current step, and is also used for short cut!
+    private ExecutionMessage createAdvanceExecutionMessage(Execution nextStepExecution) {
         //take care of worker group
         String groupName = nextStepExecution.getGroupName();
         if (groupName == null) {
             groupName = WorkerNode.DEFAULT_WORKER_GROUPS[0];
         }
 
-        Long id = queueStateIdGeneratorService.generateStateId();
-        // stay in the same worker in the next step
-        return new ExecutionMessage(id,
-                executionMessage.getWorkerId(),
-                groupName,
-                executionMessage.getMsgId(),
-                ExecStatus.IN_PROGRESS,
-                nextStepExecution,
-                converter.createPayload(nextStepExecution),
-                0).setWorkerKey(executionMessage.getWorkerKey());
+        ExecutionMessage advanceMessage = (ExecutionMessage) executionMessage.clone();
+        advanceMessage.setStatus(ExecStatus.IN_PROGRESS);
+        advanceMessage.incMsgSeqId();
+        advanceMessage.setWorkerGroup(groupName);
+        advanceMessage.setExecutionObject(nextStepExecution);
+        advanceMessage.setPayload(converter.createPayload(nextStepExecution));
+        advanceMessage.setAdvance(true);
+        return advanceMessage;
     }
 
 
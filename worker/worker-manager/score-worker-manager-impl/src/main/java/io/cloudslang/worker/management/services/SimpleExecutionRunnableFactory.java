@@ -18,7 +18,6 @@ package io.cloudslang.worker.management.services;
 
 import io.cloudslang.worker.execution.services.ExecutionService;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
-import io.cloudslang.engine.queue.services.QueueStateIdGeneratorService;
 
 import io.cloudslang.worker.management.WorkerConfigurationService;
 import org.springframework.beans.factory.FactoryBean;
@@ -48,15 +47,15 @@ public class SimpleExecutionRunnableFactory implements FactoryBean<SimpleExecuti
 	@Autowired
 	private EndExecutionCallback endExecutionCallback;
 
-    @Autowired
-    private QueueStateIdGeneratorService queueStateIdGeneratorService;
-
     @Autowired
     private WorkerConfigurationService workerConfigurationService;
 
     @Autowired
     private WorkerManager workerManager;
 
+    @Autowired(required = false)
+    private ExecutionSchedulingPolicy schedulingPolicy = new TimeSliceSchedulingPolicy();
+
     @Resource
 	private String workerUuid;
 
@@ -68,10 +67,10 @@ public class SimpleExecutionRunnableFactory implements FactoryBean<SimpleExecuti
                 inBuffer,
                 converter,
                 endExecutionCallback,
-                queueStateIdGeneratorService,
                 workerUuid,
                 workerConfigurationService,
-                workerManager
+                workerManager,
+                schedulingPolicy
         );
 	}
 
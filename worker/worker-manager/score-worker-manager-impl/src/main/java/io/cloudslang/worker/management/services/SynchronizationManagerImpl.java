@@ -20,6 +20,8 @@ import org.apache.log4j.Logger;
 
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
 
 /**
  * Created with IntelliJ IDEA.
@@ -32,13 +34,17 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
     private final Logger logger = Logger.getLogger(this.getClass());
 
     ReentrantLock recoveryGetLock = new ReentrantLock();  //synchronizing Recovery and InBuffer
-    ReentrantLock recoveryPutLock = new ReentrantLock(); //synchronizing Recovery and OutBuffer put()
+    ReentrantReadWriteLock recoveryPutLock = new ReentrantReadWriteLock(); //synchronizing Recovery and OutBuffer put(), puts share the read lock
     ReentrantLock recoveryDrainLock = new ReentrantLock(); //synchronizing Recovery and OutBuffer drain()
 
-    ReentrantLock outBufferLock = new ReentrantLock();   //synchronizing OutBuffer put() and drain()
+    ReentrantLock outBufferLock = new ReentrantLock();   //taken only by OutBuffer put() and drain() that have to wait for each other
     private final Condition notEmpty = outBufferLock.newCondition();
     private final Condition notFull = outBufferLock.newCondition();
 
+    //the waiting counters are read without the lock, so a put or a drain that nobody waits for does not take it
+    private volatile int waitingForMessages;
+    private volatile int waitingForDrain;
+
 
     @Override
     public void startRecovery() {
@@ -48,7 +54,7 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
         }
 
         recoveryGetLock.lock();
-        recoveryPutLock.lock();
+        recoveryPutLock.writeLock().lock();
         recoveryDrainLock.lock();
 
         outBufferLock.lock();
@@ -68,7 +74,7 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
         notFull.signalAll();
 
         recoveryGetLock.unlock();
-        recoveryPutLock.unlock();
+        recoveryPutLock.writeLock().unlock();
         recoveryDrainLock.unlock();
 
         outBufferLock.unlock();
@@ -84,8 +90,7 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
             logger.debug("In SynchronizationManager.startPutMessages()");
         }
 
-        recoveryPutLock.lock();
-        outBufferLock.lock();
+        recoveryPutLock.readLock().lock();
 
         if(logger.isDebugEnabled()){
             logger.debug("Out SynchronizationManager.startPutMessages()");
@@ -97,10 +102,11 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
         if(logger.isDebugEnabled()){
             logger.debug("In SynchronizationManager.finishPutMessages()");
         }
-        notEmpty.signalAll();
+        if (waitingForMessages > 0) {
+            signalAll(notEmpty);
+        }
 
-        unlockCompletely(recoveryPutLock);
-        unlockCompletely(outBufferLock); //probably just unlock is enough
+        unlockReadCompletely(recoveryPutLock);
 
         if(logger.isDebugEnabled()){
             logger.debug("Out SynchronizationManager.finishPutMessages()");
@@ -113,7 +119,6 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
             logger.debug("In SynchronizationManager.startDrain()");
         }
         recoveryDrainLock.lock();
-        outBufferLock.lock();
 
         if(logger.isDebugEnabled()){
             logger.debug("Out SynchronizationManager.startDrain()");
@@ -126,10 +131,11 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
             logger.debug("In SynchronizationManager.finishDrain()");
         }
 
-        notFull.signalAll();
+        if (waitingForDrain > 0) {
+            signalAll(notFull);
+        }
 
         unlockCompletely(recoveryDrainLock);
-        unlockCompletely(outBufferLock); //probably just unlock is enough
 
         if(logger.isDebugEnabled()){
             logger.debug("Out SynchronizationManager.finishDrain()");
@@ -137,18 +143,32 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
     }
 
     @Override
-    public void waitForDrain() throws InterruptedException {
+    public void waitForDrain(BooleanSupplier bufferFull) throws InterruptedException {
 
         if(logger.isDebugEnabled()){
             logger.debug("In SynchronizationManager.waitForDrain()");
         }
 
         //unlock all recovery locks that could be taken - so when we are waiting for messages drain recovery will be able to begin
-        unlockCompletely(recoveryPutLock);
+        unlockReadCompletely(recoveryPutLock);
         unlockCompletely(recoveryGetLock); //if we got here from the InBuffer thread
 
-        //Wait for messages to be drained
-        notFull.await();
+        //Wait for messages to be drained, the condition is checked under the lock so a drain can not be missed
+        outBufferLock.lock();
+        try {
+            waitingForDrain++;
+            try {
+                while (bufferFull.getAsBoolean()) {
+                    notFull.await();
+                }
+            } finally {
+                waitingForDrain--;
+            }
+        } finally {
+            outBufferLock.unlock();
+        }
+        //the message is put under the recovery lock again, so recovery can not clear the buffer in the middle
+        recoveryPutLock.readLock().lock();
 
         if(logger.isDebugEnabled()){
             logger.debug("Out SynchronizationManager.waitForDrain()");
@@ -157,7 +177,7 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
     }
 
     @Override
-    public void waitForMessages() throws InterruptedException {
+    public void waitForMessages(BooleanSupplier bufferEmpty) throws InterruptedException {
 
         if(logger.isDebugEnabled()){
             logger.debug("In SynchronizationManager.waitForMessages()");
@@ -165,8 +185,21 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
 
         //unlock recovery so when we are waiting for messages recovery will be able to begin
         unlockCompletely(recoveryDrainLock);
-        //Wait for messages to arrive
-        notEmpty.await();
+        //Wait for messages to arrive, the condition is checked under the lock so a put can not be missed
+        outBufferLock.lock();
+        try {
+            waitingForMessages++;
+            try {
+                while (bufferEmpty.getAsBoolean()) {
+                    notEmpty.await();
+                }
+            } finally {
+                waitingForMessages--;
+            }
+        } finally {
+            outBufferLock.unlock();
+        }
+        recoveryDrainLock.lock();
 
         if(logger.isDebugEnabled()){
             logger.debug("Out SynchronizationManager.waitForMessages()");
@@ -202,6 +235,23 @@ public class SynchronizationManagerImpl implements SynchronizationManager {
     // It is very important to use this method instead of just do unlock because of 2 reasons:
     // 1. The lock could be already unlocked in case out thread was in waitForMessages() or waitForDrain()
     //2. The lock can be locked more then once - for example in InBuffer startGetMessages() and then in ackMessages() do put() in OutBuffer and do startPutMessages()
+    private void signalAll(Condition condition) {
+        outBufferLock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            outBufferLock.unlock();
+        }
+    }
+
+    private void unlockReadCompletely(ReentrantReadWriteLock lockToUnlock){
+        int counter = lockToUnlock.getReadHoldCount();
+
+        for(int i = 0; i<counter; i++){
+            lockToUnlock.readLock().unlock();
+        }
+    }
+
     private void unlockCompletely(ReentrantLock lockToUnlock){
         int counter = lockToUnlock.getHoldCount();
 
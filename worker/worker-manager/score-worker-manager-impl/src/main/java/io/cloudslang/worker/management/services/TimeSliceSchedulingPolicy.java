@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+import io.cloudslang.score.facade.TempConstants;
+import io.cloudslang.score.facade.entities.Execution;
+
+import java.io.Serializable;
+
+/**
+ * The default scheduling policy. An execution keeps the thread while no other execution waits for one.
+ * When others wait it yields after a time quantum (or a number of steps), scaled by its priority:
+ * a priority p gets 2^p quanta. It is persisted only every checkpointMillis, as before.
+ */
+public class TimeSliceSchedulingPolicy implements ExecutionSchedulingPolicy {
+
+    private static final int MAX_PRIORITY = 3;
+
+    private final long quantumMillis;
+    private final int quantumSteps;
+    private final long checkpointMillis;
+
+    public TimeSliceSchedulingPolicy() {
+        this(Long.getLong("worker.scheduling.quantumMillis", 1000),
+                Integer.getInteger("worker.scheduling.quantumSteps", 0),
+                Long.getLong("worker.scheduling.checkpointMillis", 60 * 1000));
+    }
+
+    /**
+     * @param quantumMillis the time slice of an execution with the default priority
+     * @param quantumSteps the maximum number of steps in a slice with the default priority, 0 for no limit
+     * @param checkpointMillis how often a running execution is persisted
+     */
+    public TimeSliceSchedulingPolicy(long quantumMillis, int quantumSteps, long checkpointMillis) {
+        this.quantumMillis = quantumMillis;
+        this.quantumSteps = quantumSteps;
+        this.checkpointMillis = checkpointMillis;
+    }
+
+    @Override
+    public Decision decide(Execution nextStepExecution, int stepsInSlice, long sliceMillis, long millisSinceCheckpoint, int waitingExecutions) {
+        if (millisSinceCheckpoint > checkpointMillis) {
+            return Decision.CHECKPOINT;
+        }
+        if (waitingExecutions == 0) {
+            return Decision.CONTINUE;
+        }
+        double quanta = Math.pow(2, getPriority(nextStepExecution));
+        boolean sliceOver = sliceMillis >= quantumMillis * quanta ||
+                (quantumSteps > 0 && stepsInSlice >= quantumSteps * quanta);
+        return sliceOver ? Decision.YIELD : Decision.CONTINUE;
+    }
+
+    private int getPriority(Execution execution) {
+        Serializable priority = execution.getSystemContext().get(TempConstants.EXECUTION_PRIORITY);
+        if (!(priority instanceof Integer)) {
+            return 0;
+        }
+        return Math.max(-MAX_PRIORITY, Math.min(MAX_PRIORITY, (Integer) priority));
+    }
+}
@@ -37,10 +37,7 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static ch.lambdaj.Lambda.max;
@@ -76,18 +73,21 @@ public class WorkerManager implements ApplicationListener, EndExecutionCallback,
 	@Autowired
 	protected WorkerVersionService workerVersionService;
 
-	private LinkedBlockingQueue<Runnable> inBuffer;
 	@Autowired
 	@Qualifier("numberOfExecutionThreads")
 	private Integer numberOfThreads;
 	@Autowired(required = false)
+	@Qualifier("executionThreadPoolType")
+	private String executionThreadPoolType = ExecutionThreadPoolType.FIXED.getValue();
+	@Autowired(required = false)
 	@Qualifier("initStartUpSleep")
 	private Long initStartUpSleep = 15*1000L; // by default 15 seconds
 	@Autowired(required = false)
 	@Qualifier("maxStartUpSleep")
 	private Long maxStartUpSleep = 10*60*1000L; // by default 10 minutes
     private int keepAliveFailCount = 0;
-	private ExecutorService executorService;
+	private ExecutionThreadPoolType threadPoolType;
+	private volatile ExecutionThreadPool executionThreadPool;
 	private Map<Long, ConcurrentLinkedQueue<Future>> mapOfRunningTasks;
 	private volatile boolean endOfInit = false;
     private volatile boolean initStarted = false;
@@ -100,20 +100,16 @@ public class WorkerManager implements ApplicationListener, EndExecutionCallback,
 	private void init() {
 		logger.info("Initialize worker with UUID: " + workerUuid);
 		System.setProperty("worker.uuid", workerUuid); //do not remove!!!
-        inBuffer = new LinkedBlockingQueue<>();
-
-		executorService = new ThreadPoolExecutor(numberOfThreads,
-				numberOfThreads,
-				Long.MAX_VALUE, TimeUnit.NANOSECONDS,
-				inBuffer,
-                new WorkerThreadFactory((++threadPoolVersion) + "_WorkerExecutionThread"));
+		threadPoolType = ExecutionThreadPoolType.fromValue(executionThreadPoolType);
+		logger.info("Worker executes steps on a " + threadPoolType.getValue() + " thread pool of " + numberOfThreads + " threads");
+		executionThreadPool = createExecutionThreadPool(++threadPoolVersion);
 
 		mapOfRunningTasks = new ConcurrentHashMap<>(numberOfThreads);
 	}
 
 	public void addExecution(Long executionId, Runnable runnable) {
 		//It is possible that in linear flow we will have step 2 that is already running, but step 1 that still did not clean itself from the table (race condition)
-        Future future = executorService.submit(runnable);
+        Future future = executionThreadPool.submit(runnable);
 
 		if( mapOfRunningTasks.get(executionId) == null){
 			mapOfRunningTasks.put(executionId, new ConcurrentLinkedQueue<Future>());
@@ -133,7 +129,7 @@ public class WorkerManager implements ApplicationListener, EndExecutionCallback,
 	}
 
 	public int getInBufferSize() {
-		return inBuffer.size();
+		return executionThreadPool.getWaitingTasksCount();
 	}
 
     @SuppressWarnings("unused")
@@ -198,6 +194,18 @@ public class WorkerManager implements ApplicationListener, EndExecutionCallback,
         return numberOfThreads;
     }
 
+    public long getStartedStepsCount() {
+        return executionThreadPool.getStartedTasksCount();
+    }
+
+    public long getCompletedStepsCount() {
+        return executionThreadPool.getCompletedTasksCount();
+    }
+
+    public long getStepsQueueWaitNanos() {
+        return executionThreadPool.getQueueWaitNanos();
+    }
+
     @Override
 	public void onApplicationEvent(final ApplicationEvent applicationEvent) {
 		if (applicationEvent instanceof ContextRefreshedEvent && !initStarted) {
@@ -279,8 +287,8 @@ public class WorkerManager implements ApplicationListener, EndExecutionCallback,
 		return up;
     }
 
-    public synchronized boolean isFromCurrentThreadPool(String threadName){
-        if(threadName.startsWith(String.valueOf(threadPoolVersion))){
+    public synchronized boolean isFromCurrentThreadPool(){
+        if(executionThreadPool.isCurrentThreadInPool()){
             if(logger.isDebugEnabled()){
                 logger.debug("Current thread is from current thread pool");
             }
@@ -308,12 +316,12 @@ public class WorkerManager implements ApplicationListener, EndExecutionCallback,
 //        task that fails to respond to interrupts may never terminate.
         try {
             synchronized (this){
-                executorService.shutdownNow(); //shutting down current running threads
-                threadPoolVersion++;           //updating the thread pool version to a new one - so current running threads will exit
+                executionThreadPool.shutdownNow(); //shutting down current running threads, from now on they are not from the current thread pool so they will exit
+                threadPoolVersion++;               //updating the thread pool version to a new one
                 logger.warn("Worker is in doRecovery(). Cleaning state and cancelling running tasks. It may take up to 30 seconds...");
             }
 
-            boolean finished = executorService.awaitTermination(30, TimeUnit.SECONDS);
+            boolean finished = executionThreadPool.awaitTermination(30, TimeUnit.SECONDS);
 
             if(finished){
                 logger.warn("Worker succeeded to cancel running tasks during doRecovery().");
@@ -327,10 +335,10 @@ public class WorkerManager implements ApplicationListener, EndExecutionCallback,
         mapOfRunningTasks.clear();
 
         //Make new executor
-        executorService = new ThreadPoolExecutor(numberOfThreads,
-                numberOfThreads,
-                Long.MAX_VALUE, TimeUnit.NANOSECONDS,
-                inBuffer,
-                new WorkerThreadFactory((threadPoolVersion) + "_WorkerExecutionThread"));
+        executionThreadPool = createExecutionThreadPool(threadPoolVersion);
+    }
+
+    private ExecutionThreadPool createExecutionThreadPool(int version) {
+        return new ExecutionThreadPool(threadPoolType, numberOfThreads, version + "_WorkerExecutionThread");
     }
 }
@@ -23,7 +23,6 @@ import org.junit.runner.RunWith;
 import io.cloudslang.engine.node.services.WorkerNodeService;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.services.QueueDispatcherService;
-import io.cloudslang.engine.queue.services.QueueStateIdGeneratorService;
 import io.cloudslang.worker.execution.services.ExecutionService;
 import io.cloudslang.worker.management.WorkerConfigurationService;
 import io.cloudslang.worker.management.services.*;
@@ -129,6 +128,5 @@ public class WorkerMonitorsImplTest {
         @Bean public WorkerVersionService workerVersionService() {return mock(WorkerVersionService.class);}
         @Bean public EngineVersionService engineVersionService() {return mock(EngineVersionService.class);}
         @Bean public EndExecutionCallback endExecutionCallback() {return mock(EndExecutionCallback.class);}
-        @Bean public QueueStateIdGeneratorService queueStateIdGeneratorService() {return mock(QueueStateIdGeneratorService.class);}
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ExecutionThreadPoolTest {
+
+    private ExecutionThreadPool pool;
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFromValue() {
+        Assert.assertEquals(ExecutionThreadPoolType.FIXED, ExecutionThreadPoolType.fromValue("fixed"));
+        Assert.assertEquals(ExecutionThreadPoolType.WORK_STEALING, ExecutionThreadPoolType.fromValue("workStealing"));
+        Assert.assertEquals(ExecutionThreadPoolType.VIRTUAL, ExecutionThreadPoolType.fromValue("VIRTUAL"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnknownValue() {
+        ExecutionThreadPoolType.fromValue("cached");
+    }
+
+    @Test
+    public void testDefaultValue() {
+        Assert.assertEquals(ExecutionThreadPoolType.FIXED, ExecutionThreadPoolType.fromValue(null));
+    }
+
+    @Test
+    public void testFixedPool() throws Exception {
+        checkPool(ExecutionThreadPoolType.FIXED);
+    }
+
+    @Test
+    public void testWorkStealingPool() throws Exception {
+        checkPool(ExecutionThreadPoolType.WORK_STEALING);
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        //falls back to a fixed pool on JDKs without virtual threads
+        checkPool(ExecutionThreadPoolType.VIRTUAL);
+    }
+
+    @Test
+    public void testCancelWaitingTask() throws Exception {
+        pool = new ExecutionThreadPool(ExecutionThreadPoolType.FIXED, 1, "test");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.submit(new BlockingRunnable(started, release, new AtomicBoolean()));
+        Future waiting = pool.submit(new BlockingRunnable(new CountDownLatch(1), release, new AtomicBoolean()));
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, pool.getWaitingTasksCount());
+
+        waiting.cancel(true);
+        Assert.assertEquals(0, pool.getWaitingTasksCount());
+        release.countDown();
+    }
+
+    private void checkPool(ExecutionThreadPoolType type) throws Exception {
+        pool = new ExecutionThreadPool(type, 1, "test");
+        Assert.assertFalse(pool.isCurrentThreadInPool());
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean inPool = new AtomicBoolean();
+        Future first = pool.submit(new BlockingRunnable(started, release, inPool));
+        Future second = pool.submit(new BlockingRunnable(new CountDownLatch(1), release, new AtomicBoolean()));
+
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        //only one step runs at a time, the second one waits
+        Assert.assertEquals(1, pool.getWaitingTasksCount());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(inPool.get());
+        Assert.assertEquals(0, pool.getWaitingTasksCount());
+    }
+
+    private class BlockingRunnable implements Runnable {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+        private final AtomicBoolean inPool;
+
+        BlockingRunnable(CountDownLatch started, CountDownLatch release, AtomicBoolean inPool) {
+            this.started = started;
+            this.release = release;
+            this.inPool = inPool;
+        }
+
+        @Override
+        public void run() {
+            inPool.set(pool.isCurrentThreadInPool());
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
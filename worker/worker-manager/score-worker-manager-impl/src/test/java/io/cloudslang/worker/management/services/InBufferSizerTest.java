@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InBufferSizerTest {
+
+    private static final long MEMORY_THRESHOLD = 50000000;
+    private static final long FREE_MEMORY = 1000000000;
+
+    @Test
+    public void testStaticSizeBeforeMeasurements() {
+        InBufferSizer sizer = new InBufferSizer(500, 20, 2000, 400, MEMORY_THRESHOLD);
+        Assert.assertEquals(500, sizer.getCapacity());
+        Assert.assertEquals(100, sizer.getRefillThreshold());
+
+        sizer.update(1000, 0, 0, 0, FREE_MEMORY);
+        Assert.assertEquals(500, sizer.getCapacity());
+    }
+
+    @Test
+    public void testSizeFollowsCompletionRate() {
+        InBufferSizer sizer = new InBufferSizer(500, 20, 2000, 400, MEMORY_THRESHOLD);
+        sizer.update(1000, 0, 0, 0, FREE_MEMORY);
+        //100 steps per second
+        sizer.update(2000, 100, 100, 0, FREE_MEMORY);
+        Assert.assertEquals(200, sizer.getCapacity());
+        Assert.assertEquals(40, sizer.getRefillThreshold());
+    }
+
+    @Test
+    public void testIdleWorkerKeepsMinimum() {
+        InBufferSizer sizer = new InBufferSizer(500, 20, 2000, 400, MEMORY_THRESHOLD);
+        sizer.update(1000, 0, 0, 0, FREE_MEMORY);
+        sizer.update(2000, 0, 0, 0, FREE_MEMORY);
+        Assert.assertEquals(20, sizer.getCapacity());
+        Assert.assertEquals(1, sizer.getRefillThreshold());
+    }
+
+    @Test
+    public void testLongQueueWaitShrinksBuffer() {
+        InBufferSizer sizer = new InBufferSizer(500, 20, 2000, 400, MEMORY_THRESHOLD);
+        sizer.update(1000, 0, 0, 0, FREE_MEMORY);
+        //100 steps per second, each waited 8 seconds before it started
+        sizer.update(2000, 100, 100, 100 * 8000000000L, FREE_MEMORY);
+        Assert.assertEquals(50, sizer.getCapacity());
+    }
+
+    @Test
+    public void testLowMemoryShrinksBuffer() {
+        InBufferSizer sizer = new InBufferSizer(500, 20, 2000, 400, MEMORY_THRESHOLD);
+        sizer.recordPayload(1000000);
+        sizer.update(1000, 0, 0, 0, FREE_MEMORY);
+        sizer.update(2000, 100, 100, 0, MEMORY_THRESHOLD + 100000000);
+        Assert.assertEquals(25, sizer.getCapacity());
+    }
+
+    @Test
+    public void testCountersResetAfterRecovery() {
+        InBufferSizer sizer = new InBufferSizer(500, 20, 2000, 400, MEMORY_THRESHOLD);
+        sizer.update(1000, 0, 0, 0, FREE_MEMORY);
+        sizer.update(2000, 100, 100, 0, FREE_MEMORY);
+        sizer.update(3000, 5, 5, 0, FREE_MEMORY);
+        Assert.assertEquals(200, sizer.getCapacity());
+    }
+}
@@ -16,19 +16,31 @@
 
 package io.cloudslang.worker.management.services;
 
+import io.cloudslang.engine.queue.entities.ExecutionMessage;
 import io.cloudslang.engine.queue.services.QueueDispatcherService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -94,4 +106,35 @@ public class InBufferTest {
 	        Thread.sleep(100L);
         }
     }
+
+    @Test(timeout = 5000)
+    public void testRecoveryDuringLongPoll() throws Exception {
+        ReflectionTestUtils.setField(inBuffer, "capacity", 100);
+        ReflectionTestUtils.setField(inBuffer, "workerUuid", "worker1");
+        when(workerManager.isUp()).thenReturn(true);
+        when(workerManager.getInBufferSize()).thenReturn(0);
+        when(queueDispatcher.poll(anyString(), anyInt(), anyLong())).thenAnswer(new Answer<List<ExecutionMessage>>() {
+            private int calls;
+
+            @Override
+            public List<ExecutionMessage> answer(InvocationOnMock invocation) throws Throwable {
+                if (calls++ == 0) {
+                    inBuffer.doRecovery(); //the worker recovers while the engine holds the poll
+                    return Arrays.asList(new ExecutionMessage());
+                }
+                inBuffer.onApplicationEvent(mock(ContextClosedEvent.class));
+                return Collections.emptyList();
+            }
+        });
+        inBuffer.onApplicationEvent(mock(ContextRefreshedEvent.class));
+        ((Thread) ReflectionTestUtils.getField(inBuffer, "fillBufferThread")).join();
+
+        InOrder inOrder = inOrder(synchronizationManager, queueDispatcher);
+        inOrder.verify(synchronizationManager).startGetMessages();
+        inOrder.verify(synchronizationManager).finishGetMessages();
+        inOrder.verify(queueDispatcher).poll("worker1", 100, 1000L);
+        inOrder.verify(synchronizationManager).startGetMessages();
+        verifyZeroInteractions(outBuffer);
+        verify(workerManager, never()).addExecution(any(Long.class), any(Runnable.class));
+    }
 }
@@ -23,6 +23,7 @@ import org.apache.log4j.Logger;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -155,6 +156,36 @@ public class OutboundBufferTest {
 
 
 
+	/**
+	 * Checks that messages put by different threads are dispatched in the order they were put
+	 */
+	@Test
+	public void testDrainKeepsPutOrder() throws InterruptedException {
+		final List<Message> messages = Arrays.<Message>asList(new DummyMsg1(), new DummyMsg1(), new DummyMsg1());
+		for (final Message message : messages) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						buffer.put(message);
+					} catch (InterruptedException e) {
+						//ignore
+					}
+				}
+			});
+			thread.start();
+			thread.join();
+		}
+		Assert.assertEquals(3, buffer.getSize());
+
+		buffer.drain();
+		ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+		verify(dispatcherService).dispatch(captor.capture(), anyString(), anyString(), anyString());
+		Assert.assertEquals(messages, captor.getValue());
+		Assert.assertEquals(0, buffer.getSize());
+		Assert.assertEquals(0, buffer.getWeight());
+	}
+
 	private void waitForThreadStateToBe(Thread thread, Thread.State state) throws InterruptedException {
 		int waitCount = 0;
 		while (!thread.getState().equals(state) && waitCount <= 20) {
@@ -16,7 +16,9 @@
 
 package io.cloudslang.worker.management.services;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -38,12 +40,14 @@ import io.cloudslang.engine.queue.entities.ExecStatus;
 import io.cloudslang.engine.queue.entities.ExecutionMessage;
 import io.cloudslang.engine.queue.entities.ExecutionMessageConverter;
 import io.cloudslang.engine.queue.entities.Payload;
-import io.cloudslang.engine.queue.services.QueueStateIdGeneratorService;
 import io.cloudslang.score.facade.entities.Execution;
 
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -79,8 +83,6 @@ public class SimpleExecutionRunnableTest {
     @Mock
     private AtomicBoolean recoveryFlag;
 
-    @Mock
-    private QueueStateIdGeneratorService queueStateIdGenerator;
 	
 	@Mock
 	private WorkerConfigurationService workerConfigurationService;
@@ -100,7 +102,7 @@ public class SimpleExecutionRunnableTest {
     @Test
     public void testGetExecutionMessage() throws Exception {
         SimpleExecutionRunnable simpleExecutionRunnable = new SimpleExecutionRunnable(executionService, outBuffer,
-                inBuffer, converter, endExecutionCallback, queueStateIdGenerator, "stam",workerConfigurationService, workerManager);
+                inBuffer, converter, endExecutionCallback, "stam",workerConfigurationService, workerManager);
         ExecutionMessage executionMessage = simpleExecutionRunnable.getExecutionMessage();
         Assert.assertNull(executionMessage);
 
@@ -127,10 +129,10 @@ public class SimpleExecutionRunnableTest {
 		    }
 	    }).when(outBuffer).put(any(ExecutionMessage[].class));
 
-        when(workerManager.isFromCurrentThreadPool(anyString())).thenReturn(true);
+        when(workerManager.isFromCurrentThreadPool()).thenReturn(true);
 
         SimpleExecutionRunnable simpleExecutionRunnable = new SimpleExecutionRunnable(executionService, outBuffer,
-                inBuffer, converter, endExecutionCallback, queueStateIdGenerator, "stam",workerConfigurationService, workerManager);
+                inBuffer, converter, endExecutionCallback, "stam",workerConfigurationService, workerManager);
 
         simpleExecutionRunnable.setExecutionMessage(new ExecutionMessage());
         simpleExecutionRunnable.run();
@@ -142,4 +144,64 @@ public class SimpleExecutionRunnableTest {
         Assert.assertEquals(ExecStatus.FINISHED, buffer.get(0).getStatus());
         Assert.assertEquals(0, executionMessage.getMsgSeqId());
     }
+
+    @Test
+    public void testYieldDoesNotPersist() throws Exception {
+        Execution execution = new Execution(1L, 2L, 3L, new HashMap<String, Serializable>(), new HashMap<String, Serializable>());
+        when(converter.extractExecution(any(Payload.class))).thenReturn(execution);
+        when(executionService.execute(execution)).thenReturn(execution);
+        when(workerManager.isFromCurrentThreadPool()).thenReturn(true);
+        ExecutionSchedulingPolicy schedulingPolicy = mock(ExecutionSchedulingPolicy.class);
+        when(schedulingPolicy.decide(any(Execution.class), anyInt(), anyLong(), anyLong(), anyInt()))
+                .thenReturn(ExecutionSchedulingPolicy.Decision.YIELD);
+
+        SimpleExecutionRunnable simpleExecutionRunnable = new SimpleExecutionRunnable(executionService, outBuffer,
+                inBuffer, converter, endExecutionCallback, "stam", workerConfigurationService, workerManager, schedulingPolicy);
+        ExecutionMessage message = new ExecutionMessage();
+        message.setMsgId("1");
+        simpleExecutionRunnable.setExecutionMessage(message);
+        simpleExecutionRunnable.run();
+
+        verify(executionService, times(1)).execute(execution);
+        verify(inBuffer).addExecutionMessage(any(ExecutionMessage.class), anyLong());
+        verify(outBuffer, never()).put(any(ExecutionMessage[].class));
+        verify(converter, never()).createPayload(any(Execution.class));
+    }
+
+    @Test
+    public void testCheckpointSendsSingleAdvanceMessage() throws Exception {
+        Execution execution = new Execution(1L, 2L, 3L, new HashMap<String, Serializable>(), new HashMap<String, Serializable>());
+        when(converter.extractExecution(any(Payload.class))).thenReturn(execution);
+        when(executionService.execute(execution)).thenReturn(execution);
+        when(workerManager.isFromCurrentThreadPool()).thenReturn(true);
+        ExecutionSchedulingPolicy schedulingPolicy = mock(ExecutionSchedulingPolicy.class);
+        when(schedulingPolicy.decide(any(Execution.class), anyInt(), anyLong(), anyLong(), anyInt()))
+                .thenReturn(ExecutionSchedulingPolicy.Decision.CHECKPOINT);
+
+        final List<ExecutionMessage> buffer = new ArrayList<>();
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                for (Object message : invocation.getArguments()) {
+                    buffer.add((ExecutionMessage) message);
+                }
+                return null;
+            }
+        }).when(outBuffer).put(any(ExecutionMessage[].class));
+
+        SimpleExecutionRunnable simpleExecutionRunnable = new SimpleExecutionRunnable(executionService, outBuffer,
+                inBuffer, converter, endExecutionCallback, "stam", workerConfigurationService, workerManager, schedulingPolicy);
+        ExecutionMessage message = new ExecutionMessage(5L, "worker1", "group1", "1", ExecStatus.IN_PROGRESS, null, 1);
+        simpleExecutionRunnable.setExecutionMessage(message);
+        simpleExecutionRunnable.run();
+
+        Assert.assertEquals(1, buffer.size());
+        ExecutionMessage advanceMessage = buffer.get(0);
+        Assert.assertTrue(advanceMessage.isAdvance());
+        Assert.assertEquals(ExecStatus.IN_PROGRESS, advanceMessage.getStatus());
+        Assert.assertEquals(5L, advanceMessage.getExecStateId());
+        Assert.assertEquals(2, advanceMessage.getMsgSeqId());
+        verify(converter).createPayload(execution);
+        verify(inBuffer).addExecutionMessage(any(ExecutionMessage.class));
+    }
 }
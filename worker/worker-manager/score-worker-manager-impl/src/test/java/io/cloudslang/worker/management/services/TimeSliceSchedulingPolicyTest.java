@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2014-2017 EntIT Software LLC, a Micro Focus company (L.P.)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.cloudslang.worker.management.services;
+
+import io.cloudslang.score.facade.TempConstants;
+import io.cloudslang.score.facade.entities.Execution;
+import io.cloudslang.worker.management.services.ExecutionSchedulingPolicy.Decision;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+public class TimeSliceSchedulingPolicyTest {
+
+    private final TimeSliceSchedulingPolicy policy = new TimeSliceSchedulingPolicy(1000, 100, 60000);
+
+    @Test
+    public void testContinueWhenNobodyWaits() {
+        Assert.assertEquals(Decision.CONTINUE, policy.decide(createExecution(null), 1000, 5000, 5000, 0));
+    }
+
+    @Test
+    public void testYieldAfterQuantum() {
+        Assert.assertEquals(Decision.CONTINUE, policy.decide(createExecution(null), 10, 500, 500, 3));
+        Assert.assertEquals(Decision.YIELD, policy.decide(createExecution(null), 10, 1000, 1000, 3));
+        Assert.assertEquals(Decision.YIELD, policy.decide(createExecution(null), 100, 10, 10, 3));
+    }
+
+    @Test
+    public void testPriorityScalesQuantum() {
+        Assert.assertEquals(Decision.CONTINUE, policy.decide(createExecution(1), 10, 1500, 1500, 3));
+        Assert.assertEquals(Decision.YIELD, policy.decide(createExecution(1), 10, 2000, 2000, 3));
+        Assert.assertEquals(Decision.YIELD, policy.decide(createExecution(-1), 10, 500, 500, 3));
+    }
+
+    @Test
+    public void testCheckpointWhenDue() {
+        Assert.assertEquals(Decision.CHECKPOINT, policy.decide(createExecution(null), 1, 10, 60001, 0));
+    }
+
+    private Execution createExecution(Integer priority) {
+        Execution execution = new Execution(1L, 2L, 3L, new HashMap<String, Serializable>(), new HashMap<String, Serializable>());
+        if (priority != null) {
+            execution.getSystemContext().put(TempConstants.EXECUTION_PRIORITY, priority);
+        }
+        return execution;
+    }
+}